@@ -0,0 +1,40 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+/**
+ * What happens to a packet if the queue of the asynchronous listeners is full.
+ *
+ * @see PacketListenerCommon#setAsync(boolean)
+ */
+public enum AsyncOverflowPolicy {
+    /**
+     * The packet is not passed to the asynchronous listeners.
+     */
+    DROP_NEWEST,
+    /**
+     * The oldest queued packet is dropped to make room for the packet.
+     */
+    DROP_OLDEST,
+    /**
+     * The asynchronous listeners are called on the netty thread, which slows down the connection
+     * until the queue has been worked off.
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,260 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Calls the asynchronous listeners of packets on a bounded pool of worker threads.
+ * <p>
+ * Every packet is copied once all synchronous listeners have been called, so asynchronous listeners see
+ * the packet as it is passed on, including the changes of the synchronous listeners and whether it has been cancelled.
+ * Changes made to the copy, like cancelling it or re-encoding it, have no effect.
+ * The asynchronous listeners of a packet are called one after another in the order of their priority,
+ * while different packets may be processed concurrently if more than one thread is configured.
+ *
+ * @see PacketListenerCommon#setAsync(boolean)
+ * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#asyncListenerThreads(int)
+ */
+public final class AsyncPacketDispatcher {
+    private final ThreadPoolExecutor executor;
+    private final AsyncOverflowPolicy overflowPolicy;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final AtomicInteger peakQueueSize = new AtomicInteger();
+
+    AsyncPacketDispatcher(int threads, int queueCapacity, AsyncOverflowPolicy overflowPolicy) {
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "packetevents-async-listener-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Copies the packet of the event after the synchronous listeners have been called.
+     * If the packet is going to be re-encoded, the wrapper is encoded once here and the event keeps that data,
+     * so re-encoding the packet only has to copy it, see {@link ProtocolPacketEvent#writeLastUsedWrapper()}.
+     *
+     * @param readerIndex The index of the packet data following the packet id in the buffer of the event
+     * @param wrapper     The wrapper the packet is going to be re-encoded with, or null if it is passed on as is
+     */
+    static @Nullable ProtocolPacketEvent snapshot(ProtocolPacketEvent event, int readerIndex,
+                                                  @Nullable PacketWrapper<?> wrapper) {
+        Object buffer;
+        if (wrapper != null) {
+            // the changes of the synchronous listeners only reach the buffer of the event once it is re-encoded
+            Object encoded = UnpooledByteBufAllocationHelper.buffer();
+            Object eventBuffer = wrapper.buffer;
+            wrapper.buffer = encoded;
+            try {
+                wrapper.write();
+            } catch (RuntimeException ex) {
+                ByteBufHelper.release(encoded);
+                throw ex;
+            } finally {
+                wrapper.buffer = eventBuffer;
+            }
+            // asynchronous listeners may modify their copy while the packet is re-encoded
+            buffer = ByteBufHelper.copy(encoded);
+            event.setEncodedWrapper(wrapper, encoded);
+        } else {
+            Object eventBuffer = event.getByteBuf();
+            int currentIndex = ByteBufHelper.readerIndex(eventBuffer);
+            ByteBufHelper.readerIndex(eventBuffer, readerIndex);
+            buffer = ByteBufHelper.copy(eventBuffer);
+            ByteBufHelper.readerIndex(eventBuffer, currentIndex);
+        }
+        try {
+            if (event instanceof PacketReceiveEvent) {
+                return new PacketReceiveEvent(event.getPacketId(), event.getPacketType(), event.getServerVersion(),
+                        event.getChannel(), event.getUser(), event.getPlayer(), buffer);
+            }
+            return new PacketSendEvent(event.getPacketId(), event.getPacketType(), event.getServerVersion(),
+                    event.getChannel(), event.getUser(), event.getPlayer(), buffer);
+        } catch (PacketProcessException ex) {
+            ByteBufHelper.release(buffer);
+            return null;
+        }
+    }
+
+    /**
+     * Queues the snapshot of a packet for the listeners starting at the given index.
+     */
+    void dispatch(ProtocolPacketEvent snapshot, PacketListenerCommon[] listeners, int firstListener) {
+        this.submitted.increment();
+        Task task = new Task(snapshot, listeners, firstListener);
+        if (this.tryExecute(task)) {
+            return;
+        }
+        switch (this.overflowPolicy) {
+            case CALLER_RUNS:
+                this.callerRuns.increment();
+                task.run();
+                return;
+            case DROP_OLDEST:
+                Runnable oldest = this.executor.getQueue().poll();
+                if (oldest != null) {
+                    ((Task) oldest).discard();
+                }
+                if (this.tryExecute(task)) {
+                    return;
+                }
+                // fall through, the executor has been shut down
+            default:
+                task.discard();
+        }
+    }
+
+    private boolean tryExecute(Task task) {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+        this.peakQueueSize.accumulateAndGet(this.executor.getQueue().size(), Math::max);
+        return true;
+    }
+
+    void shutdown() {
+        this.executor.shutdown();
+        Runnable task;
+        while ((task = this.executor.getQueue().poll()) != null) {
+            ((Task) task).discard();
+        }
+    }
+
+    public AsyncOverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    /**
+     * @return the number of packets waiting to be processed
+     */
+    public int getQueueSize() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * @return the largest number of packets that have been waiting at once
+     */
+    public int getPeakQueueSize() {
+        return this.peakQueueSize.get();
+    }
+
+    public int getQueueCapacity() {
+        return this.executor.getQueue().size() + this.executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * @return the number of packets passed to the asynchronous listeners, including dropped ones
+     */
+    public long getSubmittedCount() {
+        return this.submitted.sum();
+    }
+
+    /**
+     * @return the number of packets all asynchronous listeners have been called for
+     */
+    public long getCompletedCount() {
+        return this.completed.sum();
+    }
+
+    /**
+     * @return the number of packets which have been dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * @return the number of packets which have been processed on the netty thread because the queue was full
+     */
+    public long getCallerRunsCount() {
+        return this.callerRuns.sum();
+    }
+
+    private final class Task implements Runnable {
+        private final ProtocolPacketEvent event;
+        private final PacketListenerCommon[] listeners;
+        private final int firstListener;
+
+        Task(ProtocolPacketEvent event, PacketListenerCommon[] listeners, int firstListener) {
+            this.event = event;
+            this.listeners = listeners;
+            this.firstListener = firstListener;
+        }
+
+        @Override
+        public void run() {
+            Object buffer = this.event.getByteBuf();
+            int readerIndex = ByteBufHelper.readerIndex(buffer);
+            ListenerMetrics metrics = PacketEvents.getAPI().getEventManager().getListenerMetrics();
+            try {
+                for (int i = this.firstListener; i < this.listeners.length; i++) {
+                    long startAllocatedBytes = 0L;
+                    long startNanos = 0L;
+                    if (metrics != null) {
+                        startAllocatedBytes = ListenerMetrics.allocatedBytes();
+                        startNanos = System.nanoTime();
+                    }
+                    try {
+                        this.event.call(this.listeners[i]);
+                    } catch (Exception t) {
+                        PacketEvents.getAPI().getLogger().log(Level.WARNING,
+                                "PacketEvents caught an unhandled exception while calling your async listener.", t);
+                    }
+                    if (metrics != null) {
+                        metrics.record(this.listeners[i], this.event, startNanos, startAllocatedBytes);
+                    }
+                    ByteBufHelper.readerIndex(buffer, readerIndex);
+                }
+            } finally {
+                this.event.releasePooledWrappers();
+                this.event.cleanUp();
+                completed.increment();
+            }
+        }
+
+        void discard() {
+            dropped.increment();
+            this.event.cleanUp();
+        }
+    }
+}
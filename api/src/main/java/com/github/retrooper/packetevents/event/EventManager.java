@@ -20,6 +20,14 @@ package com.github.retrooper.packetevents.event;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.exception.InvalidHandshakeException;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -52,6 +60,20 @@ public class EventManager {
     //Since reads greatly outnumber writes, create an array for the best possible iteration time
     //Updated as a whole on writes, no index modifications are allowed
     private volatile PacketListenerCommon[] listeners = new PacketListenerCommon[0];
+    //Listeners which haven't declared any packet types, used for packets which can't be looked up in the index below
+    private volatile PacketListenerCommon[] globalListeners = new PacketListenerCommon[0];
+    //Indexed by [PacketSide][ConnectionState][PacketType ordinal], each entry already contains the global listeners
+    //in the correct priority order, so a packet event only visits the listeners which are actually interested in it
+    private volatile PacketListenerCommon[][][][] packetListeners = createPacketListenerIndex(new PacketListenerCommon[0]);
+    //Indexed by [PacketSide][ConnectionState][ClientVersion ordinal], a bitmap of the packet ids which have at least one listener
+    //Null if there are global listeners, since every packet has to be processed for them anyway
+    private volatile long[][][][] packetIdFilters = createPacketIdFilters(this.packetListeners);
+    //Created once the first packet has to be passed to an asynchronous listener
+    private volatile AsyncPacketDispatcher asyncDispatcher;
+    //Set once all listeners have been unregistered, until another asynchronous listener is registered
+    private boolean asyncDispatcherShutdown;
+    //Null unless listener metrics have been enabled, so listeners aren't timed otherwise
+    private volatile ListenerMetrics listenerMetrics;
 
 
     /**
@@ -79,7 +101,28 @@ public class EventManager {
      * @param postCallListenerAction The action to be ran after all the listeners have finished processing
      */
     public void callEvent(PacketEvent event, @Nullable Runnable postCallListenerAction) {
-        for (PacketListenerCommon listener : listeners) {
+        PacketListenerCommon[] listeners = event instanceof ProtocolPacketEvent
+                ? this.getPacketListeners((ProtocolPacketEvent) event) : this.listeners;
+        int syncListeners = listeners.length;
+        int readerIndex = 0;
+        if (event instanceof ProtocolPacketEvent) {
+            //Asynchronous listeners are sorted to the end
+            while (syncListeners > 0 && listeners[syncListeners - 1].isAsync()) {
+                syncListeners--;
+            }
+            if (syncListeners != listeners.length) {
+                readerIndex = ByteBufHelper.readerIndex(((ProtocolPacketEvent) event).getByteBuf());
+            }
+        }
+        ListenerMetrics metrics = this.listenerMetrics;
+        for (int i = 0; i < syncListeners; i++) {
+            PacketListenerCommon listener = listeners[i];
+            long startAllocatedBytes = 0L;
+            long startNanos = 0L;
+            if (metrics != null) {
+                startAllocatedBytes = ListenerMetrics.allocatedBytes();
+                startNanos = System.nanoTime();
+            }
             try {
                 event.call(listener);
             } catch (Exception t) {
@@ -88,16 +131,176 @@ public class EventManager {
                     PacketEvents.getAPI().getLogger().log(Level.WARNING, "PacketEvents caught an unhandled exception while calling your listener.", t);
                 }
             }
+            if (metrics != null) {
+                metrics.record(listener, event, startNanos, startAllocatedBytes);
+            }
             if (postCallListenerAction != null) {
                 postCallListenerAction.run();
             }
         }
-        // For performance reasons, we don't want to re-encode the packet if it's not needed.
-        if (event instanceof ProtocolPacketEvent && !((ProtocolPacketEvent) event).needsReEncode()) {
-            ((ProtocolPacketEvent) event).setLastUsedWrapper(null);
+        if (event instanceof ProtocolPacketEvent) {
+            ProtocolPacketEvent packetEvent = (ProtocolPacketEvent) event;
+            PacketWrapper<?> lastWrapper = packetEvent.getLastUsedWrapper();
+            if (lastWrapper != null && lastWrapper.isPatchable()
+                    && PacketEvents.getAPI().getSettings().isInPlacePatchingEnabled()) {
+                // All changes have already been written into the buffer, unless they changed its length
+                packetEvent.markForReEncode(lastWrapper.isReEncodeRequired());
+            }
+            // For performance reasons, we don't want to re-encode the packet if it's not needed.
+            if (!packetEvent.needsReEncode()) {
+                packetEvent.setLastUsedWrapper(null);
+            }
+            if (syncListeners != listeners.length) {
+                //Taken after the synchronous listeners, so their changes are passed on as well
+                ProtocolPacketEvent snapshot = AsyncPacketDispatcher.snapshot(packetEvent, readerIndex,
+                        packetEvent.getLastUsedWrapper());
+                if (snapshot != null) {
+                    snapshot.setCancelled(packetEvent.isCancelled());
+                    AsyncPacketDispatcher dispatcher = this.getActiveAsyncDispatcher();
+                    if (dispatcher != null) {
+                        dispatcher.dispatch(snapshot, listeners, syncListeners);
+                    } else {
+                        ByteBufHelper.release(snapshot.getByteBuf());
+                    }
+                }
+            }
         }
     }
 
+    // The dispatcher for packets of listeners which may have been unregistered by now,
+    // null if all listeners have been unregistered, so in-flight packets don't create a new dispatcher
+    private @Nullable AsyncPacketDispatcher getActiveAsyncDispatcher() {
+        AsyncPacketDispatcher dispatcher = this.asyncDispatcher;
+        if (dispatcher != null) {
+            return dispatcher;
+        }
+        synchronized (this) {
+            return this.asyncDispatcherShutdown ? null : this.getAsyncDispatcher();
+        }
+    }
+
+    /**
+     * The dispatcher of the asynchronous listeners, which also provides metrics about their queue.
+     *
+     * @return The dispatcher, created with the current settings on first use
+     * @see PacketListenerCommon#setAsync(boolean)
+     */
+    public AsyncPacketDispatcher getAsyncDispatcher() {
+        AsyncPacketDispatcher dispatcher = this.asyncDispatcher;
+        if (dispatcher == null) {
+            synchronized (this) {
+                dispatcher = this.asyncDispatcher;
+                if (dispatcher == null) {
+                    PacketEventsSettings settings = PacketEvents.getAPI().getSettings();
+                    dispatcher = new AsyncPacketDispatcher(settings.getAsyncListenerThreads(),
+                            settings.getAsyncListenerQueueCapacity(), settings.getAsyncListenerOverflowPolicy());
+                    this.asyncDispatcher = dispatcher;
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Starts recording the invocations, time and allocations of every listener per packet type.
+     * Until this is called, listeners aren't timed at all.
+     *
+     * @return The metrics, or the already recording metrics if they have been enabled before
+     * @see PacketEventsSettings#listenerMetrics(boolean)
+     */
+    public ListenerMetrics enableListenerMetrics() {
+        synchronized (this) {
+            if (this.listenerMetrics == null) {
+                PacketEventsSettings settings = PacketEvents.getAPI().getSettings();
+                this.listenerMetrics = new ListenerMetrics(settings.getListenerMetricsReportInterval(),
+                        settings.getListenerMetricsReportLimit());
+            }
+            return this.listenerMetrics;
+        }
+    }
+
+    /**
+     * Stops recording listener metrics and discards the metrics recorded so far.
+     */
+    public void disableListenerMetrics() {
+        synchronized (this) {
+            if (this.listenerMetrics != null) {
+                this.listenerMetrics.shutdown();
+                this.listenerMetrics = null;
+            }
+        }
+    }
+
+    /**
+     * @return The recorded listener metrics, or null if they haven't been enabled
+     */
+    public @Nullable ListenerMetrics getListenerMetrics() {
+        return this.listenerMetrics;
+    }
+
+    /**
+     * Checks whether any registered listener is interested in the specified packet type.
+     * If this returns false, processing the packet would not call any listener.
+     *
+     * @param side       The side which sent the packet
+     * @param state      The connection state the packet was sent in
+     * @param packetType The type of the packet, may be null if unknown
+     * @return Whether at least one listener would be called for this packet
+     */
+    public boolean hasPacketListeners(PacketSide side, ConnectionState state, @Nullable PacketTypeCommon packetType) {
+        return this.getPacketListeners(side, state, packetType).length != 0;
+    }
+
+    /**
+     * Checks whether any registered listener is interested in the packet with the specified id.
+     * Unlike {@link #hasPacketListeners(PacketSide, ConnectionState, PacketTypeCommon)}, this doesn't require
+     * resolving the packet type, which allows platform handlers to pass on uninteresting packets
+     * without creating an event for them.
+     *
+     * @param side     The side which sent the packet
+     * @param state    The connection state the packet was sent in
+     * @param version  The version the packet id is mapped with
+     * @param packetId The id of the packet
+     * @return Whether at least one listener would be called for this packet
+     */
+    public boolean hasPacketListeners(PacketSide side, ConnectionState state, ClientVersion version, int packetId) {
+        long[][][][] packetIdFilters = this.packetIdFilters;
+        if (packetIdFilters == null) {
+            return true;
+        }
+        long[] filter = packetIdFilters[side.ordinal()][state.ordinal()][version.ordinal()];
+        int word = packetId >>> 6;
+        return word < filter.length && (filter[word] & (1L << packetId)) != 0L;
+    }
+
+    /**
+     * Whether packets can be skipped based on their packet id,
+     * see {@link #hasPacketListeners(PacketSide, ConnectionState, ClientVersion, int)}.
+     * This is not possible as long as any listener without declared packet types is registered.
+     *
+     * @return Whether packet id filtering is available
+     */
+    public boolean isPacketIdFilterAvailable() {
+        return this.packetIdFilters != null;
+    }
+
+    private PacketListenerCommon[] getPacketListeners(ProtocolPacketEvent event) {
+        PacketTypeCommon packetType = event.getPacketType();
+        if (packetType == null) {
+            return this.globalListeners;
+        }
+        return this.getPacketListeners(packetType.getSide(), event.getConnectionState(), packetType);
+    }
+
+    private PacketListenerCommon[] getPacketListeners(PacketSide side, ConnectionState state, @Nullable PacketTypeCommon packetType) {
+        if (!(packetType instanceof Enum<?>)) {
+            return this.globalListeners;
+        }
+        PacketListenerCommon[][] index = this.packetListeners[side.ordinal()][state.ordinal()];
+        int ordinal = ((Enum<?>) packetType).ordinal();
+        return ordinal < index.length ? index[ordinal] : this.globalListeners;
+    }
+
     /**
      * Register the dynamic packet event listener.
      *
@@ -109,6 +312,20 @@ public class EventManager {
         return registerListener(packetListenerAbstract);
     }
 
+    /**
+     * Register the dynamic packet event listener, which will only be called for the specified packet types.
+     *
+     * @param listener    {@link PacketListenerCommon}
+     * @param priority    {@link PacketListenerPriority}
+     * @param packetTypes The packet types the listener is interested in
+     */
+    public PacketListenerCommon registerListener(PacketListener listener, PacketListenerPriority priority,
+                                                 PacketTypeCommon... packetTypes) {
+        PacketListenerCommon packetListenerAbstract = listener.asAbstract(priority);
+        packetListenerAbstract.setPacketTypes(Arrays.asList(packetTypes));
+        return registerListener(packetListenerAbstract);
+    }
+
     /**
      * Register the dynamic packet event listener.
      *
@@ -153,6 +370,19 @@ public class EventManager {
         this.listenersMap.clear();
         synchronized (this) {//like booky10 said, the synchronization is necessary here
             this.listeners = new PacketListenerCommon[0];
+            this.globalListeners = new PacketListenerCommon[0];
+            this.packetListeners = createPacketListenerIndex(this.globalListeners);
+            this.packetIdFilters = createPacketIdFilters(this.packetListeners);
+            //Queued packets would only be passed to listeners which have just been unregistered
+            if (this.asyncDispatcher != null) {
+                this.asyncDispatcher.shutdown();
+                this.asyncDispatcher = null;
+            }
+            this.asyncDispatcherShutdown = true;
+            if (this.listenerMetrics != null) {
+                this.listenerMetrics.shutdown();
+                this.listenerMetrics = null;
+            }
         }
     }
 
@@ -166,8 +396,102 @@ public class EventManager {
                 Set<PacketListenerCommon> set = this.listenersMap.get(priority);
                 if (set != null) list.addAll(set);
             }
-            this.listeners = list.toArray(new PacketListenerCommon[0]);
+            //Asynchronous listeners are called after all synchronous listeners, keep them at the end
+            list.sort(Comparator.comparing(PacketListenerCommon::isAsync));
+            PacketListenerCommon[] listeners = list.toArray(new PacketListenerCommon[0]);
+            list.removeIf(listener -> !isGlobalListener(listener));
+            PacketListenerCommon[] globalListeners = list.toArray(new PacketListenerCommon[0]);
+
+            PacketListenerCommon[][][][] packetListeners = createPacketListenerIndex(globalListeners);
+            if (globalListeners.length != listeners.length) {
+                for (PacketSide side : PacketSide.values()) {
+                    for (ConnectionState state : ConnectionState.values()) {
+                        PacketListenerCommon[][] index = packetListeners[side.ordinal()][state.ordinal()];
+                        PacketTypeCommon[] packetTypes = PacketType.getPacketTypes(side, state);
+                        for (PacketTypeCommon packetType : packetTypes) {
+                            index[((Enum<?>) packetType).ordinal()] = filterListeners(listeners, globalListeners, packetType);
+                        }
+                    }
+                }
+            }
+
+            if (listeners.length != 0 && listeners[listeners.length - 1].isAsync()) {
+                this.asyncDispatcherShutdown = false;
+            }
+            this.listeners = listeners;
+            this.globalListeners = globalListeners;
+            this.packetListeners = packetListeners;
+            this.packetIdFilters = globalListeners.length == 0 ? createPacketIdFilters(packetListeners) : null;
+        }
+    }
+
+    private static PacketListenerCommon[] filterListeners(PacketListenerCommon[] listeners,
+                                                          PacketListenerCommon[] globalListeners,
+                                                          PacketTypeCommon packetType) {
+        List<PacketListenerCommon> list = new ArrayList<>(listeners.length);
+        for (PacketListenerCommon listener : listeners) {
+            if (isGlobalListener(listener) || listener.getPacketTypes().contains(packetType)) {
+                list.add(listener);
+            }
+        }
+        //Share the array with the global listeners if no typed listener is interested in this packet type
+        return list.size() == globalListeners.length ? globalListeners : list.toArray(new PacketListenerCommon[0]);
+    }
+
+    private static boolean isGlobalListener(PacketListenerCommon listener) {
+        Set<PacketTypeCommon> packetTypes = listener.getPacketTypes();
+        if (packetTypes == null) {
+            return true;
+        }
+        //Custom packet type implementations can't be indexed, so these listeners have to see everything
+        for (PacketTypeCommon packetType : packetTypes) {
+            if (!(packetType instanceof Enum<?>)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static PacketListenerCommon[][][][] createPacketListenerIndex(PacketListenerCommon[] globalListeners) {
+        PacketListenerCommon[][][][] index = new PacketListenerCommon[PacketSide.values().length][ConnectionState.values().length][][];
+        for (PacketSide side : PacketSide.values()) {
+            for (ConnectionState state : ConnectionState.values()) {
+                PacketListenerCommon[][] listeners = new PacketListenerCommon[PacketType.getPacketTypes(side, state).length][];
+                Arrays.fill(listeners, globalListeners);
+                index[side.ordinal()][state.ordinal()] = listeners;
+            }
+        }
+        return index;
+    }
+
+    private static long[][][][] createPacketIdFilters(PacketListenerCommon[][][][] packetListeners) {
+        ClientVersion[] versions = ClientVersion.values();
+        long[][][][] filters = new long[PacketSide.values().length][ConnectionState.values().length][versions.length][];
+        for (PacketSide side : PacketSide.values()) {
+            for (ConnectionState state : ConnectionState.values()) {
+                PacketListenerCommon[][] index = packetListeners[side.ordinal()][state.ordinal()];
+                PacketTypeCommon[] packetTypes = PacketType.getPacketTypes(side, state);
+                for (ClientVersion version : versions) {
+                    long[] filter = new long[0];
+                    for (PacketTypeCommon packetType : packetTypes) {
+                        if (index[((Enum<?>) packetType).ordinal()].length == 0) {
+                            continue;
+                        }
+                        int id = packetType.getId(version);
+                        if (id < 0) {
+                            continue;
+                        }
+                        int word = id >>> 6;
+                        if (word >= filter.length) {
+                            filter = Arrays.copyOf(filter, word + 1);
+                        }
+                        filter[word] |= 1L << id;
+                    }
+                    filters[side.ordinal()][state.ordinal()][version.ordinal()] = filter;
+                }
+            }
         }
+        return filters;
     }
 
     //Internal registration methods, specifically separated for lesser overhead when registering an array of Listeners
@@ -0,0 +1,225 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Records how often and how long every listener has been called for every packet type.
+ * <p>
+ * Latencies are kept in a histogram with four buckets per power of two,
+ * so percentiles are accurate to about 25%.
+ * Allocated bytes are only recorded if the JVM supports measuring the allocations of a thread.
+ *
+ * @see EventManager#enableListenerMetrics()
+ */
+public final class ListenerMetrics {
+    private static final int BUCKETS = 256;
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = findThreadBean();
+
+    private final Map<PacketListenerCommon, Map<PacketTypeCommon, Counters>> counters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reporter;
+
+    ListenerMetrics(long reportIntervalSeconds, int reportLimit) {
+        if (reportIntervalSeconds > 0L) {
+            this.reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "packetevents-listener-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.reporter.scheduleAtFixedRate(() -> this.report(reportLimit),
+                    reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.reporter = null;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean findThreadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+                if (threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+                    return threadBean;
+                }
+            }
+        } catch (Throwable ignored) {
+            // not available on this JVM
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the allocated bytes of listeners can be measured on this JVM
+     */
+    public static boolean isAllocationTrackingSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    static long allocatedBytes() {
+        return THREAD_BEAN == null ? 0L : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    void record(PacketListenerCommon listener, PacketEvent event, long startNanos, long startAllocatedBytes) {
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = THREAD_BEAN == null ? 0L : allocatedBytes() - startAllocatedBytes;
+        if (!(event instanceof ProtocolPacketEvent)) {
+            return;
+        }
+        PacketTypeCommon packetType = ((ProtocolPacketEvent) event).getPacketType();
+        if (packetType == null) {
+            return;
+        }
+        Map<PacketTypeCommon, Counters> listenerCounters = this.counters.get(listener);
+        if (listenerCounters == null) {
+            listenerCounters = this.counters.computeIfAbsent(listener, key -> new ConcurrentHashMap<>());
+        }
+        Counters typeCounters = listenerCounters.get(packetType);
+        if (typeCounters == null) {
+            typeCounters = listenerCounters.computeIfAbsent(packetType, key -> new Counters());
+        }
+        typeCounters.record(nanos, bytes);
+    }
+
+    /**
+     * @return the metrics of every listener and packet type, sorted by the total time spent in the listener
+     */
+    public List<ListenerStats> getStats() {
+        List<ListenerStats> stats = new ArrayList<>();
+        for (Map.Entry<PacketListenerCommon, Map<PacketTypeCommon, Counters>> entry : this.counters.entrySet()) {
+            for (Map.Entry<PacketTypeCommon, Counters> typeEntry : entry.getValue().entrySet()) {
+                stats.add(typeEntry.getValue().toStats(entry.getKey(), typeEntry.getKey()));
+            }
+        }
+        stats.sort(Comparator.comparingLong(ListenerStats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    /**
+     * @return the metrics of the listener for every packet type, sorted by the total time spent in the listener
+     */
+    public List<ListenerStats> getStats(PacketListenerCommon listener) {
+        List<ListenerStats> stats = new ArrayList<>();
+        Map<PacketTypeCommon, Counters> listenerCounters = this.counters.get(listener);
+        if (listenerCounters != null) {
+            for (Map.Entry<PacketTypeCommon, Counters> entry : listenerCounters.entrySet()) {
+                stats.add(entry.getValue().toStats(listener, entry.getKey()));
+            }
+        }
+        stats.sort(Comparator.comparingLong(ListenerStats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    public void reset() {
+        this.counters.clear();
+    }
+
+    /**
+     * Logs the listeners which took the most time in total.
+     *
+     * @param limit how many listener and packet type combinations to log
+     */
+    public void report(int limit) {
+        List<ListenerStats> stats = this.getStats();
+        if (stats.isEmpty()) {
+            return;
+        }
+        StringBuilder builder = new StringBuilder("Packet listener metrics (slowest first):");
+        for (int i = 0; i < stats.size() && i < limit; i++) {
+            builder.append(System.lineSeparator()).append("  ").append(stats.get(i));
+        }
+        PacketEvents.getAPI().getLogger().log(Level.INFO, builder.toString());
+    }
+
+    @ApiStatus.Internal
+    void shutdown() {
+        if (this.reporter != null) {
+            this.reporter.shutdownNow();
+        }
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < 4L) {
+            return (int) Math.max(nanos, 0L);
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (highestBit - 2)) & 3;
+        return (highestBit - 1) * 4 + subBucket;
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if (bucket < 4) {
+            return bucket;
+        }
+        int highestBit = bucket / 4 + 1;
+        int subBucket = bucket & 3;
+        return ((5L + subBucket) << (highestBit - 2)) - 1L;
+    }
+
+    private static final class Counters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos, long bytes) {
+            this.invocations.increment();
+            this.totalNanos.add(nanos);
+            this.allocatedBytes.add(bytes);
+            this.histogram.incrementAndGet(bucket(nanos));
+        }
+
+        ListenerStats toStats(PacketListenerCommon listener, PacketTypeCommon packetType) {
+            long[] histogram = new long[BUCKETS];
+            long total = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = this.histogram.get(i);
+                total += histogram[i];
+            }
+            // the smallest latency which at least 99% of the invocations didn't exceed
+            long p99 = 0L;
+            long threshold = total - total / 100L;
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram[i];
+                if (seen >= threshold && seen > 0L) {
+                    p99 = bucketUpperBound(i);
+                    break;
+                }
+            }
+            return new ListenerStats(listener, packetType, this.invocations.sum(), this.totalNanos.sum(), p99,
+                    THREAD_BEAN == null ? -1L : this.allocatedBytes.sum());
+        }
+    }
+}
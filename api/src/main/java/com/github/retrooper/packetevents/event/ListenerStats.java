@@ -0,0 +1,86 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+
+/**
+ * A snapshot of the metrics of a listener for a single packet type.
+ *
+ * @see ListenerMetrics
+ */
+public final class ListenerStats {
+    private final PacketListenerCommon listener;
+    private final PacketTypeCommon packetType;
+    private final long invocations;
+    private final long totalNanos;
+    private final long p99Nanos;
+    private final long allocatedBytes;
+
+    ListenerStats(PacketListenerCommon listener, PacketTypeCommon packetType, long invocations,
+                  long totalNanos, long p99Nanos, long allocatedBytes) {
+        this.listener = listener;
+        this.packetType = packetType;
+        this.invocations = invocations;
+        this.totalNanos = totalNanos;
+        this.p99Nanos = p99Nanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public PacketListenerCommon getListener() {
+        return this.listener;
+    }
+
+    public PacketTypeCommon getPacketType() {
+        return this.packetType;
+    }
+
+    public long getInvocations() {
+        return this.invocations;
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos;
+    }
+
+    public long getAverageNanos() {
+        return this.invocations == 0L ? 0L : this.totalNanos / this.invocations;
+    }
+
+    public long getP99Nanos() {
+        return this.p99Nanos;
+    }
+
+    /**
+     * @return the bytes allocated by the listener, or -1 if allocations can't be measured on this JVM
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return this.listener.getClass().getName() + " " + this.packetType.getName()
+                + ": calls=" + this.invocations
+                + ", total=" + this.totalNanos / 1_000_000L + "ms"
+                + ", avg=" + this.getAverageNanos() / 1_000L + "us"
+                + ", p99=" + this.p99Nanos / 1_000L + "us"
+                + (this.allocatedBytes < 0L ? "" : ", allocated=" + this.allocatedBytes / 1024L + "KiB");
+    }
+}
@@ -18,9 +18,17 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Abstract packet listener.
@@ -30,11 +38,25 @@ import java.util.Map;
  */
 public abstract class PacketListenerCommon {
     private final PacketListenerPriority priority;
+    private @Nullable Set<PacketTypeCommon> packetTypes;
+    private boolean async;
 
     public PacketListenerCommon(PacketListenerPriority priority) {
         this.priority = priority;
     }
 
+    /**
+     * Creates a listener which will only be called for the specified packet types.
+     *
+     * @param priority    {@link PacketListenerPriority}
+     * @param packetTypes The packet types this listener is interested in
+     * @see #setPacketTypes(Collection)
+     */
+    public PacketListenerCommon(PacketListenerPriority priority, PacketTypeCommon... packetTypes) {
+        this.priority = priority;
+        this.setPacketTypes(Arrays.asList(packetTypes));
+    }
+
     public PacketListenerCommon() {
         this.priority = PacketListenerPriority.NORMAL;
     }
@@ -43,6 +65,57 @@ public abstract class PacketListenerCommon {
         return priority;
     }
 
+    /**
+     * The packet types this listener is interested in.
+     * If this is null, the listener will be called for every packet.
+     *
+     * @return The packet types this listener is interested in, or null if it listens to all packets
+     */
+    public @Nullable Set<PacketTypeCommon> getPacketTypes() {
+        return packetTypes;
+    }
+
+    /**
+     * Restricts {@link #onPacketReceive(PacketReceiveEvent)} and {@link #onPacketSend(PacketSendEvent)}
+     * to the specified packet types, which allows the {@link EventManager} to skip this listener entirely for other packets.
+     * Other events, like {@link UserConnectEvent}, are still passed to this listener.
+     *
+     * @apiNote This has to be set before the listener is registered, changes afterwards are not picked up.
+     * @param packetTypes The packet types this listener is interested in, or null to listen to all packets
+     */
+    public void setPacketTypes(@Nullable Collection<? extends PacketTypeCommon> packetTypes) {
+        this.packetTypes = packetTypes == null ? null
+                : Collections.unmodifiableSet(new HashSet<>(packetTypes));
+    }
+
+    public boolean isListeningToAllPackets() {
+        return packetTypes == null;
+    }
+
+    /**
+     * Whether this listener is called off the netty thread, see {@link #setAsync(boolean)}.
+     *
+     * @return Whether this listener is asynchronous
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Makes {@link #onPacketReceive(PacketReceiveEvent)} and {@link #onPacketSend(PacketSendEvent)} get called
+     * on a worker thread with a read-only copy of the packet, after all synchronous listeners have been called.
+     * The copy includes the changes made by the synchronous listeners.
+     * This is meant for listeners which only observe packets, like logging or analytics,
+     * so they don't add latency to the connection. Other events are still passed on the calling thread.
+     *
+     * @apiNote This has to be set before the listener is registered, changes afterwards are not picked up.
+     * @param async Whether this listener is asynchronous
+     * @see AsyncPacketDispatcher
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
     public void onUserConnect(UserConnectEvent event) {
     }
 
@@ -32,6 +32,8 @@ import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapperPool;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -51,6 +53,12 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
     private ServerVersion serverVersion;
     private boolean cancel;
     private PacketWrapper<?> lastUsedWrapper;
+    // wrappers borrowed from the pool of the current thread, returned once all listeners have been called
+    private PacketWrapper<?> pooledWrapper;
+    private List<PacketWrapper<?>> pooledWrappers;
+    // the last used wrapper encoded (without packet id) for the asynchronous listeners, see writeLastUsedWrapper
+    private PacketWrapper<?> encodedWrapper;
+    private Object encodedWrapperBuffer;
     private List<Runnable> postTasks = null;
     private boolean cloned;
     private boolean needsReEncode = PacketEvents.getAPI().getSettings().reEncodeByDefault();
@@ -209,6 +217,117 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         this.lastUsedWrapper = lastUsedWrapper;
     }
 
+    /**
+     * Re-encodes the packet by writing the packet id and the last used wrapper into the buffer of that wrapper.
+     * If the wrapper has already been encoded for the asynchronous listeners, that data is copied
+     * instead of encoding the wrapper a second time.
+     */
+    @ApiStatus.Internal
+    public void writeLastUsedWrapper() {
+        PacketWrapper<?> wrapper = this.lastUsedWrapper;
+        wrapper.writeVarInt(this.getPacketId());
+        Object encoded = this.encodedWrapperBuffer;
+        if (encoded != null && this.encodedWrapper == wrapper) {
+            this.encodedWrapper = null;
+            this.encodedWrapperBuffer = null;
+            try {
+                ByteBufHelper.writeBytes(wrapper.buffer, encoded);
+            } finally {
+                ByteBufHelper.release(encoded);
+            }
+        } else {
+            wrapper.write();
+        }
+    }
+
+    // the wrapper has been encoded into the buffer after the synchronous listeners, see AsyncPacketDispatcher
+    void setEncodedWrapper(PacketWrapper<?> wrapper, Object buffer) {
+        this.releaseEncodedWrapper();
+        this.encodedWrapper = wrapper;
+        this.encodedWrapperBuffer = buffer;
+    }
+
+    private void releaseEncodedWrapper() {
+        if (this.encodedWrapperBuffer != null) {
+            ByteBufHelper.release(this.encodedWrapperBuffer);
+            this.encodedWrapper = null;
+            this.encodedWrapperBuffer = null;
+        }
+    }
+
+    /**
+     * Returns a wrapper of the given class for this packet, recycled from earlier packets of the same thread
+     * instead of being allocated for every packet. Listeners asking for the same wrapper class within the same
+     * event share one instance, so modifications are seen by later listeners like with any other wrapper.
+     * <p>
+     * The wrapper must not be used after the listener returns, as it will be reused for another packet.
+     * Wrappers are recycled by reading the next packet into them, so this is only suitable for wrappers
+     * whose {@link PacketWrapper#read()} assigns all of their fields.
+     *
+     * @param wrapperClass The wrapper class, which needs a constructor taking this type of event
+     * @return The wrapper, containing the data of this packet
+     */
+    public <T extends PacketWrapper<T>> T getPooledWrapper(Class<T> wrapperClass) {
+        PacketWrapper<?> wrapper = this.findPooledWrapper(wrapperClass);
+        if (wrapper != null) {
+            if (wrapper != this.lastUsedWrapper) {
+                // another wrapper has been used since, pick up its changes
+                wrapper.readEvent(this);
+            }
+            return wrapperClass.cast(wrapper);
+        }
+        T pooled = PacketWrapperPool.acquire(wrapperClass, this);
+        if (this.pooledWrapper == null) {
+            this.pooledWrapper = pooled;
+        } else {
+            if (this.pooledWrappers == null) {
+                this.pooledWrappers = new ArrayList<>(2);
+            }
+            this.pooledWrappers.add(pooled);
+        }
+        return pooled;
+    }
+
+    private @Nullable PacketWrapper<?> findPooledWrapper(Class<?> wrapperClass) {
+        if (this.pooledWrapper != null && this.pooledWrapper.getClass() == wrapperClass) {
+            return this.pooledWrapper;
+        }
+        if (this.pooledWrappers != null) {
+            for (PacketWrapper<?> wrapper : this.pooledWrappers) {
+                if (wrapper.getClass() == wrapperClass) {
+                    return wrapper;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the wrappers borrowed through {@link #getPooledWrapper(Class)} to the pool of the current thread.
+     * Has to be called after the packet has been re-encoded, as the last used wrapper may be one of them.
+     * Data encoded for the asynchronous listeners which hasn't been used for re-encoding is released as well.
+     */
+    @ApiStatus.Internal
+    public void releasePooledWrappers() {
+        this.releaseEncodedWrapper();
+        if (this.pooledWrapper == null) {
+            // further wrappers are only borrowed once the first one has been
+            return;
+        }
+        // it has already been written, don't let it be written again once it is bound to another packet
+        if (this.lastUsedWrapper != null && this.findPooledWrapper(this.lastUsedWrapper.getClass()) == this.lastUsedWrapper) {
+            this.lastUsedWrapper = null;
+        }
+        PacketWrapperPool.release(this.pooledWrapper);
+        this.pooledWrapper = null;
+        if (this.pooledWrappers != null) {
+            for (PacketWrapper<?> wrapper : this.pooledWrappers) {
+                PacketWrapperPool.release(wrapper);
+            }
+            this.pooledWrappers = null;
+        }
+    }
+
     public List<Runnable> getPostTasks() {
         if (postTasks == null) {
             postTasks = new ArrayList<>();
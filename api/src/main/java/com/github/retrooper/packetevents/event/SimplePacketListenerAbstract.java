@@ -19,6 +19,7 @@
 package com.github.retrooper.packetevents.event;
 
 import com.github.retrooper.packetevents.event.simple.*;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 
 import java.lang.reflect.Method;
 import java.util.List;
@@ -29,6 +30,10 @@ public abstract class SimplePacketListenerAbstract extends PacketListenerCommon
         super(priority);
     }
 
+    public SimplePacketListenerAbstract(PacketListenerPriority priority, PacketTypeCommon... packetTypes) {
+        super(priority, packetTypes);
+    }
+
     public SimplePacketListenerAbstract() {
         super();
     }
@@ -0,0 +1,122 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.manager;
+
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.ChunkCache;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.util.Vector3i;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBlockChange;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkDataBulk;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerMultiBlockChange;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerUnloadChunk;
+
+/**
+ * Keeps the {@link ChunkCache} of every user up to date, only registered if chunk caching is enabled.
+ * It listens on the monitor priority, so the cache reflects the packets as they are sent to the client.
+ */
+public class InternalChunkCacheListener extends PacketListenerAbstract {
+
+    public InternalChunkCacheListener() {
+        this(PacketListenerPriority.MONITOR);
+    }
+
+    public InternalChunkCacheListener(PacketListenerPriority priority) {
+        super(priority,
+                PacketType.Play.Server.CHUNK_DATA,
+                PacketType.Play.Server.MAP_CHUNK_BULK,
+                PacketType.Play.Server.UNLOAD_CHUNK,
+                PacketType.Play.Server.BLOCK_CHANGE,
+                PacketType.Play.Server.MULTI_BLOCK_CHANGE,
+                PacketType.Play.Server.JOIN_GAME,
+                PacketType.Play.Server.RESPAWN,
+                PacketType.Play.Server.CONFIGURATION_START);
+    }
+
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        if (event.isCancelled()) {
+            return;
+        }
+        // the wrappers below only read the packet, so they mustn't become the wrapper it gets re-encoded with
+        PacketWrapper<?> lastWrapper = event.getLastUsedWrapper();
+        boolean reEncode = event.needsReEncode();
+        try {
+            this.cache(event, event.getUser().getChunkCache());
+        } finally {
+            event.setLastUsedWrapper(lastWrapper);
+            event.markForReEncode(reEncode);
+        }
+    }
+
+    private void cache(PacketSendEvent event, ChunkCache cache) {
+        PacketTypeCommon type = event.getPacketType();
+        if (type == PacketType.Play.Server.BLOCK_CHANGE) {
+            WrapperPlayServerBlockChange packet = new WrapperPlayServerBlockChange(event);
+            Vector3i position = packet.getBlockPosition();
+            cache.setBlockId(position.getX(), position.getY(), position.getZ(), packet.getBlockId());
+        } else if (type == PacketType.Play.Server.MULTI_BLOCK_CHANGE) {
+            WrapperPlayServerMultiBlockChange packet = new WrapperPlayServerMultiBlockChange(event);
+            for (WrapperPlayServerMultiBlockChange.EncodedBlock block : packet.getBlocks()) {
+                cache.setBlockId(block.getX(), block.getY(), block.getZ(), block.getBlockId());
+            }
+        } else if (type == PacketType.Play.Server.CHUNK_DATA) {
+            WrapperPlayServerChunkData packet = new WrapperPlayServerChunkData(event);
+            Column column = packet.getColumn();
+            if (event.getServerVersion().isOlderThan(ServerVersion.V_1_9)
+                    && column.isFullChunk() && isEmpty(column.getChunks())) {
+                // before 1.9, chunks are unloaded by sending an empty full chunk
+                cache.unload(column.getX(), column.getZ());
+            } else {
+                cache.load(column);
+            }
+        } else if (type == PacketType.Play.Server.MAP_CHUNK_BULK) {
+            WrapperPlayServerChunkDataBulk packet = new WrapperPlayServerChunkDataBulk(event);
+            int[] x = packet.getX();
+            int[] z = packet.getZ();
+            BaseChunk[][] chunks = packet.getChunks();
+            for (int i = 0; i < chunks.length; i++) {
+                cache.load(new Column(x[i], z[i], true, chunks[i], null));
+            }
+        } else if (type == PacketType.Play.Server.UNLOAD_CHUNK) {
+            WrapperPlayServerUnloadChunk packet = new WrapperPlayServerUnloadChunk(event);
+            cache.unload(packet.getChunkX(), packet.getChunkZ());
+        } else {
+            // joining, respawning and reconfiguring all replace the client's world
+            cache.clear();
+        }
+    }
+
+    private static boolean isEmpty(BaseChunk[] chunks) {
+        for (BaseChunk chunk : chunks) {
+            if (chunk != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.manager;
+
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.entity.EntityPositionData;
+import com.github.retrooper.packetevents.protocol.entity.tracker.EntityTracker;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.teleport.RelativeFlag;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.Vector3i;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityHeadLook;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityPositionSync;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMove;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMoveAndRotation;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRotation;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnExperienceOrb;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnLivingEntity;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnPainting;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnPlayer;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnWeatherEntity;
+
+import java.util.UUID;
+
+/**
+ * Keeps the {@link EntityTracker} of every user up to date, only registered if entity tracking is enabled.
+ * It listens on the monitor priority, so the tracker reflects the packets as they are sent to the client.
+ */
+public class InternalEntityTrackerListener extends PacketListenerAbstract {
+
+    public InternalEntityTrackerListener() {
+        this(PacketListenerPriority.MONITOR);
+    }
+
+    public InternalEntityTrackerListener(PacketListenerPriority priority) {
+        super(priority,
+                PacketType.Play.Server.SPAWN_ENTITY,
+                PacketType.Play.Server.SPAWN_LIVING_ENTITY,
+                PacketType.Play.Server.SPAWN_PLAYER,
+                PacketType.Play.Server.SPAWN_EXPERIENCE_ORB,
+                PacketType.Play.Server.SPAWN_PAINTING,
+                PacketType.Play.Server.SPAWN_WEATHER_ENTITY,
+                PacketType.Play.Server.ENTITY_RELATIVE_MOVE,
+                PacketType.Play.Server.ENTITY_RELATIVE_MOVE_AND_ROTATION,
+                PacketType.Play.Server.ENTITY_ROTATION,
+                PacketType.Play.Server.ENTITY_HEAD_LOOK,
+                PacketType.Play.Server.ENTITY_TELEPORT,
+                PacketType.Play.Server.ENTITY_POSITION_SYNC,
+                PacketType.Play.Server.DESTROY_ENTITIES,
+                PacketType.Play.Server.ENTITY_METADATA,
+                PacketType.Play.Server.JOIN_GAME,
+                PacketType.Play.Server.RESPAWN,
+                PacketType.Play.Server.CONFIGURATION_START);
+    }
+
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        if (event.isCancelled()) {
+            return;
+        }
+        // the wrappers below only read the packet, so they mustn't become the wrapper it gets re-encoded with
+        PacketWrapper<?> lastWrapper = event.getLastUsedWrapper();
+        boolean reEncode = event.needsReEncode();
+        try {
+            this.track(event, event.getUser().getEntityTracker(), lastWrapper);
+        } finally {
+            event.setLastUsedWrapper(lastWrapper);
+            event.markForReEncode(reEncode);
+        }
+    }
+
+    private void track(PacketSendEvent event, EntityTracker tracker, PacketWrapper<?> lastWrapper) {
+        PacketTypeCommon type = event.getPacketType();
+        if (type == PacketType.Play.Server.ENTITY_RELATIVE_MOVE) {
+            WrapperPlayServerEntityRelativeMove packet = new WrapperPlayServerEntityRelativeMove(event);
+            tracker.move(packet.getEntityId(), packet.getDeltaX(), packet.getDeltaY(), packet.getDeltaZ());
+        } else if (type == PacketType.Play.Server.ENTITY_RELATIVE_MOVE_AND_ROTATION) {
+            WrapperPlayServerEntityRelativeMoveAndRotation packet = new WrapperPlayServerEntityRelativeMoveAndRotation(event);
+            tracker.move(packet.getEntityId(), packet.getDeltaX(), packet.getDeltaY(), packet.getDeltaZ());
+            tracker.rotate(packet.getEntityId(), packet.getYaw(), packet.getPitch());
+        } else if (type == PacketType.Play.Server.ENTITY_ROTATION) {
+            WrapperPlayServerEntityRotation packet = new WrapperPlayServerEntityRotation(event);
+            tracker.rotate(packet.getEntityId(), packet.getYaw(), packet.getPitch());
+        } else if (type == PacketType.Play.Server.ENTITY_HEAD_LOOK) {
+            WrapperPlayServerEntityHeadLook packet = new WrapperPlayServerEntityHeadLook(event);
+            tracker.rotateHead(packet.getEntityId(), packet.getHeadYaw());
+        } else if (type == PacketType.Play.Server.ENTITY_METADATA) {
+            this.handleMetadata(event, tracker, lastWrapper);
+        } else if (type == PacketType.Play.Server.ENTITY_TELEPORT) {
+            WrapperPlayServerEntityTeleport packet = new WrapperPlayServerEntityTeleport(event);
+            int entityId = packet.getEntityId();
+            int flags = packet.getRelativeMask();
+            if (flags == 0) {
+                tracker.teleport(entityId, packet.getX(), packet.getY(), packet.getZ());
+                tracker.rotate(entityId, packet.getYaw(), packet.getPitch());
+            } else if (tracker.isTracked(entityId)) {
+                // since 1.21.2, single components of the teleport may be relative to the current values
+                tracker.teleport(entityId,
+                        RelativeFlag.X.has(flags) ? tracker.getX(entityId) + packet.getX() : packet.getX(),
+                        RelativeFlag.Y.has(flags) ? tracker.getY(entityId) + packet.getY() : packet.getY(),
+                        RelativeFlag.Z.has(flags) ? tracker.getZ(entityId) + packet.getZ() : packet.getZ());
+                tracker.rotate(entityId,
+                        RelativeFlag.YAW.has(flags) ? tracker.getYaw(entityId) + packet.getYaw() : packet.getYaw(),
+                        RelativeFlag.PITCH.has(flags) ? tracker.getPitch(entityId) + packet.getPitch() : packet.getPitch());
+            }
+        } else if (type == PacketType.Play.Server.ENTITY_POSITION_SYNC) {
+            WrapperPlayServerEntityPositionSync packet = new WrapperPlayServerEntityPositionSync(event);
+            EntityPositionData values = packet.getValues();
+            Vector3d position = values.getPosition();
+            tracker.teleport(packet.getId(), position.x, position.y, position.z);
+            tracker.rotate(packet.getId(), values.getYaw(), values.getPitch());
+        } else if (type == PacketType.Play.Server.DESTROY_ENTITIES) {
+            WrapperPlayServerDestroyEntities packet = new WrapperPlayServerDestroyEntities(event);
+            for (int entityId : packet.getEntityIds()) {
+                tracker.remove(entityId);
+            }
+        } else if (type == PacketType.Play.Server.SPAWN_ENTITY) {
+            WrapperPlayServerSpawnEntity packet = new WrapperPlayServerSpawnEntity(event);
+            Vector3d position = packet.getPosition();
+            tracker.spawn(packet.getEntityId(), packet.getUUID().orElse(null), packet.getEntityType(),
+                    position.x, position.y, position.z, packet.getYaw(), packet.getPitch());
+            if (event.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_19)) {
+                tracker.rotateHead(packet.getEntityId(), packet.getHeadYaw());
+            }
+        } else if (type == PacketType.Play.Server.SPAWN_LIVING_ENTITY) {
+            WrapperPlayServerSpawnLivingEntity packet = new WrapperPlayServerSpawnLivingEntity(event);
+            Vector3d position = packet.getPosition();
+            tracker.spawn(packet.getEntityId(), packet.getEntityUUID(), packet.getEntityType(),
+                    position.x, position.y, position.z, packet.getYaw(), packet.getPitch());
+            // the wrapper calls the head yaw head pitch
+            tracker.rotateHead(packet.getEntityId(), packet.getHeadPitch());
+            if (packet.getEntityMetadata() != null) {
+                tracker.updateMetadata(packet.getEntityId(), packet.getEntityMetadata());
+            }
+        } else if (type == PacketType.Play.Server.SPAWN_PLAYER) {
+            WrapperPlayServerSpawnPlayer packet = new WrapperPlayServerSpawnPlayer(event);
+            Vector3d position = packet.getPosition();
+            tracker.spawn(packet.getEntityId(), packet.getUUID(), EntityTypes.PLAYER,
+                    position.x, position.y, position.z, packet.getYaw(), packet.getPitch());
+            if (packet.getEntityMetadata() != null) {
+                tracker.updateMetadata(packet.getEntityId(), packet.getEntityMetadata());
+            }
+        } else if (type == PacketType.Play.Server.SPAWN_EXPERIENCE_ORB) {
+            WrapperPlayServerSpawnExperienceOrb packet = new WrapperPlayServerSpawnExperienceOrb(event);
+            tracker.spawn(packet.getEntityId(), null, EntityTypes.EXPERIENCE_ORB,
+                    packet.getX(), packet.getY(), packet.getZ(), 0f, 0f);
+        } else if (type == PacketType.Play.Server.SPAWN_PAINTING) {
+            WrapperPlayServerSpawnPainting packet = new WrapperPlayServerSpawnPainting(event);
+            Vector3i position = packet.getPosition();
+            // paintings only have a uuid since 1.9, they are rotated by their direction
+            UUID uuid = event.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_9) ? packet.getUUID() : null;
+            tracker.spawn(packet.getEntityId(), uuid, EntityTypes.PAINTING,
+                    position.x, position.y, position.z, 0f, 0f);
+        } else if (type == PacketType.Play.Server.SPAWN_WEATHER_ENTITY) {
+            // lightning bolts are the only weather entities
+            WrapperPlayServerSpawnWeatherEntity packet = new WrapperPlayServerSpawnWeatherEntity(event);
+            tracker.spawn(packet.getEntityId(), null, EntityTypes.LIGHTNING_BOLT,
+                    packet.getX(), packet.getY(), packet.getZ(), 0f, 0f);
+        } else {
+            // joining, respawning and reconfiguring all replace the client's world, dropping every entity
+            tracker.clear();
+        }
+    }
+
+    private void handleMetadata(PacketSendEvent event, EntityTracker tracker, PacketWrapper<?> lastWrapper) {
+        if (lastWrapper instanceof WrapperPlayServerEntityMetadata) {
+            // another listener already decoded (and possibly changed) the metadata
+            WrapperPlayServerEntityMetadata packet = (WrapperPlayServerEntityMetadata) lastWrapper;
+            tracker.updateMetadata(packet.getEntityId(), packet.peekEntityMetadata());
+            return;
+        }
+
+        // keep the metadata in its wire format, it only gets decoded if someone queries it
+        Object buffer = event.getByteBuf();
+        ServerVersion version = event.getServerVersion();
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        int entityId = version.isNewerThanOrEquals(ServerVersion.V_1_8)
+                ? ByteBufHelper.readVarInt(buffer) : ByteBufHelper.readInt(buffer);
+        if (tracker.isTracked(entityId)) {
+            tracker.updateMetadata(entityId, version, ByteBufHelper.copyBytes(buffer));
+        }
+        ByteBufHelper.readerIndex(buffer, readerIndex);
+    }
+}
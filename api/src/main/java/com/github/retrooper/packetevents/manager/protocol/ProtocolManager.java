@@ -19,7 +19,11 @@
 package com.github.retrooper.packetevents.manager.protocol;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
@@ -27,7 +31,11 @@ import com.github.retrooper.packetevents.util.PacketTransformationUtil;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -145,6 +153,103 @@ public interface ProtocolManager {
         receivePacketsSilently(channel, transformed);
     }
 
+    /**
+     * Sends the wrapper to all specified users.
+     * Unlike calling {@link #sendPacket(Object, PacketWrapper)} for every user, the wrapper is only
+     * serialized once per connection state (and client version on proxies) of the users.
+     * Every user receives a duplicate of the serialized buffer, which is written and flushed
+     * in a single task on the user's event loop.
+     * Users without an open channel, because they are still connecting or have already disconnected, are skipped.
+     *
+     * @param users   The users to send the packet to
+     * @param wrapper The packet wrapper
+     */
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, false);
+    }
+
+    /**
+     * Sends the wrapper to all specified users, without passing it to the packet listeners.
+     *
+     * @param users   The users to send the packet to
+     * @param wrapper The packet wrapper
+     * @see #broadcastPacket(Collection, PacketWrapper)
+     */
+    default void broadcastPacketSilently(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, true);
+    }
+
+    @ApiStatus.Internal
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper, boolean silently) {
+        boolean proxy = PacketEvents.getAPI().getInjector().isProxy();
+        // The serialized packet depends on the connection state, and on proxies on the client version as well
+        Map<Object, List<User>> groups = new HashMap<>();
+        for (User user : users) {
+            Object channel = user.getChannel();
+            if (channel == null || !ChannelHelper.isOpen(channel)) {
+                continue;
+            }
+            Object group = proxy ? Arrays.asList(user.getEncoderState(), user.getClientVersion()) : user.getEncoderState();
+            groups.computeIfAbsent(group, key -> new ArrayList<>()).add(user);
+        }
+        for (List<User> group : groups.values()) {
+            broadcastPacketGroup(group, wrapper, silently);
+        }
+    }
+
+    @ApiStatus.Internal
+    default void broadcastPacketGroup(Collection<User> users, PacketWrapper<?> wrapper, boolean silently) {
+        //The group shares the same serialized format, so any user's channel can be used to encode the packet
+        User encodingUser = users.iterator().next();
+        Object encodingChannel = encodingUser.getChannel();
+        ConnectionState state = encodingUser.getEncoderState();
+        PacketWrapper<?>[] wrappers = PacketTransformationUtil.transform(wrapper);
+        Object[] buffers = new Object[wrappers.length];
+        for (int i = 0; i < wrappers.length; i++) {
+            PacketWrapper<?> transformed = wrappers[i];
+            synchronized (transformed.bufferLock) {
+                transformed.prepareForSend(encodingChannel, true);
+                buffers[i] = transformed.buffer;
+                transformed.buffer = null;
+            }
+        }
+
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        try {
+            for (User user : users) {
+                Object channel = user.getChannel();
+                Object[] userBuffers = new Object[buffers.length];
+                for (int i = 0; i < buffers.length; i++) {
+                    userBuffers[i] = ByteBufHelper.retainedDuplicate(buffers[i]);
+                }
+                ChannelHelper.runInEventLoop(channel, () -> {
+                    for (int i = 0; i < userBuffers.length; i++) {
+                        Object buffer = userBuffers[i];
+                        if (silently) {
+                            writePacketSilently(channel, buffer);
+                            continue;
+                        }
+                        //Listeners may re-encode the packet into the buffer they receive, which would corrupt the shared memory
+                        //of the duplicates, so those users get their own copy (which is still cheaper than serializing again).
+                        //This is checked right before the packet is processed, so listeners registered since are respected.
+                        if (eventManager.hasPacketListeners(PacketSide.SERVER, state,
+                                wrappers[i].getPacketTypeData().getPacketType())) {
+                            Object copy = ByteBufHelper.copy(buffer);
+                            ByteBufHelper.release(buffer);
+                            buffer = copy;
+                        }
+                        writePacket(channel, buffer);
+                    }
+                    ChannelHelper.flush(channel);
+                });
+            }
+        } finally {
+            for (Object buffer : buffers) {
+                ByteBufHelper.release(buffer);
+            }
+        }
+    }
+
     default User getUser(Object channel) {
         Object pipeline = ChannelHelper.getPipeline(channel);
         return USERS.get(pipeline);
@@ -155,6 +155,30 @@ public class ByteBufHelper {
         return PacketEvents.getAPI().getNettyManager().getByteBufOperator().getUnsignedByte(buffer, index);
     }
 
+    public static void setByte(Object buffer, int index, int value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setByte(buffer, index, value);
+    }
+
+    public static void setShort(Object buffer, int index, int value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setShort(buffer, index, value);
+    }
+
+    public static void setInt(Object buffer, int index, int value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setInt(buffer, index, value);
+    }
+
+    public static void setLong(Object buffer, int index, long value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setLong(buffer, index, value);
+    }
+
+    public static void setFloat(Object buffer, int index, float value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setFloat(buffer, index, value);
+    }
+
+    public static void setDouble(Object buffer, int index, double value) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().setDouble(buffer, index, value);
+    }
+
     public static boolean isReadable(Object buffer) {
         return PacketEvents.getAPI().getNettyManager().getByteBufOperator().isReadable(buffer);
     }
@@ -240,29 +264,19 @@ public class ByteBufHelper {
     }
 
     public static int readVarInt(Object buffer) {
-        int value = 0;
-        int length = 0;
-        byte currentByte;
-        do {
-            currentByte = readByte(buffer);
-            value |= (currentByte & 0x7F) << (length * 7);
-            length++;
-            if (length > 5) {
-                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
-            }
-        } while ((currentByte & 0x80) == 0x80);
-        return value;
+        return PacketEvents.getAPI().getNettyManager().getByteBufOperator().readVarInt(buffer);
     }
 
     public static void writeVarInt(Object buffer, int value) {
-        while (true) {
-            if ((value & ~0x7F) == 0) {
-                writeByte(buffer, value);
-                return;
-            }
-            writeByte(buffer, (value & 0x7F) | 0x80);
-            value >>>= 7;
-        }
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().writeVarInt(buffer, value);
+    }
+
+    public static void readLongs(Object buffer, long[] destination) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().readLongs(buffer, destination);
+    }
+
+    public static void writeLongs(Object buffer, long[] source) {
+        PacketEvents.getAPI().getNettyManager().getByteBufOperator().writeLongs(buffer, source);
     }
 
     public static byte[] copyBytes(Object buffer) {
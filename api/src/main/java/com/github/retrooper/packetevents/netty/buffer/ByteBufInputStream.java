@@ -192,11 +192,9 @@ public class ByteBufInputStream extends InputStream implements DataInput {
     }
 
     public long[] readLongs(int size) throws IOException {
+        this.checkAvailable(size * 8);
         long[] array = new long[size];
-
-        for (int i = 0; i < array.length; i++) {
-            array[i] = readLong();
-        }
+        ByteBufHelper.readLongs(buffer, array);
         return array;
     }
 
@@ -49,6 +49,11 @@ public interface ByteBufOperator {
     Object getBytes(Object buffer, int index, byte[] destination);
     short getUnsignedByte(Object buffer, int index);
 
+    void setByte(Object buffer, int index, int value);
+    void setShort(Object buffer, int index, int value);
+    void setInt(Object buffer, int index, int value);
+    void setLong(Object buffer, int index, long value);
+
     boolean isReadable(Object buffer);
     Object copy(Object buffer);
     Object duplicate(Object buffer);
@@ -90,6 +95,14 @@ public interface ByteBufOperator {
         writeLong(buffer, Double.doubleToLongBits(value));
     }
 
+    default void setFloat(Object buffer, int index, float value) {
+        setInt(buffer, index, Float.floatToIntBits(value));
+    }
+
+    default void setDouble(Object buffer, int index, double value) {
+        setLong(buffer, index, Double.doubleToLongBits(value));
+    }
+
     default char readChar(Object buffer) {
         return (char) readShort(buffer);
     }
@@ -115,4 +128,43 @@ public interface ByteBufOperator {
     default void writeBoolean(Object buffer, boolean value) {
         writeByte(buffer, value ? 1 : 0);
     }
+
+    default int readVarInt(Object buffer) {
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = readByte(buffer);
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > 5) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
+    default void writeVarInt(Object buffer, int value) {
+        while (true) {
+            if ((value & ~0x7F) == 0) {
+                writeByte(buffer, value);
+                return;
+            }
+            writeByte(buffer, (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+    }
+
+    //Fills the whole destination array
+    default void readLongs(Object buffer, long[] destination) {
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = readLong(buffer);
+        }
+    }
+
+    default void writeLongs(Object buffer, long[] source) {
+        for (long value : source) {
+            writeLong(buffer, value);
+        }
+    }
 }
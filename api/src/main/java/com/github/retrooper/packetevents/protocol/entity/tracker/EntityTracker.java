@@ -0,0 +1,448 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.entity.tracker;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps track of the entities the server has spawned for a single user.
+ * <p>
+ * Entities are stored in parallel arrays indexed through an open addressing entity id map,
+ * so tracking an entity doesn't allocate per entity or per movement.
+ * Metadata is kept in its wire format until it is queried, and only decoded then.
+ * <p>
+ * The tracker is updated on the netty thread of the user, but can be queried from any thread.
+ * Unless entity tracking has been enabled in the settings, the tracker stays empty.
+ *
+ * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#entityTracking(boolean)
+ */
+public class EntityTracker {
+    private static final int INITIAL_CAPACITY = 16;
+    // table slots hold the dense index + 1, so 0 marks a free slot
+    private static final int FREE = 0;
+
+    private int[] keys = new int[INITIAL_CAPACITY * 2];
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    private int size;
+    private int[] entityIds = new int[INITIAL_CAPACITY];
+    private EntityType[] types = new EntityType[INITIAL_CAPACITY];
+    private UUID[] uuids = new UUID[INITIAL_CAPACITY];
+    // x, y, z of every entity, one after another
+    private double[] positions = new double[INITIAL_CAPACITY * 3];
+    // yaw, pitch, head yaw of every entity, one after another
+    private float[] rotations = new float[INITIAL_CAPACITY * 3];
+    private TrackedMetadata[] metadata = new TrackedMetadata[INITIAL_CAPACITY];
+
+    private static int hash(int entityId) {
+        int hash = entityId * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    // returns the dense index of the entity, or -1 if it isn't tracked
+    private int indexOf(int entityId) {
+        int mask = this.keys.length - 1;
+        int slot = hash(entityId) & mask;
+        int value;
+        while ((value = this.slots[slot]) != FREE) {
+            if (this.keys[slot] == entityId) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void putIndex(int entityId, int index) {
+        int mask = this.keys.length - 1;
+        int slot = hash(entityId) & mask;
+        while (this.slots[slot] != FREE && this.keys[slot] != entityId) {
+            slot = (slot + 1) & mask;
+        }
+        this.keys[slot] = entityId;
+        this.slots[slot] = index + 1;
+    }
+
+    private void removeIndex(int entityId) {
+        int mask = this.keys.length - 1;
+        int slot = hash(entityId) & mask;
+        while (this.keys[slot] != entityId || this.slots[slot] == FREE) {
+            if (this.slots[slot] == FREE) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // shift following entries of the probe sequence back, so lookups never stop at a hole
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (this.slots[next] == FREE) {
+                break;
+            }
+            int home = hash(this.keys[next]) & mask;
+            if (slot <= next ? (slot < home && home <= next) : (slot < home || home <= next)) {
+                continue;
+            }
+            this.keys[slot] = this.keys[next];
+            this.slots[slot] = this.slots[next];
+            slot = next;
+        }
+        this.slots[slot] = FREE;
+    }
+
+    private void grow() {
+        int capacity = this.entityIds.length << 1;
+        this.entityIds = Arrays.copyOf(this.entityIds, capacity);
+        this.types = Arrays.copyOf(this.types, capacity);
+        this.uuids = Arrays.copyOf(this.uuids, capacity);
+        this.positions = Arrays.copyOf(this.positions, capacity * 3);
+        this.rotations = Arrays.copyOf(this.rotations, capacity * 3);
+        this.metadata = Arrays.copyOf(this.metadata, capacity);
+
+        // keep the table at least twice as large as the entity arrays
+        this.keys = new int[capacity * 2];
+        this.slots = new int[capacity * 2];
+        for (int i = 0; i < this.size; i++) {
+            this.putIndex(this.entityIds[i], i);
+        }
+    }
+
+    /**
+     * Starts tracking an entity, replacing any entity previously tracked with the same id.
+     */
+    public synchronized void spawn(int entityId, @Nullable UUID uuid, @Nullable EntityType type,
+                                   double x, double y, double z, float yaw, float pitch) {
+        int index = this.indexOf(entityId);
+        if (index == -1) {
+            if (this.size == this.entityIds.length) {
+                this.grow();
+            }
+            index = this.size++;
+            this.entityIds[index] = entityId;
+            this.putIndex(entityId, index);
+        }
+        this.types[index] = type;
+        this.uuids[index] = uuid;
+        this.metadata[index] = null;
+        this.setPosition(index, x, y, z);
+        this.rotations[index * 3] = yaw;
+        this.rotations[index * 3 + 1] = pitch;
+        this.rotations[index * 3 + 2] = yaw;
+    }
+
+    /**
+     * Stops tracking an entity.
+     *
+     * @return whether the entity was tracked
+     */
+    public synchronized boolean remove(int entityId) {
+        int index = this.indexOf(entityId);
+        if (index == -1) {
+            return false;
+        }
+        this.removeIndex(entityId);
+        int last = --this.size;
+        if (index != last) {
+            // move the last entity into the hole to keep the arrays dense
+            int movedId = this.entityIds[last];
+            this.entityIds[index] = movedId;
+            this.types[index] = this.types[last];
+            this.uuids[index] = this.uuids[last];
+            this.metadata[index] = this.metadata[last];
+            System.arraycopy(this.positions, last * 3, this.positions, index * 3, 3);
+            System.arraycopy(this.rotations, last * 3, this.rotations, index * 3, 3);
+            this.putIndex(movedId, index);
+        }
+        this.types[last] = null;
+        this.uuids[last] = null;
+        this.metadata[last] = null;
+        return true;
+    }
+
+    /**
+     * Stops tracking all entities, for example when the user switches worlds.
+     */
+    public synchronized void clear() {
+        Arrays.fill(this.slots, FREE);
+        Arrays.fill(this.types, 0, this.size, null);
+        Arrays.fill(this.uuids, 0, this.size, null);
+        Arrays.fill(this.metadata, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /**
+     * Moves an entity by the given delta, does nothing if the entity isn't tracked.
+     */
+    public synchronized void move(int entityId, double deltaX, double deltaY, double deltaZ) {
+        int index = this.indexOf(entityId);
+        if (index != -1) {
+            int offset = index * 3;
+            this.positions[offset] += deltaX;
+            this.positions[offset + 1] += deltaY;
+            this.positions[offset + 2] += deltaZ;
+        }
+    }
+
+    /**
+     * Sets the absolute position of an entity, does nothing if the entity isn't tracked.
+     */
+    public synchronized void teleport(int entityId, double x, double y, double z) {
+        int index = this.indexOf(entityId);
+        if (index != -1) {
+            this.setPosition(index, x, y, z);
+        }
+    }
+
+    /**
+     * Sets the rotation of an entity, does nothing if the entity isn't tracked.
+     */
+    public synchronized void rotate(int entityId, float yaw, float pitch) {
+        int index = this.indexOf(entityId);
+        if (index != -1) {
+            this.rotations[index * 3] = yaw;
+            this.rotations[index * 3 + 1] = pitch;
+        }
+    }
+
+    /**
+     * Sets the head rotation of an entity, does nothing if the entity isn't tracked.
+     */
+    public synchronized void rotateHead(int entityId, float headYaw) {
+        int index = this.indexOf(entityId);
+        if (index != -1) {
+            this.rotations[index * 3 + 2] = headYaw;
+        }
+    }
+
+    private void setPosition(int index, double x, double y, double z) {
+        int offset = index * 3;
+        this.positions[offset] = x;
+        this.positions[offset + 1] = y;
+        this.positions[offset + 2] = z;
+    }
+
+    /**
+     * Merges already decoded metadata into the metadata of an entity, does nothing if the entity isn't tracked.
+     */
+    public synchronized void updateMetadata(int entityId, List<EntityData> entityMetadata) {
+        TrackedMetadata tracked = this.getOrCreateMetadata(entityId);
+        if (tracked != null) {
+            tracked.merge(entityMetadata);
+        }
+    }
+
+    /**
+     * Queues metadata in its wire format (without the entity id) for an entity,
+     * it is decoded with the given version once the metadata of the entity is queried.
+     * Does nothing if the entity isn't tracked.
+     */
+    public synchronized void updateMetadata(int entityId, ServerVersion version, byte[] rawMetadata) {
+        TrackedMetadata tracked = this.getOrCreateMetadata(entityId);
+        if (tracked != null) {
+            tracked.queue(version, rawMetadata);
+        }
+    }
+
+    private @Nullable TrackedMetadata getOrCreateMetadata(int entityId) {
+        int index = this.indexOf(entityId);
+        if (index == -1) {
+            return null;
+        }
+        TrackedMetadata tracked = this.metadata[index];
+        if (tracked == null) {
+            this.metadata[index] = tracked = new TrackedMetadata();
+        }
+        return tracked;
+    }
+
+    public synchronized boolean isTracked(int entityId) {
+        return this.indexOf(entityId) != -1;
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * @return a copy of the ids of all tracked entities
+     */
+    public synchronized int[] getEntityIds() {
+        return Arrays.copyOf(this.entityIds, this.size);
+    }
+
+    public synchronized @Nullable EntityType getEntityType(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? null : this.types[index];
+    }
+
+    public synchronized @Nullable UUID getUUID(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? null : this.uuids[index];
+    }
+
+    /**
+     * @return the x coordinate of the entity, or {@link Double#NaN} if the entity isn't tracked
+     */
+    public synchronized double getX(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? Double.NaN : this.positions[index * 3];
+    }
+
+    /**
+     * @return the y coordinate of the entity, or {@link Double#NaN} if the entity isn't tracked
+     */
+    public synchronized double getY(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? Double.NaN : this.positions[index * 3 + 1];
+    }
+
+    /**
+     * @return the z coordinate of the entity, or {@link Double#NaN} if the entity isn't tracked
+     */
+    public synchronized double getZ(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? Double.NaN : this.positions[index * 3 + 2];
+    }
+
+    public synchronized @Nullable Vector3d getPosition(int entityId) {
+        int index = this.indexOf(entityId);
+        if (index == -1) {
+            return null;
+        }
+        int offset = index * 3;
+        return new Vector3d(this.positions[offset], this.positions[offset + 1], this.positions[offset + 2]);
+    }
+
+    /**
+     * @return the yaw of the entity, or {@link Float#NaN} if the entity isn't tracked
+     */
+    public synchronized float getYaw(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? Float.NaN : this.rotations[index * 3];
+    }
+
+    /**
+     * @return the pitch of the entity, or {@link Float#NaN} if the entity isn't tracked
+     */
+    public synchronized float getPitch(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? Float.NaN : this.rotations[index * 3 + 1];
+    }
+
+    /**
+     * @return the head yaw of the entity, or {@link Float#NaN} if the entity isn't tracked
+     */
+    public synchronized float getHeadYaw(int entityId) {
+        int index = this.indexOf(entityId);
+        return index == -1 ? Float.NaN : this.rotations[index * 3 + 2];
+    }
+
+    /**
+     * Decodes any pending metadata of the entity and returns all metadata received for it so far.
+     *
+     * @return a copy of the metadata, or null if the entity isn't tracked
+     */
+    public synchronized @Nullable List<EntityData> getMetadata(int entityId) {
+        int index = this.indexOf(entityId);
+        if (index == -1) {
+            return null;
+        }
+        TrackedMetadata tracked = this.metadata[index];
+        return tracked == null ? new ArrayList<>(0) : new ArrayList<>(tracked.decode());
+    }
+
+    /**
+     * @return the metadata of the entity at the given index, or null if the entity or the index isn't tracked
+     */
+    public synchronized @Nullable EntityData getMetadata(int entityId, int metadataIndex) {
+        int index = this.indexOf(entityId);
+        TrackedMetadata tracked = index == -1 ? null : this.metadata[index];
+        if (tracked != null) {
+            for (EntityData data : tracked.decode()) {
+                if (data.getIndex() == metadataIndex) {
+                    return data;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class TrackedMetadata {
+        // entities whose metadata is never queried would otherwise keep every update they receive
+        private static final int MAX_PENDING = 8;
+
+        private final List<EntityData> decoded = new ArrayList<>(4);
+        private @Nullable List<byte[]> pending;
+        private @Nullable ServerVersion version;
+
+        void queue(ServerVersion version, byte[] rawMetadata) {
+            if (this.pending == null) {
+                this.pending = new ArrayList<>(2);
+            } else if (this.pending.size() >= MAX_PENDING) {
+                // merging the updates by their index keeps the memory bounded
+                this.decode();
+                this.pending = new ArrayList<>(2);
+            }
+            this.pending.add(rawMetadata);
+            this.version = version;
+        }
+
+        List<EntityData> decode() {
+            List<byte[]> pending = this.pending;
+            if (pending != null) {
+                this.pending = null;
+                for (byte[] rawMetadata : pending) {
+                    PacketWrapper<?> wrapper = new PacketWrapper<>(ClientVersion.UNKNOWN, this.version, -2);
+                    wrapper.buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(rawMetadata);
+                    this.merge(wrapper.readEntityMetadata());
+                }
+            }
+            return this.decoded;
+        }
+
+        void merge(List<EntityData> entityMetadata) {
+            // decode queued metadata first, so updates stay in the order they were received
+            if (this.pending != null) {
+                this.decode();
+            }
+            outer:
+            for (EntityData data : entityMetadata) {
+                for (int i = 0; i < this.decoded.size(); i++) {
+                    if (this.decoded.get(i).getIndex() == data.getIndex()) {
+                        this.decoded.set(i, data);
+                        continue outer;
+                    }
+                }
+                this.decoded.add(data);
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+import com.github.retrooper.packetevents.protocol.nbt.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Reads and writes the same format as {@link DefaultNBTSerializer}, but directly from and to a buffer
+ * instead of going through {@link java.io.DataInput} and {@link java.io.DataOutput} streams.
+ */
+public class ByteBufNBTSerializer extends NBTSerializer<Object, Object> {
+
+    private static ByteBufNBTSerializer instance;
+
+    private final ByteBufOperator operator;
+
+    @SuppressWarnings("unchecked")
+    public ByteBufNBTSerializer(ByteBufOperator operator) {
+        super(
+                (limiter, buffer) -> {
+                    limiter.increment(1);
+                    return operator.readByte(buffer);
+                },
+                operator::writeByte,
+                (limiter, buffer) -> {
+                    String name = readString(operator, buffer);
+                    limiter.increment(name.length() * 2 + 28);
+                    return name;
+                },
+                (buffer, name) -> writeString(operator, buffer, name)
+        );
+        this.operator = operator;
+        registerType(NBTType.END, 0, (limiter, buffer) -> {
+            limiter.increment(8);
+            return NBTEnd.INSTANCE;
+        }, (buffer, tag) -> {
+        });
+        registerType(NBTType.BYTE, 1, (limiter, buffer) -> {
+            limiter.increment(9);
+            return new NBTByte(operator.readByte(buffer));
+        }, (buffer, tag) -> operator.writeByte(buffer, tag.getAsByte()));
+        registerType(NBTType.SHORT, 2, (limiter, buffer) -> {
+            limiter.increment(10);
+            return new NBTShort(operator.readShort(buffer));
+        }, (buffer, tag) -> operator.writeShort(buffer, tag.getAsShort()));
+        registerType(NBTType.INT, 3, (limiter, buffer) -> {
+            limiter.increment(12);
+            return new NBTInt(operator.readInt(buffer));
+        }, (buffer, tag) -> operator.writeInt(buffer, tag.getAsInt()));
+        registerType(NBTType.LONG, 4, (limiter, buffer) -> {
+            limiter.increment(16);
+            return new NBTLong(operator.readLong(buffer));
+        }, (buffer, tag) -> operator.writeLong(buffer, tag.getAsLong()));
+        registerType(NBTType.FLOAT, 5, (limiter, buffer) -> {
+            limiter.increment(12);
+            return new NBTFloat(operator.readFloat(buffer));
+        }, (buffer, tag) -> operator.writeFloat(buffer, tag.getAsFloat()));
+        registerType(NBTType.DOUBLE, 6, (limiter, buffer) -> {
+            limiter.increment(16);
+            return new NBTDouble(operator.readDouble(buffer));
+        }, (buffer, tag) -> operator.writeDouble(buffer, tag.getAsDouble()));
+        registerType(
+                NBTType.BYTE_ARRAY, 7,
+                (limiter, buffer) -> {
+                    limiter.increment(24);
+                    int length = operator.readInt(buffer);
+
+                    if (length >= 1 << 24)
+                        throw new IllegalArgumentException("Byte array length is too large: " + length);
+
+                    limiter.checkReadability(length);
+                    limiter.increment(length);
+
+                    byte[] array = new byte[length];
+                    operator.readBytes(buffer, array);
+                    return new NBTByteArray(array);
+                },
+                (buffer, tag) -> {
+                    byte[] array = tag.getValue();
+                    operator.writeInt(buffer, array.length);
+                    operator.writeBytes(buffer, array);
+                }
+        );
+        registerType(NBTType.STRING, 8, (limiter, buffer) -> {
+            limiter.increment(36);
+            String string = readString(operator, buffer);
+            limiter.increment(string.length() * 2);
+            return new NBTString(string);
+        }, (buffer, tag) -> writeString(operator, buffer, tag.getValue()));
+        registerType(
+                NBTType.LIST, 9,
+                (limiter, buffer) -> {
+                    limiter.increment(37);
+
+                    NBTType<? extends NBT> valueType = readTagType(limiter, buffer);
+                    int size = operator.readInt(buffer);
+
+                    if ((valueType == NBTType.END) && (size > 0)) {
+                        throw new IllegalStateException("Missing nbt list values tag type");
+                    }
+                    limiter.increment(4 * size);
+                    NBTList<NBT> list = new NBTList<>((NBTType<NBT>) valueType, size);
+                    for (int i = 0; i < size; i++) {
+                        list.addTag(readTag(limiter, buffer, valueType));
+                    }
+                    return list;
+                },
+                (buffer, tag) -> {
+                    writeTagType(buffer, tag.getTagsType());
+                    operator.writeInt(buffer, tag.size());
+                    for (NBT value : ((List<NBT>) tag.getTags())) {
+                        writeTag(buffer, value);
+                    }
+                }
+        );
+        registerType(
+                NBTType.COMPOUND, 10,
+                (limiter, buffer) -> {
+                    limiter.increment(48);
+
+                    NBTCompound compound = new NBTCompound();
+                    NBTType<?> valueType;
+                    while ((valueType = readTagType(limiter, buffer)) != NBTType.END) {
+                        String name = readTagName(limiter, buffer);
+                        NBT nbt = readTag(limiter, buffer, valueType);
+                        if (!compound.getTags().containsKey(name)) limiter.increment(36);
+                        compound.setTag(name, nbt);
+                    }
+                    return compound;
+                },
+                (buffer, tag) -> {
+                    for (Entry<String, NBT> entry : tag.getTags().entrySet()) {
+                        NBT value = entry.getValue();
+                        writeTagType(buffer, value.getType());
+                        writeTagName(buffer, entry.getKey());
+                        writeTag(buffer, value);
+                    }
+                    writeTagType(buffer, NBTType.END);
+                }
+        );
+        registerType(
+                NBTType.INT_ARRAY, 11,
+                (limiter, buffer) -> {
+                    limiter.increment(24);
+                    int length = operator.readInt(buffer);
+
+                    if (length >= 1 << 24)
+                        throw new IllegalArgumentException("Int array length is too large: " + length);
+
+                    limiter.checkReadability(length * 4);
+                    limiter.increment(length * 4);
+
+                    int[] array = new int[length];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = operator.readInt(buffer);
+                    }
+                    return new NBTIntArray(array);
+                },
+                (buffer, tag) -> {
+                    int[] array = tag.getValue();
+                    operator.writeInt(buffer, array.length);
+                    for (int i : array) {
+                        operator.writeInt(buffer, i);
+                    }
+                }
+        );
+        registerType(
+                NBTType.LONG_ARRAY, 12,
+                (limiter, buffer) -> {
+                    limiter.increment(24);
+                    int length = operator.readInt(buffer);
+
+                    if (length >= 1 << 24)
+                        throw new IllegalArgumentException("Long array length is too large: " + length);
+
+                    limiter.checkReadability(length * 8);
+                    limiter.increment(length * 8);
+
+                    long[] array = new long[length];
+                    operator.readLongs(buffer, array);
+                    return new NBTLongArray(array);
+                },
+                (buffer, tag) -> {
+                    long[] array = tag.getValue();
+                    operator.writeInt(buffer, array.length);
+                    operator.writeLongs(buffer, array);
+                }
+        );
+    }
+
+    /**
+     * @return the serializer for the buffer operator of the current api instance
+     */
+    public static ByteBufNBTSerializer getInstance() {
+        ByteBufOperator operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+        ByteBufNBTSerializer serializer = instance;
+        if (serializer == null || serializer.operator != operator) {
+            instance = serializer = new ByteBufNBTSerializer(operator);
+        }
+        return serializer;
+    }
+
+    // Same format as DataInput#readUTF (modified UTF-8)
+    private static String readString(ByteBufOperator operator, Object buffer) throws IOException {
+        int length = operator.readUnsignedShort(buffer);
+        if (length > operator.readableBytes(buffer)) {
+            throw new EOFException("String length is too large: " + length + ", readable: " + operator.readableBytes(buffer));
+        }
+        int start = operator.readerIndex(buffer);
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            if (operator.getUnsignedByte(buffer, start + i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            // ascii is decoded one byte per char, which lets the buffer build the string without a copy
+            String string = operator.toString(buffer, start, length, StandardCharsets.ISO_8859_1);
+            operator.skipBytes(buffer, length);
+            return string;
+        }
+
+        byte[] bytes = new byte[length];
+        operator.readBytes(buffer, bytes);
+        char[] chars = new char[length];
+        int charCount = 0;
+        int count = 0;
+        while (count < length) {
+            int c = bytes[count] & 0xFF;
+            switch (c >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    count++;
+                    chars[charCount++] = (char) c;
+                    break;
+                case 12: case 13: {
+                    count += 2;
+                    if (count > length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    int c2 = bytes[count - 1];
+                    if ((c2 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + count);
+                    }
+                    chars[charCount++] = (char) (((c & 0x1F) << 6) | (c2 & 0x3F));
+                    break;
+                }
+                case 14: {
+                    count += 3;
+                    if (count > length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    int c2 = bytes[count - 2];
+                    int c3 = bytes[count - 1];
+                    if (((c2 & 0xC0) != 0x80) || ((c3 & 0xC0) != 0x80)) {
+                        throw new UTFDataFormatException("malformed input around byte " + (count - 1));
+                    }
+                    chars[charCount++] = (char) (((c & 0x0F) << 12) | ((c2 & 0x3F) << 6) | (c3 & 0x3F));
+                    break;
+                }
+                default:
+                    throw new UTFDataFormatException("malformed input around byte " + count);
+            }
+        }
+        return new String(chars, 0, charCount);
+    }
+
+    // Same format as DataOutput#writeUTF (modified UTF-8)
+    private static void writeString(ByteBufOperator operator, Object buffer, String string) throws IOException {
+        int length = string.length();
+        int utfLength = length;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c >= 0x80 || c == 0) {
+                utfLength += c >= 0x800 ? 2 : 1;
+            }
+        }
+        if (utfLength > 0xFFFF) {
+            throw new UTFDataFormatException("encoded string too long: " + utfLength + " bytes");
+        }
+        operator.writeShort(buffer, utfLength);
+
+        // ascii strings (nearly all tag names and most values) don't need an intermediate array
+        if (utfLength == length) {
+            for (int i = 0; i < length; i++) {
+                operator.writeByte(buffer, string.charAt(i));
+            }
+            return;
+        }
+
+        byte[] bytes = new byte[utfLength];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80 && c != 0) {
+                bytes[count++] = (byte) c;
+            } else if (c >= 0x800) {
+                bytes[count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[count++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[count++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                bytes[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        operator.writeBytes(buffer, bytes);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.packettype;
+
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.player.User;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Counts the packets and bytes of every packet type in both directions.
+ * <p>
+ * Every user has its own counters, see {@link User#getPacketTraffic()}, and {@link #getGlobal()} counts the packets of all users.
+ * Counting doesn't lock, so packets can be recorded from all netty threads at once.
+ * Bytes are counted as the uncompressed packet data (including the packet id) before it is passed to the listeners.
+ * Unless traffic statistics have been enabled in the settings, nothing is counted.
+ *
+ * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#packetTrafficStats(boolean)
+ */
+public final class PacketTraffic {
+    private static final PacketTraffic GLOBAL = new PacketTraffic();
+
+    //Indexed by [PacketSide][ConnectionState], with one slot per packet type ordinal and a last slot for unknown packets
+    private final AtomicReferenceArray<Counter>[][] counters;
+    private volatile long startNanos = System.nanoTime();
+
+    @SuppressWarnings("unchecked")
+    public PacketTraffic() {
+        this.counters = new AtomicReferenceArray[PacketSide.values().length][ConnectionState.values().length];
+        for (PacketSide side : PacketSide.values()) {
+            for (ConnectionState state : ConnectionState.values()) {
+                int slots = PacketType.getPacketTypes(side, state).length + 1;
+                this.counters[side.ordinal()][state.ordinal()] = new AtomicReferenceArray<>(slots);
+            }
+        }
+    }
+
+    /**
+     * @return The counters of the packets of all users
+     */
+    public static PacketTraffic getGlobal() {
+        return GLOBAL;
+    }
+
+    /**
+     * Finds the users with the most traffic, for example the users with the most bytes sent to them:
+     * {@code getTopUsers(10, traffic -> traffic.getBytes(PacketSide.SERVER))}
+     *
+     * @param limit  The maximum amount of users to return
+     * @param metric The value to compare the traffic of the users with
+     * @return The users, the one with the highest value first
+     */
+    public static List<User> getTopUsers(int limit, ToLongFunction<PacketTraffic> metric) {
+        List<User> users = new ArrayList<>(ProtocolManager.USERS.values());
+        List<long[]> values = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            // capture every value once, the counters keep changing while sorting
+            values.add(new long[]{metric.applyAsLong(users.get(i).getPacketTraffic()), i});
+        }
+        values.sort(Comparator.comparingLong((long[] value) -> value[0]).reversed());
+        List<User> top = new ArrayList<>(Math.min(limit, values.size()));
+        for (int i = 0; i < limit && i < values.size(); i++) {
+            top.add(users.get((int) values.get(i)[1]));
+        }
+        return top;
+    }
+
+    @ApiStatus.Internal
+    public void record(PacketSide side, ConnectionState state, @Nullable PacketTypeCommon packetType, int bytes) {
+        AtomicReferenceArray<Counter> slots = this.counters[side.ordinal()][state.ordinal()];
+        int slot = slots.length() - 1;
+        if (packetType instanceof Enum<?> && ((Enum<?>) packetType).ordinal() < slot) {
+            slot = ((Enum<?>) packetType).ordinal();
+        }
+        Counter counter;
+        while ((counter = slots.get(slot)) == null) {
+            Counter created = new Counter();
+            // reset() may clear the slot again at any time, so only the counter which was set can be used
+            if (slots.compareAndSet(slot, null, created)) {
+                counter = created;
+                break;
+            }
+        }
+        counter.packets.increment();
+        counter.bytes.add(bytes);
+    }
+
+    /**
+     * @param side The side which sent the packets
+     * @return The amount of packets sent by the side
+     */
+    public long getPackets(PacketSide side) {
+        return this.sum(side, counter -> counter.packets.sum());
+    }
+
+    /**
+     * @param side The side which sent the packets
+     * @return The amount of bytes sent by the side
+     */
+    public long getBytes(PacketSide side) {
+        return this.sum(side, counter -> counter.bytes.sum());
+    }
+
+    private long sum(PacketSide side, ToLongFunction<Counter> value) {
+        long sum = 0L;
+        for (AtomicReferenceArray<Counter> slots : this.counters[side.ordinal()]) {
+            for (int i = 0; i < slots.length(); i++) {
+                Counter counter = slots.get(i);
+                if (counter != null) {
+                    sum += value.applyAsLong(counter);
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Captures the current counters. Rates can be calculated with the snapshot on its own (since the counters
+     * have been created or reset) or with {@link PacketTrafficSnapshot#since(PacketTrafficSnapshot)}.
+     *
+     * @return The packets and bytes of every packet type which has been recorded at least once
+     */
+    public PacketTrafficSnapshot snapshot() {
+        long nanos = System.nanoTime();
+        List<PacketTrafficEntry> entries = new ArrayList<>();
+        for (PacketSide side : PacketSide.values()) {
+            for (ConnectionState state : ConnectionState.values()) {
+                AtomicReferenceArray<Counter> slots = this.counters[side.ordinal()][state.ordinal()];
+                PacketTypeCommon[] packetTypes = PacketType.getPacketTypes(side, state);
+                for (int i = 0; i < slots.length(); i++) {
+                    Counter counter = slots.get(i);
+                    if (counter != null) {
+                        PacketTypeCommon packetType = i < packetTypes.length ? packetTypes[i] : null;
+                        entries.add(new PacketTrafficEntry(side, state, packetType,
+                                counter.packets.sum(), counter.bytes.sum(), nanos - this.startNanos));
+                    }
+                }
+            }
+        }
+        return new PacketTrafficSnapshot(nanos, nanos - this.startNanos, entries);
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        for (AtomicReferenceArray<Counter>[] sideCounters : this.counters) {
+            for (AtomicReferenceArray<Counter> slots : sideCounters) {
+                for (int i = 0; i < slots.length(); i++) {
+                    slots.set(i, null);
+                }
+            }
+        }
+        this.startNanos = System.nanoTime();
+    }
+
+    private static final class Counter {
+        private final LongAdder packets = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.packettype;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * The packets and bytes of a single packet type within a {@link PacketTrafficSnapshot}.
+ */
+public final class PacketTrafficEntry {
+    private final PacketSide side;
+    private final ConnectionState state;
+    private final @Nullable PacketTypeCommon packetType;
+    private final long packets;
+    private final long bytes;
+    private final long durationNanos;
+
+    PacketTrafficEntry(PacketSide side, ConnectionState state, @Nullable PacketTypeCommon packetType,
+                       long packets, long bytes, long durationNanos) {
+        this.side = side;
+        this.state = state;
+        this.packetType = packetType;
+        this.packets = packets;
+        this.bytes = bytes;
+        this.durationNanos = durationNanos;
+    }
+
+    public PacketSide getSide() {
+        return this.side;
+    }
+
+    public ConnectionState getState() {
+        return this.state;
+    }
+
+    /**
+     * @return The packet type, or null for all packets of the side and state which couldn't be identified
+     */
+    public @Nullable PacketTypeCommon getPacketType() {
+        return this.packetType;
+    }
+
+    public long getPackets() {
+        return this.packets;
+    }
+
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    public double getPacketsPerSecond() {
+        return this.durationNanos <= 0L ? 0D : this.packets * 1_000_000_000D / this.durationNanos;
+    }
+
+    public double getBytesPerSecond() {
+        return this.durationNanos <= 0L ? 0D : this.bytes * 1_000_000_000D / this.durationNanos;
+    }
+
+    boolean isSameType(PacketTrafficEntry other) {
+        return this.side == other.side && this.state == other.state && Objects.equals(this.packetType, other.packetType);
+    }
+
+    PacketTrafficEntry minus(@Nullable PacketTrafficEntry earlier, long durationNanos) {
+        if (earlier == null) {
+            return new PacketTrafficEntry(this.side, this.state, this.packetType, this.packets, this.bytes, durationNanos);
+        }
+        return new PacketTrafficEntry(this.side, this.state, this.packetType,
+                this.packets - earlier.packets, this.bytes - earlier.bytes, durationNanos);
+    }
+
+    @Override
+    public String toString() {
+        return this.side + " " + this.state + " " + (this.packetType == null ? "UNKNOWN" : this.packetType.getName())
+                + ": packets=" + this.packets + ", bytes=" + this.bytes;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.packettype;
+
+import com.github.retrooper.packetevents.protocol.PacketSide;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The counters of a {@link PacketTraffic} at a point in time.
+ */
+public final class PacketTrafficSnapshot {
+    private final long timestampNanos;
+    private final long durationNanos;
+    private final List<PacketTrafficEntry> entries;
+
+    PacketTrafficSnapshot(long timestampNanos, long durationNanos, List<PacketTrafficEntry> entries) {
+        this.timestampNanos = timestampNanos;
+        this.durationNanos = durationNanos;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} at which the snapshot was taken
+     */
+    public long getTimestampNanos() {
+        return this.timestampNanos;
+    }
+
+    /**
+     * @return The time the packets of this snapshot have been counted in
+     */
+    public long getDurationNanos() {
+        return this.durationNanos;
+    }
+
+    public List<PacketTrafficEntry> getEntries() {
+        return this.entries;
+    }
+
+    public long getPackets(PacketSide side) {
+        long packets = 0L;
+        for (PacketTrafficEntry entry : this.entries) {
+            if (entry.getSide() == side) {
+                packets += entry.getPackets();
+            }
+        }
+        return packets;
+    }
+
+    public long getBytes(PacketSide side) {
+        long bytes = 0L;
+        for (PacketTrafficEntry entry : this.entries) {
+            if (entry.getSide() == side) {
+                bytes += entry.getBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @param limit The maximum amount of entries to return
+     * @return The packet types with the most packets, the one with the most packets first
+     */
+    public List<PacketTrafficEntry> getTopByPackets(int limit) {
+        return this.getTop(limit, Comparator.comparingLong(PacketTrafficEntry::getPackets));
+    }
+
+    /**
+     * @param limit The maximum amount of entries to return
+     * @return The packet types with the most bytes, the one with the most bytes first
+     */
+    public List<PacketTrafficEntry> getTopByBytes(int limit) {
+        return this.getTop(limit, Comparator.comparingLong(PacketTrafficEntry::getBytes));
+    }
+
+    private List<PacketTrafficEntry> getTop(int limit, Comparator<PacketTrafficEntry> comparator) {
+        List<PacketTrafficEntry> sorted = new ArrayList<>(this.entries);
+        sorted.sort(comparator.reversed());
+        return sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+    }
+
+    /**
+     * Calculates the traffic between an earlier snapshot of the same counters and this snapshot,
+     * so the rates of the entries are the current rates instead of the averages since the counters were created.
+     *
+     * @param earlier The earlier snapshot
+     * @return The packets and bytes counted after the earlier snapshot
+     */
+    public PacketTrafficSnapshot since(PacketTrafficSnapshot earlier) {
+        long duration = this.timestampNanos - earlier.timestampNanos;
+        List<PacketTrafficEntry> entries = new ArrayList<>(this.entries.size());
+        for (PacketTrafficEntry entry : this.entries) {
+            PacketTrafficEntry earlierEntry = null;
+            for (PacketTrafficEntry candidate : earlier.entries) {
+                if (entry.isSameType(candidate)) {
+                    earlierEntry = candidate;
+                    break;
+                }
+            }
+            PacketTrafficEntry difference = entry.minus(earlierEntry, duration);
+            // the counters may have been reset in between
+            if (difference.getPackets() > 0L) {
+                entries.add(difference);
+            }
+        }
+        return new PacketTrafficSnapshot(this.timestampNanos, duration, entries);
+    }
+}
@@ -76,8 +76,6 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public final class PacketType {
 
@@ -193,6 +191,27 @@ public final class PacketType {
         }
     }
 
+    /**
+     * @return All packet types of the side and connection state, ordered by their ordinal
+     */
+    public static PacketTypeCommon[] getPacketTypes(PacketSide side, ConnectionState state) {
+        boolean client = side == PacketSide.CLIENT;
+        switch (state) {
+            case HANDSHAKING:
+                return client ? Handshaking.Client.values() : Handshaking.Server.values();
+            case STATUS:
+                return client ? Status.Client.values() : Status.Server.values();
+            case LOGIN:
+                return client ? Login.Client.values() : Login.Server.values();
+            case PLAY:
+                return client ? Play.Client.values() : Play.Server.values();
+            case CONFIGURATION:
+                return client ? Configuration.Client.values() : Configuration.Server.values();
+            default:
+                return new PacketTypeCommon[0];
+        }
+    }
+
     public static class Handshaking {
 
         public enum Client implements PacketTypeConstant, ServerBoundPacket {
@@ -443,7 +462,8 @@ public final class PacketType {
             SELECT_KNOWN_PACKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [mapping index][packet id], packet ids are dense as they are the ordinals of the mapping enums
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[SERVERBOUND_CONFIG_VERSION_MAPPER.getVersions().length][0];
             private final int[] ids;
 
             Client() {
@@ -460,13 +480,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Client value = Configuration.Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -479,8 +500,8 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             @Deprecated
@@ -530,7 +551,8 @@ public final class PacketType {
             SERVER_LINKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [mapping index][packet id], packet ids are dense as they are the ordinals of the mapping enums
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[CLIENTBOUND_CONFIG_VERSION_MAPPER.getVersions().length][0];
             private final int[] ids;
 
             Server() {
@@ -549,13 +571,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Server value = Configuration.Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -568,8 +591,8 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             @Deprecated
@@ -733,7 +756,8 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [mapping index][packet id], packet ids are dense as they are the ordinals of the mapping enums
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[SERVERBOUND_PLAY_VERSION_MAPPER.getVersions().length][0];
             private final int[] ids;
 
             Client() {
@@ -747,20 +771,20 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                return packetIdMap.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Client value = Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index,
-                            k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -983,7 +1007,8 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            //Indexed by [mapping index][packet id], packet ids are dense as they are the ordinals of the mapping enums
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[CLIENTBOUND_PLAY_VERSION_MAPPER.getVersions().length][0];
             private final int[] ids;
 
             Server() {
@@ -1005,8 +1030,8 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                PacketTypeCommon[] table = PACKET_TYPE_ID_TABLE[index];
+                return packetId >= 0 && packetId < table.length ? table[packetId] : null;
             }
 
             @Override
@@ -1016,13 +1041,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Server value = Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -27,9 +27,12 @@ import com.github.retrooper.packetevents.protocol.chat.ChatTypes;
 import com.github.retrooper.packetevents.protocol.chat.message.ChatMessage;
 import com.github.retrooper.packetevents.protocol.chat.message.ChatMessageLegacy;
 import com.github.retrooper.packetevents.protocol.chat.message.ChatMessage_v1_16;
+import com.github.retrooper.packetevents.protocol.entity.tracker.EntityTracker;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTraffic;
 import com.github.retrooper.packetevents.protocol.world.Dimension;
+import com.github.retrooper.packetevents.protocol.world.chunk.ChunkCache;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionType;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypes;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
@@ -64,6 +67,9 @@ public class User implements IRegistryHolder {
 
     private DimensionType dimensionType = DimensionTypes.OVERWORLD;
     private final Map<ResourceLocation, IRegistry<?>> registries = new HashMap<>();
+    private volatile EntityTracker entityTracker;
+    private volatile ChunkCache chunkCache;
+    private volatile PacketTraffic packetTraffic;
 
     public User(Object channel,
                 ConnectionState connectionState, ClientVersion clientVersion,
@@ -306,6 +312,63 @@ public class User implements IRegistryHolder {
         this.dimensionType = dimensionType;
     }
 
+    /**
+     * The entities the server has spawned for this user.
+     * This is only kept up to date if entity tracking has been enabled in the settings.
+     *
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#entityTracking(boolean)
+     */
+    public EntityTracker getEntityTracker() {
+        EntityTracker tracker = this.entityTracker;
+        if (tracker == null) {
+            synchronized (this) {
+                tracker = this.entityTracker;
+                if (tracker == null) {
+                    this.entityTracker = tracker = new EntityTracker();
+                }
+            }
+        }
+        return tracker;
+    }
+
+    /**
+     * The chunks the server has sent to this user.
+     * This is only kept up to date if chunk caching has been enabled in the settings.
+     *
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#chunkCache(boolean)
+     */
+    public ChunkCache getChunkCache() {
+        ChunkCache cache = this.chunkCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = this.chunkCache;
+                if (cache == null) {
+                    this.chunkCache = cache = new ChunkCache(this);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * The packets and bytes exchanged with this user.
+     * This is only counted if traffic statistics have been enabled in the settings.
+     *
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#packetTrafficStats(boolean)
+     */
+    public PacketTraffic getPacketTraffic() {
+        PacketTraffic traffic = this.packetTraffic;
+        if (traffic == null) {
+            synchronized (this) {
+                traffic = this.packetTraffic;
+                if (traffic == null) {
+                    this.packetTraffic = traffic = new PacketTraffic();
+                }
+            }
+        }
+        return traffic;
+    }
+
     // legacy dimension type related methods
 
     @Deprecated
@@ -0,0 +1,113 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.stream;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+
+/**
+ * A {@link NetStreamInput} reading straight from a buffer (usually a slice of the packet buffer),
+ * avoiding the copy into an intermediate byte array and the per-byte stream calls.
+ * <p>
+ * The buffer is not retained, it has to stay readable for as long as this input is used.
+ */
+public class ByteBufNetStreamInput extends NetStreamInput {
+    private final Object buffer;
+    private final ByteBufOperator operator;
+
+    public ByteBufNetStreamInput(Object buffer) {
+        super(new ByteBufInputStream(buffer));
+        this.buffer = buffer;
+        this.operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+    }
+
+    public Object getBuffer() {
+        return this.buffer;
+    }
+
+    @Override
+    public byte readByte() {
+        return this.operator.readByte(this.buffer);
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return this.operator.readUnsignedByte(this.buffer);
+    }
+
+    @Override
+    public short readShort() {
+        return this.operator.readShort(this.buffer);
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return this.operator.readUnsignedShort(this.buffer);
+    }
+
+    @Override
+    public int readInt() {
+        return this.operator.readInt(this.buffer);
+    }
+
+    @Override
+    public int readVarInt() {
+        return this.operator.readVarInt(this.buffer);
+    }
+
+    @Override
+    public long readLong() {
+        return this.operator.readLong(this.buffer);
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Array cannot have length less than 0.");
+        }
+        byte[] b = new byte[length];
+        this.operator.readBytes(this.buffer, b);
+        return b;
+    }
+
+    @Override
+    public void skipBytes(int length) {
+        this.operator.skipBytes(this.buffer, length);
+    }
+
+    @Override
+    public long[] readLongs(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Array cannot have length less than 0.");
+        }
+        long[] l = new long[length];
+        this.operator.readLongs(this.buffer, l);
+        return l;
+    }
+
+    @Override
+    public int readLongs(long[] l, int offset, int length) {
+        if (offset == 0 && length == l.length) {
+            this.operator.readLongs(this.buffer, l);
+            return length;
+        }
+        return super.readLongs(l, offset, length);
+    }
+}
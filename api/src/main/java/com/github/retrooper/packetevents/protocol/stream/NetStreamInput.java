@@ -183,6 +183,24 @@ public class NetStreamInput extends FilterInputStream {
     }
 
 
+    public void skipBytes(int length) {
+        int n = 0;
+        while (n < length) {
+            long count = 0;
+            try {
+                count = this.skip(length - n);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (count <= 0) {
+                throw new IllegalStateException();
+            }
+
+            n += (int) count;
+        }
+    }
+
+
     public short[] readShorts(int length) {
         if (length < 0) {
             throw new IllegalArgumentException("Array cannot have length less than 0.");
@@ -125,6 +125,15 @@ public class NetStreamOutput extends FilterOutputStream {
     }
 
 
+    public void writeBytes(byte[] b, int offset, int length) {
+        try {
+            this.write(b, offset, length);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
     public void writeShorts(short[] s) {
         this.writeShorts(s, s.length);
     }
@@ -0,0 +1,239 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.chunk;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The chunk sections the server has sent to a single user, keyed by {@link PacketWrapper#getChunkKey(int, int)}.
+ * <p>
+ * Sections are kept in the compact form they were decoded in (palettes for 1.9+),
+ * so caching the world of a user costs about as much memory as the chunk packets themselves.
+ * On 1.18+, identical sections are shared between the caches of all users until they are modified.
+ * <p>
+ * The cache is updated on the netty thread of the user, but can be queried from any thread.
+ * Unless chunk caching has been enabled in the settings, the cache stays empty.
+ *
+ * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#chunkCache(boolean)
+ */
+public class ChunkCache {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final User user;
+
+    // open addressing map, a null column marks a free slot
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private BaseChunk[][] columns = new BaseChunk[INITIAL_CAPACITY][];
+    private int size;
+
+    public ChunkCache(User user) {
+        this.user = user;
+    }
+
+    private static int hash(long chunkKey) {
+        long hash = chunkKey * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private int slotOf(long chunkKey) {
+        int mask = this.keys.length - 1;
+        int slot = hash(chunkKey) & mask;
+        while (this.columns[slot] != null) {
+            if (this.keys[slot] == chunkKey) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void put(long chunkKey, BaseChunk[] sections) {
+        int mask = this.keys.length - 1;
+        int slot = hash(chunkKey) & mask;
+        while (this.columns[slot] != null) {
+            if (this.keys[slot] == chunkKey) {
+                this.columns[slot] = sections;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.keys[slot] = chunkKey;
+        this.columns[slot] = sections;
+        // keep the load factor at or below 0.5
+        if (++this.size > this.keys.length >> 1) {
+            this.rehash(this.keys.length << 1);
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = this.keys;
+        BaseChunk[][] oldColumns = this.columns;
+        this.keys = new long[capacity];
+        this.columns = new BaseChunk[capacity][];
+        this.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldColumns[i] != null) {
+                this.put(oldKeys[i], oldColumns[i]);
+            }
+        }
+    }
+
+    /**
+     * Caches the sections of a chunk column.
+     * Full columns replace the cached column, otherwise only the sections which are present get replaced.
+     */
+    public synchronized void load(Column column) {
+        long chunkKey = PacketWrapper.getChunkKey(column.getX(), column.getZ());
+        BaseChunk[] sections = column.getChunks();
+        if (!column.isFullChunk()) {
+            int slot = this.slotOf(chunkKey);
+            if (slot != -1) {
+                BaseChunk[] cached = this.columns[slot];
+                for (int i = 0; i < sections.length && i < cached.length; i++) {
+                    if (sections[i] != null) {
+                        cached[i] = sections[i] instanceof Chunk_v1_18 ? ((Chunk_v1_18) sections[i]).intern() : sections[i];
+                    }
+                }
+                return;
+            }
+        }
+        this.put(chunkKey, intern(Arrays.copyOf(sections, sections.length)));
+    }
+
+    // share identical sections with the caches of other users, this also releases the network data of the column
+    private static BaseChunk[] intern(BaseChunk[] sections) {
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] instanceof Chunk_v1_18) {
+                sections[i] = ((Chunk_v1_18) sections[i]).intern();
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Removes a chunk column from the cache.
+     *
+     * @return whether the column was cached
+     */
+    public synchronized boolean unload(int chunkX, int chunkZ) {
+        int slot = this.slotOf(PacketWrapper.getChunkKey(chunkX, chunkZ));
+        if (slot == -1) {
+            return false;
+        }
+        // shift following entries of the probe sequence back, so lookups never stop at a hole
+        int mask = this.keys.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (this.columns[next] == null) {
+                break;
+            }
+            int home = hash(this.keys[next]) & mask;
+            if (slot <= next ? (slot < home && home <= next) : (slot < home || home <= next)) {
+                continue;
+            }
+            this.keys[slot] = this.keys[next];
+            this.columns[slot] = this.columns[next];
+            slot = next;
+        }
+        this.columns[slot] = null;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Removes all chunk columns, for example when the user switches worlds.
+     */
+    public synchronized void clear() {
+        Arrays.fill(this.columns, null);
+        this.size = 0;
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    public synchronized boolean isLoaded(int chunkX, int chunkZ) {
+        return this.slotOf(PacketWrapper.getChunkKey(chunkX, chunkZ)) != -1;
+    }
+
+    /**
+     * @return a copy of the cached sections of the column (empty sections may be null), or null if the column isn't cached
+     */
+    public synchronized @Nullable BaseChunk[] getSections(int chunkX, int chunkZ) {
+        int slot = this.slotOf(PacketWrapper.getChunkKey(chunkX, chunkZ));
+        return slot == -1 ? null : this.columns[slot].clone();
+    }
+
+    /**
+     * @return the global block id at the given block position, or -1 if the position isn't cached
+     */
+    public synchronized int getBlockId(int x, int y, int z) {
+        int slot = this.slotOf(PacketWrapper.getChunkKey(x >> 4, z >> 4));
+        if (slot == -1) {
+            return -1;
+        }
+        BaseChunk[] sections = this.columns[slot];
+        int sectionIndex = (y - this.user.getMinWorldHeight()) >> 4;
+        if (sectionIndex < 0 || sectionIndex >= sections.length) {
+            return -1;
+        }
+        BaseChunk section = sections[sectionIndex];
+        // sections which haven't been sent are empty
+        return section == null ? 0 : section.getBlockId(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * @return the block state at the given block position, or null if the position isn't cached
+     */
+    public @Nullable WrappedBlockState getBlockState(ClientVersion version, int x, int y, int z) {
+        int blockId = this.getBlockId(x, y, z);
+        return blockId == -1 ? null : WrappedBlockState.getByGlobalId(version, blockId);
+    }
+
+    /**
+     * Sets the global block id at the given block position, does nothing if the position isn't cached.
+     */
+    public synchronized void setBlockId(int x, int y, int z, int blockId) {
+        int slot = this.slotOf(PacketWrapper.getChunkKey(x >> 4, z >> 4));
+        if (slot == -1) {
+            return;
+        }
+        BaseChunk[] sections = this.columns[slot];
+        int sectionIndex = (y - this.user.getMinWorldHeight()) >> 4;
+        if (sectionIndex < 0 || sectionIndex >= sections.length) {
+            return;
+        }
+        BaseChunk section = sections[sectionIndex];
+        if (section == null) {
+            if (blockId == 0) {
+                return;
+            }
+            sections[sectionIndex] = section = BaseChunk.create();
+        }
+        section.set(x & 15, y & 15, z & 15, blockId);
+    }
+}
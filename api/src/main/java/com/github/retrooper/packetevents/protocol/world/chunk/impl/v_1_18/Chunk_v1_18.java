@@ -18,7 +18,10 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18;
 
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
@@ -31,10 +34,15 @@ public class Chunk_v1_18 implements BaseChunk {
     private static final int AIR = 0;
 
     private int blockCount;
-    private @NotNull
-    final DataPalette chunkData;
-    private @NotNull
-    final DataPalette biomeData;
+    private DataPalette chunkData;
+    private DataPalette biomeData;
+
+    // Network data of both palettes, only present as long as the section hasn't been decoded
+    private byte[] rawData;
+    private int rawOffset;
+    private int rawLength;
+    // Set once the section has been interned, the network data is then the shared one
+    private SectionInterner.SharedSection shared;
 
     public Chunk_v1_18() {
         this(0, DataPalette.createForChunk(), DataPalette.createForBiome());
@@ -46,6 +54,13 @@ public class Chunk_v1_18 implements BaseChunk {
         this.biomeData = biomeData;
     }
 
+    private Chunk_v1_18(final int blockCount, final byte[] rawData, final int rawOffset, final int rawLength) {
+        this.blockCount = blockCount;
+        this.rawData = rawData;
+        this.rawOffset = rawOffset;
+        this.rawLength = rawLength;
+    }
+
     public static Chunk_v1_18 read(NetStreamInput in)  {
         int blockCount = in.readShort();
 
@@ -54,20 +69,87 @@ public class Chunk_v1_18 implements BaseChunk {
         return new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
     }
 
+    /**
+     * Creates a section whose palettes are only decoded from the given network data once they are accessed.
+     * Sections which are never decoded are written back as a plain copy of this data.
+     *
+     * @param rawData   the network data, starting with the block palette, must not be modified afterwards
+     * @param rawOffset the offset of the block palette in rawData
+     * @param rawLength the length of both palettes
+     */
+    public static Chunk_v1_18 lazy(int blockCount, byte[] rawData, int rawOffset, int rawLength) {
+        return new Chunk_v1_18(blockCount, rawData, rawOffset, rawLength);
+    }
+
     public static void write(NetStreamOutput out, Chunk_v1_18 section)  {
         out.writeShort(section.blockCount);
+        if (section.rawData != null) {
+            out.writeBytes(section.rawData, section.rawOffset, section.rawLength);
+            return;
+        }
         DataPalette.write(out, section.chunkData);
         DataPalette.write(out, section.biomeData);
     }
 
+    private void decode() {
+        SectionInterner.SharedSection shared = this.shared;
+        if (shared != null) {
+            DataPalette[] palettes = shared.decode();
+            this.chunkData = palettes[0];
+            this.biomeData = palettes[1];
+            // the palettes keep the shared section alive for as long as they are unmodified
+            this.shared = null;
+            this.rawData = null;
+            return;
+        }
+        byte[] rawData = this.rawData;
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(rawData);
+        ByteBufHelper.writerIndex(buffer, this.rawOffset + this.rawLength);
+        ByteBufHelper.readerIndex(buffer, this.rawOffset);
+        NetStreamInput in = new ByteBufNetStreamInput(buffer);
+        this.chunkData = DataPalette.read(in, PaletteType.CHUNK);
+        this.biomeData = DataPalette.read(in, PaletteType.BIOME);
+        this.rawData = null;
+    }
+
+    /**
+     * Shares the network data of this section with identical, previously interned sections,
+     * or interns this section if there is none. The section isn't decoded, once it is, it shares the palettes
+     * decoded for all of these sections. Shared palettes are copied once they are modified,
+     * so the section can be used like any other section.
+     * <p>
+     * Only sections which haven't been decoded yet can be matched, other sections are left as is.
+     *
+     * @return this section
+     */
+    public Chunk_v1_18 intern() {
+        if (this.rawData == null || this.shared != null) {
+            return this;
+        }
+        SectionInterner.SharedSection shared = SectionInterner.intern(this.blockCount,
+                this.rawData, this.rawOffset, this.rawLength);
+        this.shared = shared;
+        this.rawData = shared.data;
+        this.rawOffset = 0;
+        this.rawLength = shared.data.length;
+        return this;
+    }
+
+    /**
+     * @return whether the palettes of this section have been decoded
+     */
+    public boolean isDecoded() {
+        return this.rawData == null;
+    }
+
     @Override
     public int getBlockId(int x, int y, int z) {
-        return this.chunkData.get(x, y, z);
+        return this.getChunkData().get(x, y, z);
     }
 
     @Override
     public void set(int x, int y, int z, int state) {
-        int curr = this.chunkData.set(x, y, z, state);
+        int curr = this.getChunkData().set(x, y, z, state);
         if (state != AIR && curr == AIR) {
             this.blockCount++;
         } else if (state == AIR && curr != AIR) {
@@ -89,10 +171,16 @@ public class Chunk_v1_18 implements BaseChunk {
     }
 
     public @NotNull DataPalette getChunkData() {
+        if (this.rawData != null) {
+            this.decode();
+        }
         return chunkData;
     }
 
     public @NotNull DataPalette getBiomeData() {
+        if (this.rawData != null) {
+            this.decode();
+        }
         return biomeData;
     }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18;
+
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns sections by their network data, so identical sections received by different users
+ * share one copy of that data and, once decoded, their palettes and storage
+ * (copy-on-write, see {@link DataPalette#sharedCopy()}).
+ * <p>
+ * Interning doesn't decode the section. The shared data stays alive as long as at least one section still uses it,
+ * either undecoded or through decoded palettes which haven't been modified yet.
+ * The small entries left behind are removed whenever the interner is used.
+ */
+final class SectionInterner {
+    private static final ConcurrentMap<SectionKey, SectionEntry> ENTRIES = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<SharedSection> QUEUE = new ReferenceQueue<>();
+
+    private SectionInterner() {
+    }
+
+    /**
+     * @return the shared data of an identical section, or new shared data copied from the given network data
+     */
+    static SharedSection intern(int blockCount, byte[] rawData, int rawOffset, int rawLength) {
+        expungeStaleEntries();
+
+        SectionKey key = new SectionKey(blockCount, rawData, rawOffset, rawLength);
+        SectionEntry entry = ENTRIES.get(key);
+        SharedSection shared = entry == null ? null : entry.get();
+        if (shared != null) {
+            return shared;
+        }
+
+        // not interned yet (or no longer used by anyone), this section's data is shared from now on
+        byte[] data = new byte[rawLength];
+        System.arraycopy(rawData, rawOffset, data, 0, rawLength);
+        shared = new SharedSection(data);
+        // the key reads the shared data through the entry, so stale entries don't keep it alive
+        SectionKey ownKey = new SectionKey(blockCount, null, 0, rawLength, key.hash);
+        SectionEntry ownEntry = new SectionEntry(ownKey, shared);
+        ownKey.entry = ownEntry;
+        while (true) {
+            entry = ENTRIES.putIfAbsent(ownKey, ownEntry);
+            if (entry == null) {
+                return shared;
+            }
+            SharedSection existing = entry.get();
+            if (existing != null) {
+                // another thread interned the same section first
+                return existing;
+            }
+            if (ENTRIES.replace(ownKey, entry, ownEntry)) {
+                return shared;
+            }
+        }
+    }
+
+    private static void expungeStaleEntries() {
+        SectionEntry entry;
+        while ((entry = (SectionEntry) QUEUE.poll()) != null) {
+            ENTRIES.remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * The network data of interned sections, decoded once for all sections sharing it.
+     */
+    static final class SharedSection {
+        final byte[] data;
+        private DataPalette chunkData;
+        private DataPalette biomeData;
+
+        SharedSection(byte[] data) {
+            this.data = data;
+        }
+
+        synchronized DataPalette[] decode() {
+            expungeStaleEntries();
+            if (this.chunkData == null) {
+                Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(this.data);
+                NetStreamInput in = new ByteBufNetStreamInput(buffer);
+                DataPalette chunkData = DataPalette.read(in, PaletteType.CHUNK);
+                DataPalette biomeData = DataPalette.read(in, PaletteType.BIOME);
+                // these are never modified, only copied once a section sharing them gets modified
+                chunkData.sharedCopy();
+                biomeData.sharedCopy();
+                this.chunkData = chunkData;
+                this.biomeData = biomeData;
+            }
+            // the copies keep this alive until they are modified, so sections interned later still share them
+            return new DataPalette[]{this.chunkData.sharedCopy(this), this.biomeData.sharedCopy(this)};
+        }
+    }
+
+    private static final class SectionKey {
+        private final int blockCount;
+        // null for keys of the map, which read the data of their entry
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+        private final int hash;
+        private SectionEntry entry;
+
+        SectionKey(int blockCount, byte[] data, int offset, int length) {
+            this(blockCount, data, offset, length, hash(blockCount, data, offset, length));
+        }
+
+        SectionKey(int blockCount, byte[] data, int offset, int length, int hash) {
+            this.blockCount = blockCount;
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+            this.hash = hash;
+        }
+
+        private byte[] data() {
+            if (this.data != null) {
+                return this.data;
+            }
+            SharedSection shared = this.entry.get();
+            return shared == null ? null : shared.data;
+        }
+
+        private static int hash(int blockCount, byte[] data, int offset, int length) {
+            int hash = blockCount;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                hash = 31 * hash + data[i];
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SectionKey)) {
+                return false;
+            }
+            SectionKey other = (SectionKey) obj;
+            // the bytes are only compared if everything else matches
+            if (this.hash != other.hash || this.blockCount != other.blockCount || this.length != other.length) {
+                return false;
+            }
+            byte[] data = this.data();
+            byte[] otherData = other.data();
+            if (data == null || otherData == null) {
+                // the data of a stale entry is gone, it doesn't match anything but itself
+                return false;
+            }
+            for (int i = 0; i < this.length; i++) {
+                if (data[this.offset + i] != otherData[other.offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    // weakly references the shared data, which is dropped by sections once they have been decoded and modified
+    private static final class SectionEntry extends WeakReference<SharedSection> {
+        private final SectionKey key;
+
+        SectionEntry(SectionKey key, SharedSection shared) {
+            super(shared, QUEUE);
+            this.key = key;
+        }
+    }
+}
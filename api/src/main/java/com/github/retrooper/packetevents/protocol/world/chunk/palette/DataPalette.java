@@ -26,6 +26,9 @@ import com.github.retrooper.packetevents.protocol.world.chunk.storage.LegacyFlex
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
 public class DataPalette {
 
     // this is the amount of bits required to store the biggest state id number
@@ -34,6 +37,10 @@ public class DataPalette {
     public @NotNull Palette palette;
     public BaseStorage storage;
     public final PaletteType paletteType;
+    // whether the palette and storage may be referenced by other data palettes, see sharedCopy
+    private boolean shared;
+    // kept reachable for as long as the palette and storage are shared, see sharedCopy(Object)
+    private @Nullable Object sharedOwner;
 
     public static DataPalette createForChunk() {
         return createEmpty(PaletteType.CHUNK);
@@ -54,6 +61,47 @@ public class DataPalette {
         this.paletteType = paletteType;
     }
 
+    /**
+     * Creates a data palette referencing the same palette and storage as this one, without copying them.
+     * Both data palettes copy the palette and storage before their next modification through this class,
+     * so they never see each other's changes.
+     * Modifying {@link #palette} or {@link #storage} directly bypasses this and isn't allowed for shared palettes.
+     */
+    public DataPalette sharedCopy() {
+        return this.sharedCopy(null);
+    }
+
+    /**
+     * Creates a data palette referencing the same palette and storage as this one, see {@link #sharedCopy()}.
+     * The copy strongly references the owner until it copies the palette and storage,
+     * e.g. to keep a cache of the shared data alive as long as it is in use.
+     */
+    public DataPalette sharedCopy(@Nullable Object owner) {
+        this.shared = true;
+        DataPalette copy = new DataPalette(this.palette, this.storage, this.paletteType);
+        copy.shared = true;
+        copy.sharedOwner = owner;
+        return copy;
+    }
+
+    /**
+     * @return whether the palette and storage may be referenced by another data palette
+     */
+    public boolean isShared() {
+        return this.shared;
+    }
+
+    private void unshare() {
+        if (this.shared) {
+            this.palette = this.palette.copy();
+            if (this.storage != null) {
+                this.storage = this.storage.copy();
+            }
+            this.shared = false;
+            this.sharedOwner = null;
+        }
+    }
+
     public static DataPalette read(NetStreamInput in, PaletteType paletteType) {
         return read(in, paletteType, true);
     }
@@ -73,6 +121,23 @@ public class DataPalette {
         return new DataPalette(palette, storage, paletteType);
     }
 
+    /**
+     * Moves past a palette written in the {@link #read(NetStreamInput, PaletteType)} format without decoding it.
+     */
+    public static void skip(NetStreamInput in, PaletteType paletteType) {
+        int bitsPerEntry = in.readByte();
+        if (bitsPerEntry == 0) {
+            in.readVarInt(); // Singleton state
+        } else if (bitsPerEntry <= paletteType.getMaxBitsPerEntry()) {
+            int paletteLength = in.readVarInt();
+            for (int i = 0; i < paletteLength; i++) {
+                in.readVarInt();
+            }
+        }
+        int length = in.readVarInt();
+        in.skipBytes(length * Long.BYTES);
+    }
+
     public static void write(NetStreamOutput out, DataPalette palette) {
         if (palette.palette instanceof SingletonPalette) {
             out.writeByte(0); // Bits per entry
@@ -123,6 +188,7 @@ public class DataPalette {
      * @return the old value present in the storage.
      */
     public int set(int x, int y, int z, int state) {
+        this.unshare();
         int id = this.palette.stateToId(state);
         if (id == -1) {
             resize();
@@ -141,6 +207,241 @@ public class DataPalette {
         }
     }
 
+    /**
+     * Replaces every occurrence of a state, working on the palette alone whenever the storage ids can stay the same.
+     */
+    public void replaceAll(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        // shared palettes and storage are only copied once something actually changes,
+        // replacing the palette with a new one doesn't modify the shared one
+        if (this.storage == null) {
+            if (this.palette.idToState(0) == from) {
+                this.palette = new SingletonPalette(to);
+            }
+            return;
+        }
+        if (this.palette instanceof GlobalPalette) {
+            boolean[] found = new boolean[1];
+            this.forEachId((index, id) -> found[0] |= id == from);
+            if (found[0]) {
+                this.unshare();
+                this.rewriteStorage(id -> id == from ? to : id);
+            }
+            return;
+        }
+
+        // rebuild the palette, the storage only has to be touched if the ids changed (e.g. "to" was already present)
+        Palette oldPalette = this.palette;
+        Palette newPalette = createPalette(this.storage.getBitsPerEntry(), this.paletteType);
+        int[] remap = new int[oldPalette.size()];
+        boolean found = false;
+        boolean sameIds = true;
+        for (int id = 0; id < remap.length; id++) {
+            int state = oldPalette.idToState(id);
+            if (state == from) {
+                state = to;
+                found = true;
+            }
+            remap[id] = newPalette.stateToId(state);
+            sameIds &= remap[id] == id;
+        }
+        if (!found) {
+            return;
+        }
+        if (!sameIds) {
+            this.unshare();
+            this.rewriteStorage(id -> id < remap.length ? remap[id] : id);
+        }
+        this.palette = newPalette;
+    }
+
+    /**
+     * Replaces every state with the state returned by the mapper, see {@link #remap(IntUnaryOperator, int)}.
+     * A storage of the global palette keeps its bits per entry, so the mapped states have to fit into it.
+     */
+    public void remap(IntUnaryOperator mapper) {
+        this.remap(mapper, this.storage == null ? GLOBAL_PALETTE_BITS_PER_ENTRY : this.storage.getBitsPerEntry());
+    }
+
+    /**
+     * Replaces every state with the state returned by the mapper, e.g. to translate the states into another version.
+     * Unless the global palette is used, the mapper is only called once per palette entry.
+     *
+     * @param globalBitsPerEntry The bits per entry of the global palette of the states returned by the mapper,
+     *                           clients read exactly this many bits per entry if the section uses the global palette
+     */
+    public void remap(IntUnaryOperator mapper, int globalBitsPerEntry) {
+        // like replaceAll, shared palettes and storage are only copied once a state actually changes
+        if (this.storage == null) {
+            int state = this.palette.idToState(0);
+            int mapped = mapper.applyAsInt(state);
+            if (mapped != state) {
+                this.palette = new SingletonPalette(mapped);
+            }
+            return;
+        }
+        if (this.palette instanceof GlobalPalette) {
+            int size = this.paletteType.getStorageSize();
+            int[] states = new int[size];
+            this.forEachId((index, state) -> states[index] = state);
+            boolean changed = false;
+            for (int i = 0; i < size; i++) {
+                int mapped = mapper.applyAsInt(states[i]);
+                changed |= mapped != states[i];
+                states[i] = mapped;
+            }
+            if (!changed && globalBitsPerEntry == this.storage.getBitsPerEntry()) {
+                return;
+            }
+            this.unshare();
+            if (globalBitsPerEntry != this.storage.getBitsPerEntry()) {
+                this.storage = this.storage instanceof LegacyFlexibleStorage
+                        ? new LegacyFlexibleStorage(globalBitsPerEntry, size)
+                        : new BitStorage(globalBitsPerEntry, size);
+            }
+            for (int i = 0; i < size; i++) {
+                this.storage.set(i, states[i]);
+            }
+            return;
+        }
+
+        // states may collapse into one, so the storage only has to be touched if the ids changed
+        Palette oldPalette = this.palette;
+        Palette newPalette = createPalette(this.storage.getBitsPerEntry(), this.paletteType);
+        int[] remap = new int[oldPalette.size()];
+        boolean changed = false;
+        boolean sameIds = true;
+        for (int id = 0; id < remap.length; id++) {
+            int state = oldPalette.idToState(id);
+            int mapped = mapper.applyAsInt(state);
+            changed |= mapped != state;
+            remap[id] = newPalette.stateToId(mapped);
+            sameIds &= remap[id] == id;
+        }
+        if (!changed) {
+            return;
+        }
+        if (!sameIds) {
+            this.unshare();
+            this.rewriteStorage(id -> id < remap.length ? remap[id] : id);
+        }
+        this.palette = newPalette;
+    }
+
+    /**
+     * Sets every entry to the given state, see {@link #fill(int, boolean)}.
+     */
+    public void fill(int state) {
+        this.fill(state, true);
+    }
+
+    /**
+     * Sets every entry to the given state.
+     *
+     * @param allowSingletonPalette whether the palette may collapse to a {@link SingletonPalette},
+     *                              which is only supported by the 1.18+ chunk format
+     */
+    public void fill(int state, boolean allowSingletonPalette) {
+        // the palette and storage are replaced, not modified
+        this.shared = false;
+        this.sharedOwner = null;
+        if (allowSingletonPalette) {
+            this.palette = new SingletonPalette(state);
+            this.storage = null;
+            return;
+        }
+        int bitsPerEntry = this.paletteType.getMinBitsPerEntry();
+        this.palette = createPalette(bitsPerEntry, this.paletteType);
+        this.palette.stateToId(state);
+        this.storage = this.storage instanceof LegacyFlexibleStorage
+                ? new LegacyFlexibleStorage(bitsPerEntry, this.paletteType.getStorageSize())
+                : new BitStorage(bitsPerEntry, this.paletteType.getStorageSize());
+    }
+
+    /**
+     * Calls the consumer with the storage index and state of every entry, in storage order.
+     * The storage index of a position is {@code (y << bitShift | z) << bitShift | x}.
+     */
+    public void forEach(IntIntConsumer consumer) {
+        Palette palette = this.palette;
+        this.forEachId((index, id) -> consumer.accept(index, palette.idToState(id)));
+    }
+
+    /**
+     * Counts the entries of every palette id, without boxing or looking up a state per entry.
+     * The state of an id is {@code palette.idToState(id)}; for a {@link GlobalPalette} the id is the state itself.
+     *
+     * @return the amount of entries indexed by palette id, ids which aren't used have a count of zero
+     */
+    public int[] histogram() {
+        if (this.storage == null) {
+            return new int[]{this.paletteType.getStorageSize()};
+        }
+        int[] counts = new int[1 << this.storage.getBitsPerEntry()];
+        this.forEachId((index, id) -> counts[id]++);
+        if (this.palette instanceof GlobalPalette || counts.length == this.palette.size()) {
+            return counts;
+        }
+        // the storage may be wider than the palette needs
+        return Arrays.copyOf(counts, this.palette.size());
+    }
+
+    private void forEachId(IntIntConsumer consumer) {
+        int size = this.paletteType.getStorageSize();
+        if (this.storage == null) {
+            for (int index = 0; index < size; index++) {
+                consumer.accept(index, 0);
+            }
+        } else if (this.storage instanceof BitStorage) {
+            // entries never span two longs, so every word can be unpacked on its own
+            long[] data = this.storage.getData();
+            int bitsPerEntry = this.storage.getBitsPerEntry();
+            int valuesPerLong = 64 / bitsPerEntry;
+            long mask = (1L << bitsPerEntry) - 1L;
+            int index = 0;
+            for (int i = 0; i < data.length && index < size; i++) {
+                long word = data[i];
+                for (int j = 0; j < valuesPerLong && index < size; j++, index++) {
+                    consumer.accept(index, (int) (word & mask));
+                    word >>>= bitsPerEntry;
+                }
+            }
+        } else {
+            for (int index = 0; index < size; index++) {
+                consumer.accept(index, this.storage.get(index));
+            }
+        }
+    }
+
+    private void rewriteStorage(IntUnaryOperator operator) {
+        int size = this.paletteType.getStorageSize();
+        if (this.storage instanceof BitStorage) {
+            long[] data = this.storage.getData();
+            int bitsPerEntry = this.storage.getBitsPerEntry();
+            int valuesPerLong = 64 / bitsPerEntry;
+            long mask = (1L << bitsPerEntry) - 1L;
+            int index = 0;
+            for (int i = 0; i < data.length && index < size; i++) {
+                long word = data[i];
+                int shift = 0;
+                for (int j = 0; j < valuesPerLong && index < size; j++, index++, shift += bitsPerEntry) {
+                    int value = operator.applyAsInt((int) (word >>> shift & mask));
+                    if (value < 0 || value > mask) {
+                        throw new IllegalStateException("Illegal value: " + value + " < 0 || " + value + " > " + mask);
+                    }
+                    word = word & ~(mask << shift) | (long) value << shift;
+                }
+                data[i] = word;
+            }
+        } else {
+            for (int index = 0; index < size; index++) {
+                this.storage.set(index, operator.applyAsInt(this.storage.get(index)));
+            }
+        }
+    }
+
     private static Palette readPalette(
             PaletteType paletteType,
             int bitsPerEntry,
@@ -198,4 +499,9 @@ public class DataPalette {
     private static int index(PaletteType paletteType, int x, int y, int z) {
         return (y << paletteType.getBitShift() | z) << paletteType.getBitShift() | x;
     }
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int index, int value);
+    }
 }
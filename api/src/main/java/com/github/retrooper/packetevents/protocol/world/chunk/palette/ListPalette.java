@@ -42,6 +42,12 @@ public class ListPalette implements Palette {
         this.data = new int[this.maxId + 1];
     }
 
+    private ListPalette(ListPalette palette) {
+        this.maxId = palette.maxId;
+        this.data = palette.data.clone();
+        this.nextId = palette.nextId;
+    }
+
     public ListPalette(int bitsPerEntry, NetStreamInput in) {
         this(bitsPerEntry);
 
@@ -82,4 +88,9 @@ public class ListPalette implements Palette {
             return 0;
         }
     }
+
+    @Override
+    public ListPalette copy() {
+        return new ListPalette(this);
+    }
 }
\ No newline at end of file
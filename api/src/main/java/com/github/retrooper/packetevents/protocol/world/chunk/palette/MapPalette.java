@@ -26,8 +26,6 @@ package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 
-import java.util.HashMap;
-
 /**
  * A palette backed by a map.
  */
@@ -35,14 +33,21 @@ public class MapPalette implements Palette {
     private final int maxId;
 
     private final int[] idToState;
-    // TODO: Can we use fastutils here?
-    private final HashMap<Object, Integer> stateToId = new HashMap<>();
+    private final StateIdMap stateToId;
     private int nextId = 0;
 
     public MapPalette(int bitsPerEntry) {
         this.maxId = (1 << bitsPerEntry) - 1;
 
         this.idToState = new int[this.maxId + 1];
+        this.stateToId = new StateIdMap(this.maxId + 1);
+    }
+
+    private MapPalette(MapPalette palette) {
+        this.maxId = palette.maxId;
+        this.idToState = palette.idToState.clone();
+        this.stateToId = palette.stateToId.copy();
+        this.nextId = palette.nextId;
     }
 
     public MapPalette(int bitsPerEntry, NetStreamInput in) {
@@ -64,18 +69,14 @@ public class MapPalette implements Palette {
 
     @Override
     public int stateToId(int state) {
-        Integer id = this.stateToId.get(state);
-        if (id == null && this.size() < this.maxId + 1) {
+        int id = this.stateToId.get(state);
+        if (id == -1 && this.size() < this.maxId + 1) {
             id = this.nextId++;
             this.idToState[id] = state;
-            this.stateToId.put(state, id);
+            this.stateToId.putIfAbsent(state, id);
         }
 
-        if (id != null) {
-            return id;
-        } else {
-            return -1;
-        }
+        return id;
     }
 
     @Override
@@ -86,4 +87,9 @@ public class MapPalette implements Palette {
             return 0;
         }
     }
+
+    @Override
+    public MapPalette copy() {
+        return new MapPalette(this);
+    }
 }
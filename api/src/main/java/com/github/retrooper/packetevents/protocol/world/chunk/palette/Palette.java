@@ -52,4 +52,11 @@ public interface Palette {
      * @return The resulting block state.
      */
     int idToState(int id);
+
+    /**
+     * Creates a palette with the same mappings, which can be modified independently of this one.
+     *
+     * @return The copied palette.
+     */
+    Palette copy();
 }
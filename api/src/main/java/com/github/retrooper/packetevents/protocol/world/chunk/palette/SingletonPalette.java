@@ -30,6 +30,10 @@ import java.io.IOException;
 public class SingletonPalette implements Palette {
     private final int state;
 
+    public SingletonPalette(int state) {
+        this.state = state;
+    }
+
     public SingletonPalette(NetStreamInput in) {
         this.state = in.readVarInt();
     }
@@ -54,4 +58,9 @@ public class SingletonPalette implements Palette {
         }
         return 0;
     }
+
+    @Override
+    public SingletonPalette copy() {
+        return new SingletonPalette(this.state);
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.chunk.palette;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing state to storage id map without boxing, sized once for the palette it belongs to.
+ * Storage ids are never negative, so -1 marks a free slot.
+ */
+final class StateIdMap {
+    private static final int FREE = -1;
+
+    private final int[] states;
+    private final int[] ids;
+    private final int mask;
+
+    StateIdMap(int maxSize) {
+        // keep the load factor at or below 0.5, so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(maxSize, 2) - 1) << 2;
+        this.states = new int[capacity];
+        this.ids = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(this.ids, FREE);
+    }
+
+    private StateIdMap(StateIdMap map) {
+        this.states = map.states.clone();
+        this.ids = map.ids.clone();
+        this.mask = map.mask;
+    }
+
+    StateIdMap copy() {
+        return new StateIdMap(this);
+    }
+
+    private static int slot(int state) {
+        int hash = state * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return the storage id of the state, or -1 if it isn't mapped
+     */
+    int get(int state) {
+        int slot = slot(state) & this.mask;
+        int id;
+        while ((id = this.ids[slot]) != FREE) {
+            if (this.states[slot] == state) {
+                return id;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return FREE;
+    }
+
+    /**
+     * Maps the state to the storage id, unless the state is already mapped.
+     */
+    void putIfAbsent(int state, int id) {
+        int slot = slot(state) & this.mask;
+        while (this.ids[slot] != FREE) {
+            if (this.states[slot] == state) {
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.states[slot] = state;
+        this.ids[slot] = id;
+    }
+}
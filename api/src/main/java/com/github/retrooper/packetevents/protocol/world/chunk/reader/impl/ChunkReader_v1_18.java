@@ -18,9 +18,13 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.reader.impl;
 
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
 import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.ChunkReader;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionType;
 
@@ -31,8 +35,25 @@ public class ChunkReader_v1_18 implements ChunkReader {
     public BaseChunk[] read(DimensionType dimensionType, BitSet set, BitSet sevenExtendedMask, boolean fullChunk, boolean hasSkyLight, boolean checkForSky, int chunkSize, byte[] data, NetStreamInput dataIn) {
         BaseChunk[] chunks = new BaseChunk[chunkSize];
 
+        if (!(dataIn instanceof ByteBufNetStreamInput)) {
+            for (int index = 0; index < chunkSize; ++index) {
+                chunks[index] = Chunk_v1_18.read(dataIn);
+            }
+            return chunks;
+        }
+
+        // The packet buffer is gone once the event is over, so keep a single copy of the section data
+        // and only record where each section starts; palettes are decoded once a section is accessed
+        Object buffer = ((ByteBufNetStreamInput) dataIn).getBuffer();
+        int startIndex = ByteBufHelper.readerIndex(buffer);
+        byte[] rawData = ByteBufHelper.copyBytes(buffer);
         for (int index = 0; index < chunkSize; ++index) {
-            chunks[index] = Chunk_v1_18.read(dataIn);
+            int blockCount = dataIn.readShort();
+            int offset = ByteBufHelper.readerIndex(buffer) - startIndex;
+            DataPalette.skip(dataIn, PaletteType.CHUNK);
+            DataPalette.skip(dataIn, PaletteType.BIOME);
+            int length = ByteBufHelper.readerIndex(buffer) - startIndex - offset;
+            chunks[index] = Chunk_v1_18.lazy(blockCount, rawData, offset, length);
         }
 
         return chunks;
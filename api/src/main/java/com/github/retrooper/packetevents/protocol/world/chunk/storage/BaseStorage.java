@@ -28,4 +28,9 @@ public abstract class BaseStorage {
     public abstract int get(int index);
 
     public abstract void set(int index, int value);
+
+    /**
+     * @return a storage with the same values, which can be modified independently of this one
+     */
+    public abstract BaseStorage copy();
 }
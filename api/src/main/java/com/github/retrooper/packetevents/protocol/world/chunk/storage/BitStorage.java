@@ -130,6 +130,11 @@ public class BitStorage extends BaseStorage {
         this.data[cellIndex] = this.data[cellIndex] & ~(this.maxValue << bitIndex) | ((long) value & this.maxValue) << bitIndex;
     }
 
+    @Override
+    public BitStorage copy() {
+        return new BitStorage(this.bitsPerEntry, this.size, this.data.clone());
+    }
+
     private int cellIndex(int index) {
         return (int) (index * this.divideMultiply + this.divideAdd >> 32 >> this.divideShift);
     }
@@ -103,4 +103,10 @@ public class LegacyFlexibleStorage extends BaseStorage {
     public long getMaxEntryValue() {
         return maxEntryValue;
     }
+
+    @Override
+    public LegacyFlexibleStorage copy() {
+        // the constructor copies the data
+        return new LegacyFlexibleStorage(this.bitsPerEntry, this.data);
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.states;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BitStorage;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Translates global block ids from one version into another with a single array lookup per id.
+ * <p>
+ * The same as looking up the {@link WrappedBlockState} of an id in the source version and its id in the target version,
+ * states which don't exist in the target version become the default state of their type (or air).
+ * Ids unknown in the source version become air.
+ * <p>
+ * Tables are built on first use for every pair of versions with different block mappings,
+ * versions sharing their mappings don't need a table at all.
+ */
+public final class BlockStateRemapper {
+    private static final int MAPPING_COUNT = WrappedBlockState.getMappingCount();
+    //Indexed by source mapping index * MAPPING_COUNT + target mapping index
+    private static final AtomicReferenceArray<BlockStateRemapper> REMAPPERS =
+            new AtomicReferenceArray<>(MAPPING_COUNT * MAPPING_COUNT);
+
+    // null if both versions share their mappings
+    private final int[] table;
+    // bits per entry of the global palette of the target version
+    private final int globalBitsPerEntry;
+
+    private BlockStateRemapper(int[] table, int globalBitsPerEntry) {
+        this.table = table;
+        this.globalBitsPerEntry = globalBitsPerEntry;
+    }
+
+    /**
+     * @param from The version the ids are in
+     * @param to   The version to translate the ids into
+     * @return The remapper, whose table is built the first time it is requested
+     */
+    public static BlockStateRemapper get(ClientVersion from, ClientVersion to) {
+        byte fromIndex = WrappedBlockState.getMappingsIndex(from);
+        byte toIndex = WrappedBlockState.getMappingsIndex(to);
+        int slot = fromIndex * MAPPING_COUNT + toIndex;
+        BlockStateRemapper remapper = REMAPPERS.get(slot);
+        if (remapper == null) {
+            remapper = new BlockStateRemapper(fromIndex == toIndex ? null
+                    : WrappedBlockState.createRemapTable(fromIndex, toIndex),
+                    WrappedBlockState.getGlobalBitsPerEntry(toIndex));
+            if (!REMAPPERS.compareAndSet(slot, null, remapper)) {
+                remapper = REMAPPERS.get(slot);
+            }
+        }
+        return remapper;
+    }
+
+    /**
+     * @return The bits per entry clients of the target version read for sections using the global palette,
+     * the amount of bits needed for the highest global id of the version
+     */
+    public int getGlobalBitsPerEntry() {
+        return this.globalBitsPerEntry;
+    }
+
+    /**
+     * @return Whether both versions share their block mappings, so ids don't change
+     */
+    public boolean isIdentity() {
+        return this.table == null;
+    }
+
+    public int remap(int globalId) {
+        int[] table = this.table;
+        if (table == null) {
+            return globalId;
+        }
+        return globalId >= 0 && globalId < table.length ? table[globalId] : 0;
+    }
+
+    /**
+     * Translates all ids of the array in place.
+     */
+    public void remap(int[] globalIds) {
+        if (this.table == null) {
+            return;
+        }
+        for (int i = 0; i < globalIds.length; i++) {
+            globalIds[i] = this.remap(globalIds[i]);
+        }
+    }
+
+    /**
+     * Translates all states of the palette, usually only touching the palette entries and not the storage.
+     * A storage of the global palette is resized to the bits per entry of the target version.
+     */
+    public void remap(DataPalette palette) {
+        if (this.table != null) {
+            palette.remap(this::remap, this.globalBitsPerEntry);
+        }
+    }
+
+    /**
+     * Translates a storage which contains global ids directly (a storage of the global palette).
+     *
+     * @return The translated storage, a new one if the target version needs another amount of bits per entry
+     */
+    public BitStorage remap(BitStorage storage) {
+        if (this.table == null) {
+            return storage;
+        }
+        int size = storage.getSize();
+        BitStorage target = storage.getBitsPerEntry() == this.globalBitsPerEntry
+                ? storage : new BitStorage(this.globalBitsPerEntry, size);
+        for (int i = 0; i < size; i++) {
+            target.set(i, this.remap(storage.get(i)));
+        }
+        return target;
+    }
+}
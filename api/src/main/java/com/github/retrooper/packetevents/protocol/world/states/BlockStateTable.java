@@ -0,0 +1,256 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.states;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateType;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateValue;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An immutable view of the block states of a version, where a state is just its global id.
+ * <p>
+ * Like the state table of vanilla, every block type has a property layout and its states are indexed by
+ * the combination of their property values, so reading a property or changing it with
+ * {@link #with(int, StateValue, Object)} is an array lookup and never allocates.
+ * Use this instead of {@link WrappedBlockState} where block states are queried very frequently.
+ * <p>
+ * Tables are built on first use for every set of block mappings.
+ */
+public final class BlockStateTable {
+    private static final AtomicReferenceArray<BlockStateTable> TABLES =
+            new AtomicReferenceArray<>(WrappedBlockState.getMappingCount());
+    // types with more combinations than this (only possible with malformed mappings) get no layout
+    private static final int MAX_COMBINATIONS = 1 << 16;
+
+    private final ClientVersion version;
+    // indexed by global id, null for unknown ids
+    private final Layout[] layouts;
+    // indexed by global id, the index of the state within the layout of its type
+    private final int[] combinations;
+    private final Map<StateType, Integer> defaultStates;
+
+    private BlockStateTable(ClientVersion version, Map<Integer, WrappedBlockState> statesById,
+                            Map<StateType, WrappedBlockState> defaultStates) {
+        this.version = version;
+        int maxId = 0;
+        Map<StateType, List<WrappedBlockState>> statesByType = new HashMap<>();
+        for (WrappedBlockState state : statesById.values()) {
+            maxId = Math.max(maxId, state.globalID);
+            statesByType.computeIfAbsent(state.type, type -> new ArrayList<>()).add(state);
+        }
+        this.layouts = new Layout[maxId + 1];
+        this.combinations = new int[maxId + 1];
+        for (Map.Entry<StateType, List<WrappedBlockState>> entry : statesByType.entrySet()) {
+            Layout layout = Layout.create(entry.getKey(), entry.getValue());
+            if (layout == null) {
+                continue;
+            }
+            for (WrappedBlockState state : entry.getValue()) {
+                int combination = layout.combinationOf(state.data);
+                // the first id of a combination wins, the same as for string lookups of legacy states
+                if (layout.globalIds[combination] == -1) {
+                    layout.globalIds[combination] = state.globalID;
+                }
+                this.layouts[state.globalID] = layout;
+                this.combinations[state.globalID] = combination;
+            }
+        }
+        this.defaultStates = new HashMap<>(defaultStates.size());
+        for (Map.Entry<StateType, WrappedBlockState> entry : defaultStates.entrySet()) {
+            this.defaultStates.put(entry.getKey(), entry.getValue().globalID);
+        }
+    }
+
+    /**
+     * @param version The version to get the block states of
+     * @return The table, which is built the first time the block mappings of the version are requested
+     */
+    public static BlockStateTable get(ClientVersion version) {
+        byte mappingsIndex = WrappedBlockState.getMappingsIndex(version);
+        BlockStateTable table = TABLES.get(mappingsIndex);
+        if (table == null) {
+            table = new BlockStateTable(version, WrappedBlockState.getStatesById(mappingsIndex),
+                    WrappedBlockState.getDefaultStates(mappingsIndex));
+            if (!TABLES.compareAndSet(mappingsIndex, null, table)) {
+                table = TABLES.get(mappingsIndex);
+            }
+        }
+        return table;
+    }
+
+    private @Nullable Layout layout(int globalId) {
+        return globalId >= 0 && globalId < this.layouts.length ? this.layouts[globalId] : null;
+    }
+
+    public boolean isValid(int globalId) {
+        return this.layout(globalId) != null;
+    }
+
+    /**
+     * @return The type of the state, or null if the id is unknown
+     */
+    public @Nullable StateType getType(int globalId) {
+        Layout layout = this.layout(globalId);
+        return layout == null ? null : layout.type;
+    }
+
+    /**
+     * @return The global id of the default state of the type, or -1 if the type doesn't exist in this version
+     */
+    public int getDefaultState(StateType type) {
+        return this.defaultStates.getOrDefault(type, -1);
+    }
+
+    /**
+     * @return Whether the state has the property
+     */
+    public boolean has(int globalId, StateValue property) {
+        Layout layout = this.layout(globalId);
+        return layout != null && layout.propertyIndexes[property.ordinal()] != -1;
+    }
+
+    /**
+     * @return The value of the property, or null if the state doesn't have the property
+     */
+    public @Nullable Object get(int globalId, StateValue property) {
+        Layout layout = this.layout(globalId);
+        if (layout == null) {
+            return null;
+        }
+        int propertyIndex = layout.propertyIndexes[property.ordinal()];
+        if (propertyIndex == -1) {
+            return null;
+        }
+        Object[] values = layout.values[propertyIndex];
+        return values[this.combinations[globalId] / layout.strides[propertyIndex] % values.length];
+    }
+
+    /**
+     * @return The global id of the state with the property changed to the value,
+     * or -1 if the state doesn't have the property or the value isn't possible for it
+     */
+    public int with(int globalId, StateValue property, Object value) {
+        Layout layout = this.layout(globalId);
+        if (layout == null) {
+            return -1;
+        }
+        int propertyIndex = layout.propertyIndexes[property.ordinal()];
+        if (propertyIndex == -1) {
+            return -1;
+        }
+        Object[] values = layout.values[propertyIndex];
+        int valueIndex = indexOf(values, value);
+        if (valueIndex == -1) {
+            return -1;
+        }
+        int stride = layout.strides[propertyIndex];
+        int combination = this.combinations[globalId];
+        int oldValueIndex = combination / stride % values.length;
+        return layout.globalIds[combination + (valueIndex - oldValueIndex) * stride];
+    }
+
+    /**
+     * @return The state as a {@link WrappedBlockState}, for APIs which require it
+     */
+    public WrappedBlockState toWrapped(int globalId) {
+        return WrappedBlockState.getByGlobalId(this.version, globalId);
+    }
+
+    private static int indexOf(Object[] values, Object value) {
+        for (int i = 0; i < values.length; i++) {
+            if (Objects.equals(values[i], value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // the properties of a block type, in the order of their ordinal, with the last property varying fastest
+    private static final class Layout {
+        private final StateType type;
+        private final StateValue[] properties;
+        // indexed by property ordinal, -1 for properties of other types
+        private final int[] propertyIndexes;
+        // the possible values of every property, null if a state doesn't have the property at all
+        private final Object[][] values;
+        private final int[] strides;
+        // indexed by combination, -1 for combinations which aren't a valid state
+        private final int[] globalIds;
+
+        private Layout(StateType type, StateValue[] properties, Object[][] values, int combinations) {
+            this.type = type;
+            this.properties = properties;
+            this.values = values;
+            this.propertyIndexes = new int[StateValue.values().length];
+            Arrays.fill(this.propertyIndexes, -1);
+            this.strides = new int[properties.length];
+            int stride = 1;
+            for (int i = properties.length - 1; i >= 0; i--) {
+                this.propertyIndexes[properties[i].ordinal()] = i;
+                this.strides[i] = stride;
+                stride *= values[i].length;
+            }
+            this.globalIds = new int[combinations];
+            Arrays.fill(this.globalIds, -1);
+        }
+
+        static @Nullable Layout create(StateType type, List<WrappedBlockState> states) {
+            EnumSet<StateValue> propertySet = EnumSet.noneOf(StateValue.class);
+            for (WrappedBlockState state : states) {
+                propertySet.addAll(state.data.keySet());
+            }
+            StateValue[] properties = propertySet.toArray(new StateValue[0]);
+            Object[][] values = new Object[properties.length][];
+            long combinations = 1L;
+            for (int i = 0; i < properties.length; i++) {
+                List<Object> propertyValues = new ArrayList<>();
+                for (WrappedBlockState state : states) {
+                    Object value = state.data.get(properties[i]);
+                    if (!propertyValues.contains(value)) {
+                        propertyValues.add(value);
+                    }
+                }
+                values[i] = propertyValues.toArray();
+                combinations *= values[i].length;
+                if (combinations > MAX_COMBINATIONS) {
+                    return null;
+                }
+            }
+            return new Layout(type, properties, values, (int) combinations);
+        }
+
+        int combinationOf(Map<StateValue, Object> data) {
+            int combination = 0;
+            for (int i = 0; i < this.properties.length; i++) {
+                combination += indexOf(this.values[i], data.get(this.properties[i])) * this.strides[i];
+            }
+            return combination;
+        }
+    }
+}
@@ -52,6 +52,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.github.retrooper.packetevents.util.adventure.AdventureIndexUtil.indexValueOrThrow;
 
@@ -70,6 +71,7 @@ public class WrappedBlockState {
 
     private static final byte[] MAPPING_INDEXES;
     private static final byte LEGACY_MAPPING_INDEX = 0;
+    private static final int MAPPING_COUNT;
 
     static {
         // all versions where block state mappings were changed TODO UPDATE
@@ -91,37 +93,17 @@ public class WrappedBlockState {
             }
             MAPPING_INDEXES[version.ordinal()] = (byte) (LEGACY_MAPPING_INDEX + j);
         }
+        MAPPING_COUNT = LEGACY_MAPPING_INDEX + mappingSteps.length + 1;
     }
 
     private static final WrappedBlockState AIR = new WrappedBlockState(StateTypes.AIR, new EnumMap<>(StateValue.class), 0, (byte) 0);
-    private static final Map<Byte, Map<String, WrappedBlockState>> BY_STRING = new HashMap<>();
-    private static final Map<Byte, Map<Integer, WrappedBlockState>> BY_ID = new HashMap<>();
-    private static final Map<Byte, Map<WrappedBlockState, String>> INTO_STRING = new HashMap<>();
-    private static final Map<Byte, Map<WrappedBlockState, Integer>> INTO_ID = new HashMap<>();
-    private static final Map<Byte, Map<StateType, WrappedBlockState>> DEFAULT_STATES = new HashMap<>();
+    // Indexed by mapping index, every index is only loaded once a version using it is looked up
+    private static final AtomicReferenceArray<Mappings> MAPPINGS = new AtomicReferenceArray<>(MAPPING_COUNT);
 
     private static final Map<String, String> STRING_UPDATER = new HashMap<>();
 
     static {
         STRING_UPDATER.put("grass_path", "dirt_path"); // 1.16 -> 1.17
-
-        // Try to reduce memory footprint by re-using hashmaps when they are equal
-        // We do this by setting the key to the NBTCompound of the data and the value to the data
-        // this.data = cache.computeIfAbsent(dataContent, (key) -> { // NBTCompound to data });
-        // This will get an equal value if present, otherwise it will compute the value
-        // Once this is done, we remove this cache to save memory
-        // A HashMap is used instead of another data type because a hashmap is o(1)
-        //
-        // 6160 total combinations, last updated with 1.20.5
-        // This brings total memory usage from 62 MB to 34 MB, a 28 MB reduction
-        // Using a HashMap reduces memory usage to less than a megabyte, I can't get precise numbers because it is hard to see on a heapdump
-        Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache = new HashMap<>(6160, 70);
-
-        loadLegacy(cache);
-        loadModern(cache);
-
-        cache.clear();
-        cache = null;
     }
 
     int globalID;
@@ -242,7 +224,7 @@ public class WrappedBlockState {
     public static WrappedBlockState getByGlobalId(ClientVersion version, int globalID, boolean clone) {
         if (globalID == 0) return AIR; // Hardcode for performance
         byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_ID.get(mappingsIndex).getOrDefault(globalID, AIR);
+        final WrappedBlockState state = getMappings(mappingsIndex).byId.getOrDefault(globalID, AIR);
         return clone ? state.clone() : state;
     }
 
@@ -259,7 +241,7 @@ public class WrappedBlockState {
     @NotNull
     public static WrappedBlockState getByString(ClientVersion version, String string, boolean clone) {
         byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_STRING.get(mappingsIndex).getOrDefault(string.replace("minecraft:", ""), AIR);
+        final WrappedBlockState state = getMappings(mappingsIndex).byString.getOrDefault(string.replace("minecraft:", ""), AIR);
         return clone ? state.clone() : state;
     }
 
@@ -277,7 +259,7 @@ public class WrappedBlockState {
     public static WrappedBlockState getDefaultState(ClientVersion version, StateType type, boolean clone) {
         if (type == StateTypes.AIR) return AIR;
         byte mappingsIndex = getMappingsIndex(version);
-        WrappedBlockState state = DEFAULT_STATES.get(mappingsIndex).get(type);
+        WrappedBlockState state = getMappings(mappingsIndex).defaultStates.get(type);
         if (state == null) {
             PacketEvents.getAPI().getLogger().config("Default state for " + type.getName() + " is null. Returning AIR");
             return AIR;
@@ -285,11 +267,108 @@ public class WrappedBlockState {
         return clone ? state.clone() : state;
     }
 
-    private static byte getMappingsIndex(ClientVersion version) {
+    static byte getMappingsIndex(ClientVersion version) {
         return MAPPING_INDEXES[version.ordinal()];
     }
 
-    private static void loadLegacy(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache) {
+    static int getMappingCount() {
+        return MAPPING_COUNT;
+    }
+
+    /**
+     * @return The bits needed for the highest global id of the mappings, as read by clients using the global palette
+     */
+    static int getGlobalBitsPerEntry(byte mappingsIndex) {
+        int maxId = 0;
+        for (int id : getMappings(mappingsIndex).byId.keySet()) {
+            maxId = Math.max(maxId, id);
+        }
+        return 32 - Integer.numberOfLeadingZeros(maxId);
+    }
+
+    static Map<Integer, WrappedBlockState> getStatesById(byte mappingsIndex) {
+        return getMappings(mappingsIndex).byId;
+    }
+
+    static Map<StateType, WrappedBlockState> getDefaultStates(byte mappingsIndex) {
+        return getMappings(mappingsIndex).defaultStates;
+    }
+
+    /**
+     * Creates a table with the global id in the target mappings at the index of every global id in the source mappings.
+     * States which don't exist in the target mappings are replaced with the default state of their type, or air.
+     */
+    static int[] createRemapTable(byte sourceIndex, byte targetIndex) {
+        Mappings source = getMappings(sourceIndex);
+        Mappings target = getMappings(targetIndex);
+        int maxId = 0;
+        for (int id : source.byId.keySet()) {
+            maxId = Math.max(maxId, id);
+        }
+        int[] table = new int[maxId + 1];
+        for (Map.Entry<Integer, WrappedBlockState> entry : source.byId.entrySet()) {
+            WrappedBlockState state = entry.getValue();
+            Integer id = target.intoId.get(state);
+            if (id == null) {
+                WrappedBlockState defaultState = target.defaultStates.get(state.type);
+                id = defaultState == null ? 0 : defaultState.globalID;
+            }
+            table[entry.getKey()] = id;
+        }
+        return table;
+    }
+
+    private static Mappings getMappings(byte mappingsIndex) {
+        Mappings mappings = MAPPINGS.get(mappingsIndex);
+        if (mappings == null) {
+            loadMappings(mappingsIndex);
+            mappings = MAPPINGS.get(mappingsIndex);
+        }
+        return mappings;
+    }
+
+    // loads the mappings of the indexes which aren't loaded yet, all modern ones in a single pass over their file
+    private static synchronized void loadMappings(byte... mappingsIndexes) {
+        boolean legacy = false;
+        boolean[] modern = new boolean[MAPPING_COUNT];
+        int modernCount = 0;
+        for (byte mappingsIndex : mappingsIndexes) {
+            if (MAPPINGS.get(mappingsIndex) != null) {
+                continue;
+            }
+            if (mappingsIndex == LEGACY_MAPPING_INDEX) {
+                legacy = true;
+            } else if (!modern[mappingsIndex]) {
+                modern[mappingsIndex] = true;
+                modernCount++;
+            }
+        }
+        if (!legacy && modernCount == 0) {
+            return;
+        }
+
+        // Try to reduce memory footprint by re-using hashmaps when they are equal
+        // We do this by setting the key to the NBTCompound of the data and the value to the data
+        // this.data = cache.computeIfAbsent(dataContent, (key) -> { // NBTCompound to data });
+        // This will get an equal value if present, otherwise it will compute the value
+        // A HashMap is used instead of another data type because a hashmap is o(1)
+        // The cache is shared by all mapping indexes loaded together and dropped afterwards,
+        // so the decoded compounds aren't kept around
+        //
+        // 6160 total combinations, last updated with 1.20.5
+        // When all versions are loaded together (ensureLoad), this brings total memory usage
+        // from 62 MB to 34 MB, a 28 MB reduction
+        // Using a HashMap reduces memory usage to less than a megabyte, I can't get precise numbers because it is hard to see on a heapdump
+        Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache = new HashMap<>(6160, 70);
+        if (legacy) {
+            MAPPINGS.set(LEGACY_MAPPING_INDEX, loadLegacy(cache));
+        }
+        if (modernCount != 0) {
+            loadModern(cache, modern, modernCount);
+        }
+    }
+
+    private static Mappings loadLegacy(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache) {
         Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
         Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
         Map<String, WrappedBlockState> stateByStringMap = new HashMap<>();
@@ -380,24 +459,25 @@ public class WrappedBlockState {
                 }
             }
 
-            BY_ID.put(LEGACY_MAPPING_INDEX, stateByIdMap);
-            INTO_ID.put(LEGACY_MAPPING_INDEX, stateToIdMap);
-            BY_STRING.put(LEGACY_MAPPING_INDEX, stateByStringMap);
-            INTO_STRING.put(LEGACY_MAPPING_INDEX, stateToStringMap);
-            DEFAULT_STATES.put(LEGACY_MAPPING_INDEX, stateTypeToBlockStateMap);
+            return new Mappings(stateByIdMap, stateToIdMap, stateByStringMap, stateToStringMap, stateTypeToBlockStateMap);
         } catch (IOException e) {
             throw new RuntimeException("Failed to load legacy block mappings", e);
         }
     }
 
-    private static void loadModern(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache) {
+    private static void loadModern(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache,
+                                   boolean[] mappingIndexes, int remaining) {
         try (final SequentialNBTReader.Compound compound = MappingHelper.decompress("mappings/block/modern_block_mappings")) {
             compound.skipOne(); // Skip version
 
             for (Map.Entry<String, NBT> versionEntry : compound) {
                 ClientVersion version = ClientVersion.valueOf(versionEntry.getKey());
-                byte mappingIndex = getMappingsIndex(version);
                 SequentialNBTReader.List list = (SequentialNBTReader.List) versionEntry.getValue();
+                byte mappingIndex = getMappingsIndex(version);
+                if (!mappingIndexes[mappingIndex]) {
+                    list.skip();
+                    continue;
+                }
 
                 Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
                 Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
@@ -502,15 +582,21 @@ public class WrappedBlockState {
                     }
                 }
 
-                BY_ID.put(mappingIndex, stateByIdMap);
-                INTO_ID.put(mappingIndex, stateToIdMap);
-                BY_STRING.put(mappingIndex, stateByStringMap);
-                INTO_STRING.put(mappingIndex, stateToStringMap);
-                DEFAULT_STATES.put(mappingIndex, stateTypeToBlockStateMap);
+                MAPPINGS.set(mappingIndex, new Mappings(stateByIdMap, stateToIdMap, stateByStringMap, stateToStringMap, stateTypeToBlockStateMap));
+                mappingIndexes[mappingIndex] = false;
+                if (--remaining == 0) {
+                    // the versions after the last requested one don't have to be read
+                    return;
+                }
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed to load modern block mappings", e);
         }
+        for (int mappingIndex = 0; mappingIndex < mappingIndexes.length; mappingIndex++) {
+            if (mappingIndexes[mappingIndex]) {
+                throw new IllegalStateException("No modern block mappings for mapping index " + mappingIndex);
+            }
+        }
     }
 
     @Override
@@ -1451,7 +1537,7 @@ public class WrappedBlockState {
         int oldGlobalID = globalID;
         globalID = getGlobalIdNoCache();
         if (globalID == -1) { // -1 maps to no block as negative ID are impossible
-            WrappedBlockState blockState = BY_ID.get(mappingsIndex).getOrDefault(oldGlobalID, AIR).clone();
+            WrappedBlockState blockState = getMappings(mappingsIndex).byId.getOrDefault(oldGlobalID, AIR).clone();
             this.type = blockState.type;
             this.globalID = blockState.globalID;
             this.data = new HashMap<>(blockState.data);
@@ -1495,13 +1581,57 @@ public class WrappedBlockState {
      * Internal method for determining if the block state is still valid
      */
     private int getGlobalIdNoCache() {
-        return INTO_ID.get(mappingsIndex).getOrDefault(this, -1);
+        return getMappings(mappingsIndex).intoId.getOrDefault(this, -1);
     }
 
     @Override
     public String toString() {
-        return INTO_STRING.get(mappingsIndex).get(this);
+        return getMappings(mappingsIndex).intoString.get(this);
     }
 
-    public static void ensureLoad() { /**/ }
+    /**
+     * Loads the block state mappings of all versions now instead of on first use.
+     *
+     * @see #ensureLoad(ClientVersion...)
+     */
+    public static void ensureLoad() {
+        byte[] mappingsIndexes = new byte[MAPPING_COUNT];
+        for (byte mappingsIndex = 0; mappingsIndex < MAPPING_COUNT; mappingsIndex++) {
+            mappingsIndexes[mappingsIndex] = mappingsIndex;
+        }
+        loadMappings(mappingsIndexes);
+    }
+
+    /**
+     * Loads the block state mappings of the specified versions now instead of on first use,
+     * so the first block packets of these versions don't have to wait for them.
+     *
+     * @param versions The versions to load the mappings of
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#preloadBlockStates(ClientVersion...)
+     */
+    public static void ensureLoad(ClientVersion... versions) {
+        byte[] mappingsIndexes = new byte[versions.length];
+        for (int i = 0; i < versions.length; i++) {
+            mappingsIndexes[i] = getMappingsIndex(versions[i]);
+        }
+        loadMappings(mappingsIndexes);
+    }
+
+    private static final class Mappings {
+        private final Map<Integer, WrappedBlockState> byId;
+        private final Map<WrappedBlockState, Integer> intoId;
+        private final Map<String, WrappedBlockState> byString;
+        private final Map<WrappedBlockState, String> intoString;
+        private final Map<StateType, WrappedBlockState> defaultStates;
+
+        private Mappings(Map<Integer, WrappedBlockState> byId, Map<WrappedBlockState, Integer> intoId,
+                         Map<String, WrappedBlockState> byString, Map<WrappedBlockState, String> intoString,
+                         Map<StateType, WrappedBlockState> defaultStates) {
+            this.byId = byId;
+            this.intoId = intoId;
+            this.byString = byString;
+            this.intoString = intoString;
+            this.defaultStates = defaultStates;
+        }
+    }
 }
@@ -18,6 +18,9 @@
 
 package com.github.retrooper.packetevents.settings;
 
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.AsyncOverflowPolicy;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.util.TimeStampMode;
 import org.jetbrains.annotations.ApiStatus;
 
@@ -40,6 +43,19 @@ public class PacketEventsSettings {
     private boolean fullStackTraceEnabled = false;
     private boolean kickOnPacketExceptionEnabled = true;
     private boolean kickIfTerminated = true;
+    private boolean entityTrackingEnabled = false;
+    private boolean chunkCacheEnabled = false;
+    private boolean inPlacePatchingEnabled = false;
+    private int asyncListenerThreads = 1;
+    private int asyncListenerQueueCapacity = 8192;
+    private AsyncOverflowPolicy asyncListenerOverflowPolicy = AsyncOverflowPolicy.DROP_NEWEST;
+    private boolean listenerMetricsEnabled = false;
+    private int listenerMetricsReportInterval = 300;
+    private int listenerMetricsReportLimit = 10;
+    private boolean packetTrafficStatsEnabled = false;
+    // null to load the mappings of the server version
+    private ClientVersion[] preloadedBlockStates = null;
+    private boolean mappingWarmupEnabled = false;
     private Function<String, InputStream> resourceProvider = path -> PacketEventsSettings.class
             .getClassLoader()
             .getResourceAsStream(path);
@@ -152,6 +168,167 @@ public class PacketEventsSettings {
         return this;
     }
 
+    /**
+     * This decides if PacketEvents should track the entities spawned for every user.
+     * The tracked entities can be queried with {@link com.github.retrooper.packetevents.protocol.player.User#getEntityTracker()}.
+     *
+     * @param entityTrackingEnabled Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings entityTracking(boolean entityTrackingEnabled) {
+        this.entityTrackingEnabled = entityTrackingEnabled;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should cache the chunks sent to every user.
+     * The cached chunks can be queried with {@link com.github.retrooper.packetevents.protocol.player.User#getChunkCache()}.
+     *
+     * @param chunkCacheEnabled Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings chunkCache(boolean chunkCacheEnabled) {
+        this.chunkCacheEnabled = chunkCacheEnabled;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should count the packets and bytes of every packet type per user.
+     * The counters can be queried with {@link com.github.retrooper.packetevents.protocol.player.User#getPacketTraffic()}
+     * and {@link com.github.retrooper.packetevents.protocol.packettype.PacketTraffic#getGlobal()}.
+     *
+     * @param packetTrafficStatsEnabled Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings packetTrafficStats(boolean packetTrafficStatsEnabled) {
+        this.packetTrafficStatsEnabled = packetTrafficStatsEnabled;
+        return this;
+    }
+
+    /**
+     * This decides which versions PacketEvents should load the block state mappings of while loading.
+     * The mappings of all other versions are loaded the first time a block state of the version is looked up.
+     * By default, only the mappings of the server version are loaded.
+     *
+     * @param preloadedBlockStates Value
+     * @return Settings instance.
+     * @see com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState#ensureLoad(ClientVersion...)
+     */
+    public PacketEventsSettings preloadBlockStates(ClientVersion... preloadedBlockStates) {
+        this.preloadedBlockStates = preloadedBlockStates.clone();
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should initialize all registries in the background while initializing,
+     * instead of when they are first used by a packet.
+     * The block state mappings of the server version and of the versions set with
+     * {@link #preloadBlockStates(ClientVersion...)} are loaded as well.
+     *
+     * @param mappingWarmupEnabled Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings mappingWarmup(boolean mappingWarmupEnabled) {
+        this.mappingWarmupEnabled = mappingWarmupEnabled;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should trust wrappers which write their changes directly into the packet.
+     * Packets last read by such a wrapper are only re-encoded if a change couldn't be written in place,
+     * even if a listener marked the packet for re-encoding.
+     *
+     * @param inPlacePatchingEnabled Value
+     * @return Settings instance.
+     * @see com.github.retrooper.packetevents.wrapper.PacketWrapper#isPatchable()
+     */
+    public PacketEventsSettings inPlacePatching(boolean inPlacePatchingEnabled) {
+        this.inPlacePatchingEnabled = inPlacePatchingEnabled;
+        return this;
+    }
+
+    /**
+     * This decides how many threads PacketEvents should use to call asynchronous listeners.
+     * With a single thread, the packets are passed to the asynchronous listeners in the order they have been processed.
+     *
+     * @param asyncListenerThreads Value
+     * @return Settings instance.
+     * @see com.github.retrooper.packetevents.event.PacketListenerCommon#setAsync(boolean)
+     */
+    public PacketEventsSettings asyncListenerThreads(int asyncListenerThreads) {
+        if (asyncListenerThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is required for async listeners");
+        }
+        this.asyncListenerThreads = asyncListenerThreads;
+        return this;
+    }
+
+    /**
+     * This decides how many packets may wait for the asynchronous listeners at once.
+     *
+     * @param asyncListenerQueueCapacity Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings asyncListenerQueueCapacity(int asyncListenerQueueCapacity) {
+        if (asyncListenerQueueCapacity < 1) {
+            throw new IllegalArgumentException("The async listener queue capacity has to be positive");
+        }
+        this.asyncListenerQueueCapacity = asyncListenerQueueCapacity;
+        return this;
+    }
+
+    /**
+     * This decides what PacketEvents should do with packets if the queue of the asynchronous listeners is full.
+     *
+     * @param asyncListenerOverflowPolicy Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings asyncListenerOverflowPolicy(AsyncOverflowPolicy asyncListenerOverflowPolicy) {
+        this.asyncListenerOverflowPolicy = asyncListenerOverflowPolicy;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should record how often and how long every listener is called per packet type.
+     * While this is disabled, listeners aren't timed at all.
+     *
+     * @param listenerMetricsEnabled Value
+     * @return Settings instance.
+     * @see com.github.retrooper.packetevents.event.EventManager#getListenerMetrics()
+     */
+    public PacketEventsSettings listenerMetrics(boolean listenerMetricsEnabled) {
+        this.listenerMetricsEnabled = listenerMetricsEnabled;
+        return this;
+    }
+
+    /**
+     * This decides how often (in seconds) PacketEvents should log the slowest listeners, 0 to never log them.
+     *
+     * @param listenerMetricsReportInterval Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings listenerMetricsReportInterval(int listenerMetricsReportInterval) {
+        if (listenerMetricsReportInterval < 0) {
+            throw new IllegalArgumentException("The listener metrics report interval can't be negative");
+        }
+        this.listenerMetricsReportInterval = listenerMetricsReportInterval;
+        return this;
+    }
+
+    /**
+     * This decides how many of the slowest listeners PacketEvents should log in every report.
+     *
+     * @param listenerMetricsReportLimit Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings listenerMetricsReportLimit(int listenerMetricsReportLimit) {
+        if (listenerMetricsReportLimit < 1) {
+            throw new IllegalArgumentException("The listener metrics report limit has to be positive");
+        }
+        this.listenerMetricsReportLimit = listenerMetricsReportLimit;
+        return this;
+    }
+
     /**
      * Some projects may want to implement a CDN with resources like asset mappings
      * By default, all resources are retrieved from the ClassLoader
@@ -241,6 +418,117 @@ public class PacketEventsSettings {
         return kickIfTerminated;
     }
 
+    /**
+     * Should packetevents track the entities spawned for every user?
+     *
+     * @return Getter for {@link #entityTrackingEnabled}
+     */
+    public boolean isEntityTrackingEnabled() {
+        return entityTrackingEnabled;
+    }
+
+    /**
+     * Should packetevents cache the chunks sent to every user?
+     *
+     * @return Getter for {@link #chunkCacheEnabled}
+     */
+    public boolean isChunkCacheEnabled() {
+        return chunkCacheEnabled;
+    }
+
+    /**
+     * Should packetevents count the packets and bytes of every packet type per user?
+     *
+     * @return Getter for {@link #packetTrafficStatsEnabled}
+     */
+    public boolean isPacketTrafficStatsEnabled() {
+        return packetTrafficStatsEnabled;
+    }
+
+    /**
+     * Which versions should packetevents load the block state mappings of while loading?
+     *
+     * @return Getter for {@link #preloadedBlockStates}, the server version unless specified otherwise
+     */
+    public ClientVersion[] getPreloadedBlockStates() {
+        if (preloadedBlockStates == null) {
+            return new ClientVersion[]{PacketEvents.getAPI().getServerManager().getVersion().toClientVersion()};
+        }
+        return preloadedBlockStates.clone();
+    }
+
+    /**
+     * Should packetevents initialize all registries in the background while loading?
+     *
+     * @return Getter for {@link #mappingWarmupEnabled}
+     */
+    public boolean isMappingWarmupEnabled() {
+        return mappingWarmupEnabled;
+    }
+
+    /**
+     * Should packetevents skip re-encoding packets whose changes have been written in place?
+     *
+     * @return Getter for {@link #inPlacePatchingEnabled}
+     */
+    public boolean isInPlacePatchingEnabled() {
+        return inPlacePatchingEnabled;
+    }
+
+    /**
+     * How many threads should packetevents use to call asynchronous listeners?
+     *
+     * @return Getter for {@link #asyncListenerThreads}
+     */
+    public int getAsyncListenerThreads() {
+        return asyncListenerThreads;
+    }
+
+    /**
+     * How many packets may wait for the asynchronous listeners at once?
+     *
+     * @return Getter for {@link #asyncListenerQueueCapacity}
+     */
+    public int getAsyncListenerQueueCapacity() {
+        return asyncListenerQueueCapacity;
+    }
+
+    /**
+     * What should packetevents do with packets if the queue of the asynchronous listeners is full?
+     *
+     * @return Getter for {@link #asyncListenerOverflowPolicy}
+     */
+    public AsyncOverflowPolicy getAsyncListenerOverflowPolicy() {
+        return asyncListenerOverflowPolicy;
+    }
+
+    /**
+     * Should packetevents record how often and how long every listener is called?
+     *
+     * @return Getter for {@link #listenerMetricsEnabled}
+     */
+    public boolean isListenerMetricsEnabled() {
+        return listenerMetricsEnabled;
+    }
+
+    /**
+     * How often (in seconds) should packetevents log the slowest listeners?
+     *
+     * @return Getter for {@link #listenerMetricsReportInterval}
+     */
+    public int getListenerMetricsReportInterval() {
+        return listenerMetricsReportInterval;
+    }
+
+    /**
+     * How many of the slowest listeners should packetevents log in every report?
+     *
+     * @return Getter for {@link #listenerMetricsReportLimit}
+     */
+    public int getListenerMetricsReportLimit() {
+        return listenerMetricsReportLimit;
+    }
+
     /**
      * As described above, this method retrieves the function that acquires the InputStream
      * of a desired resource by its path.
@@ -19,14 +19,25 @@
 package com.github.retrooper.packetevents.util;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.event.EventManager;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.event.UserDisconnectEvent;
+import com.github.retrooper.packetevents.manager.InternalChunkCacheListener;
+import com.github.retrooper.packetevents.manager.InternalEntityTrackerListener;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
 import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTraffic;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.util.mappings.MappingWarmup;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
@@ -36,6 +47,28 @@ public final class PacketEventsImplHelper {
     private PacketEventsImplHelper() {
     }
 
+    /**
+     * Enables the optional features configured in the settings, has to be called once by every platform on init.
+     *
+     * @param api The packetevents instance which is being initialized
+     */
+    public static void initFeatures(PacketEventsAPI<?> api) {
+        PacketEventsSettings settings = api.getSettings();
+        EventManager eventManager = api.getEventManager();
+        if (settings.isEntityTrackingEnabled()) {
+            eventManager.registerListener(new InternalEntityTrackerListener());
+        }
+        if (settings.isChunkCacheEnabled()) {
+            eventManager.registerListener(new InternalChunkCacheListener());
+        }
+        if (settings.isListenerMetricsEnabled()) {
+            eventManager.enableListenerMetrics();
+        }
+        if (settings.isMappingWarmupEnabled()) {
+            MappingWarmup.start(settings.getPreloadedBlockStates());
+        }
+    }
+
     public static @Nullable ProtocolPacketEvent handlePacket(
             Object channel, User user, Object player, Object buffer,
             boolean autoProtocolTranslation, PacketSide side
@@ -47,6 +80,108 @@ public final class PacketEventsImplHelper {
         }
     }
 
+    /**
+     * Counts the packet contained in the buffer in the traffic statistics if they are enabled
+     * and checks whether any listener is interested in it, reading the packet id only once.
+     * The buffer is left untouched, so if this returns false, it can be passed on
+     * without ever creating an event for it.
+     *
+     * @param user                    The user the packet belongs to
+     * @param buffer                  The packet buffer, starting at the packet id
+     * @param autoProtocolTranslation Whether the packet id is mapped with the server version
+     * @param side                    The side which sent the packet
+     * @return Whether the packet has to be processed
+     * @see #hasPacketListeners(User, Object, boolean, PacketSide)
+     * @see #recordTraffic(User, Object, boolean, PacketSide)
+     */
+    public static boolean preparePacket(User user, Object buffer, boolean autoProtocolTranslation, PacketSide side) {
+        PacketEventsAPI<?> api = PacketEvents.getAPI();
+        boolean trafficStats = api.getSettings().isPacketTrafficStatsEnabled();
+        EventManager eventManager = api.getEventManager();
+        if (!trafficStats && !eventManager.isPacketIdFilterAvailable()) {
+            return true;
+        }
+
+        int packetId = readPacketId(buffer);
+        ConnectionState state = getState(user, side);
+        ClientVersion version = getVersion(user, autoProtocolTranslation);
+        if (trafficStats) {
+            recordTraffic(user, buffer, side, state, version, packetId);
+        }
+        // Let the event creation report malformed packets
+        return packetId < 0 || eventManager.hasPacketListeners(side, state, version, packetId);
+    }
+
+    /**
+     * Checks whether any listener is interested in the packet contained in the buffer.
+     * The buffer is left untouched, so if this returns false, it can be passed on
+     * without ever creating an event for it.
+     *
+     * @param user                    The user the packet belongs to
+     * @param buffer                  The packet buffer, starting at the packet id
+     * @param autoProtocolTranslation Whether the packet id is mapped with the server version
+     * @param side                    The side which sent the packet
+     * @return Whether the packet has to be processed
+     */
+    public static boolean hasPacketListeners(User user, Object buffer, boolean autoProtocolTranslation, PacketSide side) {
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        if (!eventManager.isPacketIdFilterAvailable()) {
+            return true;
+        }
+
+        int packetId = readPacketId(buffer);
+        // Let the event creation report malformed packets
+        return packetId < 0 || eventManager.hasPacketListeners(side, getState(user, side),
+                getVersion(user, autoProtocolTranslation), packetId);
+    }
+
+    /**
+     * Counts the packet contained in the buffer in the traffic statistics of the user and the global ones.
+     * The buffer is left untouched.
+     *
+     * @param user                    The user the packet belongs to
+     * @param buffer                  The packet buffer, starting at the packet id
+     * @param autoProtocolTranslation Whether the packet id is mapped with the server version
+     * @param side                    The side which sent the packet
+     * @see PacketTraffic
+     */
+    public static void recordTraffic(User user, Object buffer, boolean autoProtocolTranslation, PacketSide side) {
+        recordTraffic(user, buffer, side, getState(user, side), getVersion(user, autoProtocolTranslation),
+                readPacketId(buffer));
+    }
+
+    private static void recordTraffic(User user, Object buffer, PacketSide side,
+                                      ConnectionState state, ClientVersion version, int packetId) {
+        PacketTypeCommon packetType = packetId < 0 ? null : PacketType.getById(side, state, version, packetId);
+        int bytes = ByteBufHelper.readableBytes(buffer);
+        user.getPacketTraffic().record(side, state, packetType, bytes);
+        PacketTraffic.getGlobal().record(side, state, packetType, bytes);
+    }
+
+    // Reads the packet id without moving the reader index, -1 if the packet is malformed
+    private static int readPacketId(Object buffer) {
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        try {
+            return ByteBufHelper.readVarInt(buffer);
+        } catch (Exception ex) {
+            return -1;
+        } finally {
+            ByteBufHelper.readerIndex(buffer, readerIndex);
+        }
+    }
+
+    private static ConnectionState getState(User user, PacketSide side) {
+        return side == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
+    }
+
+    // Mirrors the version resolution of the ProtocolPacketEvent constructor
+    private static ClientVersion getVersion(User user, boolean autoProtocolTranslation) {
+        if (autoProtocolTranslation || user.getClientVersion() == null) {
+            return PacketEvents.getAPI().getServerManager().getVersion().toClientVersion();
+        }
+        return user.getClientVersion().toServerVersion().toClientVersion();
+    }
+
     public static @Nullable PacketSendEvent handleClientBoundPacket(
             Object channel, User user, Object player, Object buffer,
             boolean autoProtocolTranslation
@@ -54,6 +189,9 @@ public final class PacketEventsImplHelper {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        if (!preparePacket(user, buffer, autoProtocolTranslation, PacketSide.SERVER)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -61,27 +199,31 @@ public final class PacketEventsImplHelper {
         PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> {
             ByteBufHelper.readerIndex(buffer, processIndex);
         });
-        if (!packetSendEvent.isCancelled()) {
-            //Did they ever use a wrapper?
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                //Rewrite the buffer
-                ByteBufHelper.clear(buffer);
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
+        try {
+            if (!packetSendEvent.isCancelled()) {
+                //Did they ever use a wrapper?
+                if (packetSendEvent.getLastUsedWrapper() != null) {
+                    //Rewrite the buffer
+                    ByteBufHelper.clear(buffer);
+                    packetSendEvent.writeLastUsedWrapper();
+                } else {
+                    //If no wrappers were used, just pass on the original buffer.
+                    //Correct the reader index, basically what the next handler is expecting.
+                    ByteBufHelper.readerIndex(buffer, preProcessIndex);
+                }
             } else {
-                //If no wrappers were used, just pass on the original buffer.
-                //Correct the reader index, basically what the next handler is expecting.
-                ByteBufHelper.readerIndex(buffer, preProcessIndex);
+                //Make the buffer unreadable for the next handlers
+                ByteBufHelper.clear(buffer);
             }
-        } else {
-            //Make the buffer unreadable for the next handlers
-            ByteBufHelper.clear(buffer);
-        }
 
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
+            if (packetSendEvent.hasPostTasks()) {
+                for (Runnable task : packetSendEvent.getPostTasks()) {
+                    task.run();
+                }
             }
+        } finally {
+            // the wrappers can only be reused once they have been written
+            packetSendEvent.releasePooledWrappers();
         }
 
         return packetSendEvent;
@@ -94,6 +236,9 @@ public final class PacketEventsImplHelper {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        if (!preparePacket(user, buffer, autoProtocolTranslation, PacketSide.CLIENT)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -101,26 +246,30 @@ public final class PacketEventsImplHelper {
         PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> {
             ByteBufHelper.readerIndex(buffer, processIndex);
         });
-        if (!packetReceiveEvent.isCancelled()) {
-            //Did they ever use a wrapper?
-            if (packetReceiveEvent.getLastUsedWrapper() != null) {
-                //Rewrite the buffer
-                ByteBufHelper.clear(buffer);
-                packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
-                packetReceiveEvent.getLastUsedWrapper().write();
+        try {
+            if (!packetReceiveEvent.isCancelled()) {
+                //Did they ever use a wrapper?
+                if (packetReceiveEvent.getLastUsedWrapper() != null) {
+                    //Rewrite the buffer
+                    ByteBufHelper.clear(buffer);
+                    packetReceiveEvent.writeLastUsedWrapper();
+                } else {
+                    //If no wrappers were used, just pass on the original buffer.
+                    //Correct the reader index, basically what the next handler is expecting.
+                    ByteBufHelper.readerIndex(buffer, preProcessIndex);
+                }
             } else {
-                //If no wrappers were used, just pass on the original buffer.
-                //Correct the reader index, basically what the next handler is expecting.
-                ByteBufHelper.readerIndex(buffer, preProcessIndex);
+                //Cancelling the packet, lets clear the buffer
+                ByteBufHelper.clear(buffer);
             }
-        } else {
-            //Cancelling the packet, lets clear the buffer
-            ByteBufHelper.clear(buffer);
-        }
-        if (packetReceiveEvent.hasPostTasks()) {
-            for (Runnable task : packetReceiveEvent.getPostTasks()) {
-                task.run();
+            if (packetReceiveEvent.hasPostTasks()) {
+                for (Runnable task : packetReceiveEvent.getPostTasks()) {
+                    task.run();
+                }
             }
+        } finally {
+            // the wrappers can only be reused once they have been written
+            packetReceiveEvent.releasePooledWrappers();
         }
         return packetReceiveEvent;
     }
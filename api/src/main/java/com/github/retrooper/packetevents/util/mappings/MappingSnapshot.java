@@ -0,0 +1,124 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.mappings;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The ids of every version of a mapping file, read from the flat table generated next to the compressed mappings.
+ * Unlike the compressed mappings, no diffs have to be replayed to get the ids of a version.
+ */
+@ApiStatus.Internal
+public final class MappingSnapshot {
+    private static final int MAGIC = 0x50454D53; // PEMS
+    private static final byte FORMAT_VERSION = 1;
+
+    private final ClientVersion[] versions;
+    // the id of the key in every version, -1 if the key doesn't exist in a version
+    private final Map<String, int[]> ids;
+
+    private MappingSnapshot(ClientVersion[] versions, Map<String, int[]> ids) {
+        this.versions = versions;
+        this.ids = ids;
+    }
+
+    /**
+     * @param path The path of the mappings, without the file extension
+     * @return The snapshot, or null if none has been generated for the mappings (or in an unsupported format)
+     */
+    public static @Nullable MappingSnapshot read(String path) {
+        InputStream resource = PacketEvents.getAPI().getSettings().getResourceProvider().apply("assets/" + path + ".bin");
+        if (resource == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(readFully(resource)))) {
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) {
+                return null;
+            }
+            String[] pool = new String[in.readInt()];
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = in.readUTF();
+            }
+            ClientVersion[] versions = new ClientVersion[in.readUnsignedByte()];
+            Map<String, int[]> ids = new HashMap<>(pool.length * 2);
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = ClientVersion.valueOf(in.readUTF());
+                int entries = in.readInt();
+                for (int j = 0; j < entries; j++) {
+                    String key = pool[in.readInt()];
+                    int[] keyIds = ids.get(key);
+                    if (keyIds == null) {
+                        keyIds = new int[versions.length];
+                        Arrays.fill(keyIds, -1);
+                        ids.put(key, keyIds);
+                    }
+                    keyIds[i] = in.readInt();
+                }
+            }
+            return new MappingSnapshot(versions, ids);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to load mapping snapshot " + path, e);
+        }
+    }
+
+    // the whole table is read at once, it's small enough and parsing from memory is much faster
+    private static byte[] readFully(InputStream resource) throws IOException {
+        try (InputStream in = resource) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 8192));
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    public ClientVersion[] getVersions() {
+        return this.versions;
+    }
+
+    /**
+     * @return The keys which exist in at least one version
+     */
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(this.ids.keySet());
+    }
+
+    /**
+     * @return The ids of the key in every version (-1 if absent), or null if the key doesn't exist in any version
+     */
+    public @Nullable int[] getIds(String key) {
+        return this.ids.get(key);
+    }
+}
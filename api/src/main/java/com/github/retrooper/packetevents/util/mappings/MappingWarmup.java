@@ -0,0 +1,199 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.mappings;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.attribute.Attributes;
+import com.github.retrooper.packetevents.protocol.chat.ChatTypes;
+import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
+import com.github.retrooper.packetevents.protocol.component.EnchantEffectComponentTypes;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.protocol.entity.wolfvariant.WolfVariants;
+import com.github.retrooper.packetevents.protocol.item.armormaterial.ArmorMaterials;
+import com.github.retrooper.packetevents.protocol.item.banner.BannerPatterns;
+import com.github.retrooper.packetevents.protocol.item.consumables.ConsumeEffectTypes;
+import com.github.retrooper.packetevents.protocol.item.enchantment.type.EnchantmentTypes;
+import com.github.retrooper.packetevents.protocol.item.instrument.Instruments;
+import com.github.retrooper.packetevents.protocol.item.jukebox.JukeboxSongs;
+import com.github.retrooper.packetevents.protocol.item.mapdecoration.MapDecorationTypes;
+import com.github.retrooper.packetevents.protocol.item.trimmaterial.TrimMaterials;
+import com.github.retrooper.packetevents.protocol.item.trimpattern.TrimPatterns;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.particle.type.ParticleTypes;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.potion.PotionTypes;
+import com.github.retrooper.packetevents.protocol.potion.Potions;
+import com.github.retrooper.packetevents.protocol.recipe.RecipeSerializers;
+import com.github.retrooper.packetevents.protocol.recipe.category.RecipeBookCategories;
+import com.github.retrooper.packetevents.protocol.recipe.display.RecipeDisplayTypes;
+import com.github.retrooper.packetevents.protocol.recipe.display.slot.SlotDisplayTypes;
+import com.github.retrooper.packetevents.protocol.sound.Sounds;
+import com.github.retrooper.packetevents.protocol.stats.Statistics;
+import com.github.retrooper.packetevents.protocol.world.biome.Biomes;
+import com.github.retrooper.packetevents.protocol.world.blockentity.BlockEntityTypes;
+import com.github.retrooper.packetevents.protocol.world.damagetype.DamageTypes;
+import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypes;
+import com.github.retrooper.packetevents.protocol.world.painting.PaintingVariants;
+import com.github.retrooper.packetevents.protocol.world.positionsource.PositionSourceTypes;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Initializes the registries (and with them, their mappings) in parallel,
+ * so the first packets using them don't have to wait for the mappings to be decompressed.
+ * <p>
+ * Registries which use other registries while initializing are initialized one after another on the same thread,
+ * so two threads never wait for each other's class initialization.
+ *
+ * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#mappingWarmup(boolean)
+ */
+@ApiStatus.Internal
+public final class MappingWarmup {
+
+    // every chain is initialized in order, the chains themselves in parallel
+    private static final List<List<Class<?>>> CHAINS = Arrays.asList(
+            Arrays.asList(StateTypes.class, ComponentTypes.class, ItemTypes.class,
+                    ArmorMaterials.class, TrimMaterials.class, TrimPatterns.class),
+            Arrays.asList(Sounds.class, Instruments.class, JukeboxSongs.class),
+            Arrays.asList(Biomes.class, WolfVariants.class),
+            Collections.singletonList(EntityTypes.class),
+            Collections.singletonList(EntityDataTypes.class),
+            Collections.singletonList(ParticleTypes.class),
+            Collections.singletonList(Attributes.class),
+            Collections.singletonList(ChatTypes.class),
+            Collections.singletonList(EnchantEffectComponentTypes.class),
+            Collections.singletonList(BannerPatterns.class),
+            Collections.singletonList(ConsumeEffectTypes.class),
+            Collections.singletonList(EnchantmentTypes.class),
+            Collections.singletonList(MapDecorationTypes.class),
+            Collections.singletonList(PotionTypes.class),
+            Collections.singletonList(Potions.class),
+            Collections.singletonList(RecipeSerializers.class),
+            Collections.singletonList(RecipeBookCategories.class),
+            Collections.singletonList(RecipeDisplayTypes.class),
+            Collections.singletonList(SlotDisplayTypes.class),
+            Collections.singletonList(Statistics.class),
+            Collections.singletonList(BlockEntityTypes.class),
+            Collections.singletonList(DamageTypes.class),
+            Collections.singletonList(DimensionTypes.class),
+            Collections.singletonList(PaintingVariants.class),
+            Collections.singletonList(PositionSourceTypes.class)
+    );
+
+    private MappingWarmup() {
+    }
+
+    /**
+     * Starts initializing all registries and the block state mappings of the given versions in the background.
+     * The block state mappings of the server version are always loaded, as every chunk is read with them.
+     * Once done, the time every registry took is logged.
+     *
+     * @param blockStateVersions The additional versions to load the block state mappings of
+     * @return A future completed with the nanoseconds every registry took to initialize, in initialization order
+     */
+    public static CompletableFuture<Map<String, Long>> start(ClientVersion... blockStateVersions) {
+        ClientVersion[] versions = withServerVersion(blockStateVersions);
+        int parallelism = Math.max(1, Math.min(CHAINS.size(), Runtime.getRuntime().availableProcessors() - 1));
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("packetevents-mapping-warmup-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(CHAINS.size() + 1);
+        for (List<Class<?>> chain : CHAINS) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (Class<?> registry : chain) {
+                    long start = System.nanoTime();
+                    initialize(registry);
+                    timings.put(registry.getSimpleName(), System.nanoTime() - start);
+                }
+            }, pool));
+        }
+        // block states require the state types, which are initialized by the first chain anyway
+        futures.add(futures.get(0).thenRunAsync(() -> {
+            long start = System.nanoTime();
+            WrappedBlockState.ensureLoad(versions);
+            timings.put(WrappedBlockState.class.getSimpleName(), System.nanoTime() - start);
+        }, pool));
+
+        long start = System.nanoTime();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .handle((ignored, throwable) -> {
+                    pool.shutdown();
+                    if (throwable != null) {
+                        PacketEvents.getAPI().getLogger().log(Level.WARNING, "Failed to warm up the mappings", throwable);
+                    } else {
+                        PacketEvents.getAPI().getLogger().info("Warmed up " + timings.size() + " mappings in "
+                                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms " + format(timings));
+                    }
+                    return timings;
+                });
+    }
+
+    private static ClientVersion[] withServerVersion(ClientVersion[] versions) {
+        ClientVersion serverVersion = PacketEvents.getAPI().getServerManager().getVersion().toClientVersion();
+        for (ClientVersion version : versions) {
+            if (version == serverVersion) {
+                return versions;
+            }
+        }
+        ClientVersion[] withServer = Arrays.copyOf(versions, versions.length + 1);
+        withServer[versions.length] = serverVersion;
+        return withServer;
+    }
+
+    private static void initialize(Class<?> registry) {
+        try {
+            Class.forName(registry.getName(), true, registry.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Failed to initialize " + registry.getName(), ex);
+        }
+    }
+
+    private static String format(Map<String, Long> timings) {
+        StringBuilder builder = new StringBuilder("(");
+        synchronized (timings) {
+            for (Map.Entry<String, Long> entry : timings.entrySet()) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(entry.getKey()).append('=')
+                        .append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+            }
+        }
+        return builder.append(')').toString();
+    }
+}
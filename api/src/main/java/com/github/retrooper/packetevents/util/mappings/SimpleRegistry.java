@@ -24,6 +24,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,7 +34,8 @@ public final class SimpleRegistry<T extends MappedEntity> implements IRegistry<T
 
     private final ResourceLocation registryKey;
     private final Map<String, T> typeMap = new HashMap<>();
-    private final Map<Integer, T> typeIdMap = new HashMap<>();
+    // indexed by id, grown while types are defined
+    private Object[] typeIdMap = new Object[0];
     private final Map<String, Integer> reverseTypeIdMap = new HashMap<>();
 
     public SimpleRegistry(String registryKey) {
@@ -53,7 +55,12 @@ public final class SimpleRegistry<T extends MappedEntity> implements IRegistry<T
     public <Z extends T> Z define(ResourceLocation name, int id, Z instance) {
         String nameStr = name.toString();
         this.typeMap.put(nameStr, instance);
-        this.typeIdMap.put(id, instance);
+        if (id >= 0) {
+            if (id >= this.typeIdMap.length) {
+                this.typeIdMap = Arrays.copyOf(this.typeIdMap, Math.max(id + 1, this.typeIdMap.length * 2));
+            }
+            this.typeIdMap[id] = instance;
+        }
         this.reverseTypeIdMap.put(nameStr, id);
         return instance;
     }
@@ -64,8 +71,10 @@ public final class SimpleRegistry<T extends MappedEntity> implements IRegistry<T
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public @Nullable T getById(ClientVersion version, int id) {
-        return this.typeIdMap.get(id);
+        Object[] typeIdMap = this.typeIdMap;
+        return id >= 0 && id < typeIdMap.length ? (T) typeIdMap[id] : null;
     }
 
     @Override
@@ -31,9 +31,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -41,6 +44,8 @@ import java.util.stream.StreamSupport;
 public class TypesBuilder {
     private final String mapPath;
     private Map<ClientVersion, Map<String, Integer>> entries = new HashMap<>();
+    // set instead of the entries if the mappings have been loaded from their snapshot
+    private @Nullable MappingSnapshot snapshot;
     private VersionMapper versionMapper;
 
     @Nullable
@@ -58,6 +63,23 @@ public class TypesBuilder {
     }
 
     public void load() {
+        // the flat snapshot is preferred, it doesn't require replaying the diffs of every version
+        MappingSnapshot snapshot = MappingSnapshot.read("mappings/" + mapPath);
+        if (snapshot != null) {
+            this.snapshot = snapshot;
+            this.versionMapper = new VersionMapper(snapshot.getVersions());
+            return;
+        }
+        this.loadCompressed();
+    }
+
+    /**
+     * Loads the mappings by replaying the diffs of the compressed mappings, even if a snapshot is available.
+     */
+    @ApiStatus.Internal
+    public void loadCompressed() {
+        this.snapshot = null;
+        this.entries = new HashMap<>();
         try (final SequentialNBTReader.Compound compound = MappingHelper.decompress("mappings/" + mapPath)) {
             compound.skipOne(); // skip version tag for now
             int length = ((NBTNumber) compound.next().getValue()).getAsInt(); // Second tag is the length
@@ -153,6 +175,21 @@ public class TypesBuilder {
         return versionMapper.getReversedVersions();
     }
 
+    /**
+     * @return The keys which exist in at least one version, as long as the file mappings are loaded
+     */
+    @ApiStatus.Internal
+    public Set<String> getKeys() {
+        if (snapshot != null) {
+            return snapshot.getKeys();
+        }
+        final Set<String> keys = new HashSet<>();
+        for (Map<String, Integer> map : entries.values()) {
+            keys.addAll(map.keySet());
+        }
+        return keys;
+    }
+
     public int getDataIndex(ClientVersion rawVersion) {
         return versionMapper.getIndex(rawVersion);
     }
@@ -160,10 +197,21 @@ public class TypesBuilder {
     public void unloadFileMappings() {
         entries.clear();
         entries = null;
+        snapshot = null;
     }
 
     public TypesBuilderData define(String key) {
         final ResourceLocation name = new ResourceLocation(key);
+        if (snapshot != null) {
+            final int[] snapshotIds = snapshot.getIds(key);
+            final int[] ids = new int[getVersions().length];
+            if (snapshotIds == null) {
+                Arrays.fill(ids, -1);
+            } else {
+                System.arraycopy(snapshotIds, 0, ids, 0, ids.length);
+            }
+            return new TypesBuilderData(this, name, ids);
+        }
         final int[] ids = new int[getVersions().length];
         int index = 0;
         for (ClientVersion v : getVersions()) {
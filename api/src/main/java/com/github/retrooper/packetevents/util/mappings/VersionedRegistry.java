@@ -24,6 +24,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,7 +37,8 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
     private final TypesBuilder typesBuilder;
 
     private final Map<String, T> typeMap = new HashMap<>();
-    private final Map<Byte, Map<Integer, T>> typeIdMap = new HashMap<>();
+    // indexed by [mapping index][id], grown while types are defined
+    private final Object[][] typeIdMap;
 
     public VersionedRegistry(String registry, String mappingsPath) {
         this(new ResourceLocation(registry), mappingsPath);
@@ -46,18 +48,41 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
         this.registryKey = registryKey;
         this.typesBuilder = new TypesBuilder(mappingsPath);
         this.typesBuilder.registry = this;
+        this.typeIdMap = new Object[this.typesBuilder.getVersions().length][0];
     }
 
     @ApiStatus.Internal
     public <Z extends T> Z define(String name, Function<TypesBuilderData, Z> builder) {
         Z instance = builder.apply(this.typesBuilder.define(name));
-        MappingHelper.registerMapping(this.typesBuilder, this.typeMap, this.typeIdMap, instance);
+        this.typeMap.put(instance.getName().toString(), instance);
+        ClientVersion[] versions = this.typesBuilder.getVersions();
+        for (int index = 0; index < versions.length; index++) {
+            int id = instance.getId(versions[index]);
+            if (id < 0) {
+                continue; // doesn't exist in this version
+            }
+            Object[] idMap = this.typeIdMap[index];
+            if (id >= idMap.length) {
+                idMap = Arrays.copyOf(idMap, Math.max(id + 1, idMap.length * 2));
+                this.typeIdMap[index] = idMap;
+            }
+            idMap[id] = instance;
+        }
         return instance;
     }
 
     @ApiStatus.Internal
     public void unloadMappings() {
         this.typesBuilder.unloadFileMappings();
+        // trim the over-allocated space from growing the id arrays
+        for (int index = 0; index < this.typeIdMap.length; index++) {
+            Object[] idMap = this.typeIdMap[index];
+            int length = idMap.length;
+            while (length > 0 && idMap[length - 1] == null) {
+                length--;
+            }
+            this.typeIdMap[index] = Arrays.copyOf(idMap, length);
+        }
     }
 
     @Override
@@ -72,10 +97,11 @@ public final class VersionedRegistry<T extends MappedEntity> implements IRegistr
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public @Nullable T getById(ClientVersion version, int id) {
         int index = this.typesBuilder.getDataIndex(version);
-        Map<Integer, T> idMap = this.typeIdMap.get((byte) index);
-        return idMap.get(id);
+        Object[] idMap = this.typeIdMap[index];
+        return id >= 0 && id < idMap.length ? (T) idMap[id] : null;
     }
 
     @Override
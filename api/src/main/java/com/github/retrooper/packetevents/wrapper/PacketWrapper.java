@@ -16,30 +16,6 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-
-/*
- * MIT License
-
- * Copyright (c) 2021 Andrew Steinborn
-
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
-
- * The above copyright notice and this permission notice shall be included in all
- * copies or substantial portions of the Software.
-
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
- * SOFTWARE.
- */
 package com.github.retrooper.packetevents.wrapper;
 
 import com.github.retrooper.packetevents.PacketEvents;
@@ -49,6 +25,7 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.manager.server.VersionComparison;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.chat.ChatType;
@@ -139,6 +116,10 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     // For sending chunk data packets, which need this data
     @Nullable
     protected User user;
+    // Resolved once per wrapper, so read/write loops don't look up the operator for every primitive
+    private ByteBufOperator bufferOperator;
+    // Set once a change couldn't be written into the buffer this wrapper has been read from
+    private boolean reEncodeRequired;
 
     private static final int MODERN_MESSAGE_LENGTH = 262144;
     private static final int LEGACY_MESSAGE_LENGTH = 32767;
@@ -269,11 +250,39 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     //TODO public void transform(int protocolVersion) {}
     //Current idea change server version, but still think more
 
+    /**
+     * Points a recycled wrapper to the packet of another event and reads it.
+     */
+    @ApiStatus.Internal
+    public final void bind(ProtocolPacketEvent event) {
+        this.clientVersion = event.getUser().getClientVersion();
+        this.serverVersion = event.getServerVersion();
+        this.user = event.getUser();
+        this.buffer = event.getByteBuf();
+        this.packetTypeData.setPacketType(event.getPacketType());
+        this.packetTypeData.setNativePacketId(event.getPacketId());
+        readEvent(event);
+    }
+
+    /**
+     * Detaches a recycled wrapper from the packet it was last bound to, so the buffer isn't kept alive
+     * and can't be written to while the wrapper waits in the pool.
+     */
+    @ApiStatus.Internal
+    public final void unbind() {
+        this.buffer = null;
+        this.user = null;
+        this.reEncodeRequired = false;
+    }
+
     public final void readEvent(ProtocolPacketEvent event) {
         PacketWrapper<?> last = event.getLastUsedWrapper();
         if (last != null) {
             copy((T) last);
+            // changes made through wrappers which don't patch the buffer are only written by re-encoding
+            this.reEncodeRequired = last.isReEncodeRequired() || !last.isPatchable();
         } else {
+            this.reEncodeRequired = false;
             read();
         }
         event.setLastUsedWrapper(this);
@@ -341,6 +350,118 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13) ? MODERN_MESSAGE_LENGTH : LEGACY_MESSAGE_LENGTH;
     }
 
+    protected final ByteBufOperator getBufferOperator() {
+        ByteBufOperator operator = this.bufferOperator;
+        if (operator == null) {
+            operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+            this.bufferOperator = operator;
+        }
+        return operator;
+    }
+
+    /**
+     * @return the index of the next byte to read, wrappers remember it to patch fixed-width fields later on
+     */
+    protected final int getFieldIndex() {
+        return this.buffer == null ? -1 : this.getBufferOperator().readerIndex(this.buffer);
+    }
+
+    /**
+     * Whether every setter of this wrapper writes its change into the buffer the wrapper has been read from,
+     * unless the change alters the length of the packet.
+     * If in-place patching is enabled, packets last read by such a wrapper are only re-encoded
+     * if {@link #isReEncodeRequired()}.
+     * <p>
+     * Getters of primitives never mark the wrapper. Getters handing out mutable data which can't be compared cheaply,
+     * like metadata lists or item stacks, mark the wrapper for re-encoding and say so in their documentation,
+     * such wrappers offer a {@code peek} accessor to only read the data.
+     *
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#inPlacePatching(boolean)
+     */
+    public boolean isPatchable() {
+        return false;
+    }
+
+    /**
+     * @return whether a change to this wrapper couldn't be written into the buffer it has been read from
+     */
+    public boolean isReEncodeRequired() {
+        return this.reEncodeRequired;
+    }
+
+    /**
+     * Called by patchable wrappers if a change can't be written in place,
+     * e.g. because the data is of variable length or may be mutated without calling a setter.
+     */
+    protected final void requireReEncode() {
+        this.reEncodeRequired = true;
+    }
+
+    /*
+     * Overwrite a field of the packet this wrapper has been read from, so changing it doesn't
+     * require re-encoding the packet. A negative index means the field hasn't been read.
+     */
+
+    protected final void patchByte(int index, int value) {
+        if (index >= 0 && this.buffer != null) {
+            this.getBufferOperator().setByte(this.buffer, index, value);
+        } else {
+            this.requireReEncode();
+        }
+    }
+
+    protected final void patchShort(int index, int value) {
+        if (index >= 0 && this.buffer != null) {
+            this.getBufferOperator().setShort(this.buffer, index, value);
+        } else {
+            this.requireReEncode();
+        }
+    }
+
+    protected final void patchInt(int index, int value) {
+        if (index >= 0 && this.buffer != null) {
+            this.getBufferOperator().setInt(this.buffer, index, value);
+        } else {
+            this.requireReEncode();
+        }
+    }
+
+    protected final void patchFloat(int index, float value) {
+        if (index >= 0 && this.buffer != null) {
+            this.getBufferOperator().setFloat(this.buffer, index, value);
+        } else {
+            this.requireReEncode();
+        }
+    }
+
+    protected final void patchDouble(int index, double value) {
+        if (index >= 0 && this.buffer != null) {
+            this.getBufferOperator().setDouble(this.buffer, index, value);
+        } else {
+            this.requireReEncode();
+        }
+    }
+
+    /**
+     * Var ints can only be patched if the new value is encoded with as many bytes as the old value.
+     */
+    protected final void patchVarInt(int index, int oldValue, int value) {
+        if (index < 0 || this.buffer == null || getVarIntSize(oldValue) != getVarIntSize(value)) {
+            this.requireReEncode();
+            return;
+        }
+        ByteBufOperator operator = this.getBufferOperator();
+        while ((value & ~0x7F) != 0) {
+            operator.setByte(this.buffer, index++, (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        operator.setByte(this.buffer, index, value);
+    }
+
+    private static int getVarIntSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value)) / 7 + 1;
+    }
+
     @Deprecated
     public void resetByteBuf() {
         ByteBufHelper.clear(buffer);
@@ -351,15 +472,15 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public byte readByte() {
-        return ByteBufHelper.readByte(buffer);
+        return getBufferOperator().readByte(buffer);
     }
 
     public void writeByte(int value) {
-        ByteBufHelper.writeByte(buffer, value);
+        getBufferOperator().writeByte(buffer, value);
     }
 
     public short readUnsignedByte() {
-        return ByteBufHelper.readUnsignedByte(buffer);
+        return getBufferOperator().readUnsignedByte(buffer);
     }
 
     public boolean readBoolean() {
@@ -371,59 +492,27 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readInt() {
-        return ByteBufHelper.readInt(buffer);
+        return getBufferOperator().readInt(buffer);
     }
 
     public void writeInt(int value) {
-        ByteBufHelper.writeInt(buffer, value);
+        getBufferOperator().writeInt(buffer, value);
     }
 
     public int readMedium() {
-        return ByteBufHelper.readMedium(buffer);
+        return getBufferOperator().readMedium(buffer);
     }
 
     public void writeMedium(int value) {
-        ByteBufHelper.writeMedium(buffer, value);
+        getBufferOperator().writeMedium(buffer, value);
     }
 
     public int readVarInt() {
-        int value = 0;
-        int length = 0;
-        byte currentByte;
-        do {
-            currentByte = readByte();
-            value |= (currentByte & 0x7F) << (length * 7);
-            length++;
-            if (length > 5) {
-                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
-            }
-        } while ((currentByte & 0x80) == 0x80);
-        return value;
+        return getBufferOperator().readVarInt(buffer);
     }
 
     public void writeVarInt(int value) {
-        /* Got this code/optimization from https://steinborn.me/posts/performance/how-fast-can-you-write-a-varint/
-         * Copyright and permission notice above (above the class).
-         * Steinborn's post says that the code is under the MIT, last accessed 29.06.2024.
-         */
-        if ((value & (0xFFFFFFFF << 7)) == 0) {
-            writeByte(value);
-        } else if ((value & (0xFFFFFFFF << 14)) == 0) {
-            int w = (value & 0x7F | 0x80) << 8 | (value >>> 7);
-            writeShort(w);
-        } else if ((value & (0xFFFFFFFF << 21)) == 0) {
-            int w = (value & 0x7F | 0x80) << 16 | ((value >>> 7) & 0x7F | 0x80) << 8 | (value >>> 14);
-            writeMedium(w);
-        } else if ((value & (0xFFFFFFFF << 28)) == 0) {
-            int w = (value & 0x7F | 0x80) << 24 | (((value >>> 7) & 0x7F | 0x80) << 16)
-                    | ((value >>> 14) & 0x7F | 0x80) << 8 | (value >>> 21);
-            writeInt(w);
-        } else {
-            int w = (value & 0x7F | 0x80) << 24 | ((value >>> 7) & 0x7F | 0x80) << 16
-                    | ((value >>> 14) & 0x7F | 0x80) << 8 | ((value >>> 21) & 0x7F | 0x80);
-            writeInt(w);
-            writeByte(value >>> 28);
-        }
+        getBufferOperator().writeVarInt(buffer, value);
     }
 
     public <K, V> Map<K, V> readMap(Reader<K> keyFunction, Reader<V> valueFunction) {
@@ -744,15 +833,15 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readUnsignedShort() {
-        return ByteBufHelper.readUnsignedShort(buffer);
+        return getBufferOperator().readUnsignedShort(buffer);
     }
 
     public short readShort() {
-        return ByteBufHelper.readShort(buffer);
+        return getBufferOperator().readShort(buffer);
     }
 
     public void writeShort(int value) {
-        ByteBufHelper.writeShort(buffer, value);
+        getBufferOperator().writeShort(buffer, value);
     }
 
     public int readVarShort() {
@@ -778,11 +867,11 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public long readLong() {
-        return ByteBufHelper.readLong(buffer);
+        return getBufferOperator().readLong(buffer);
     }
 
     public void writeLong(long value) {
-        ByteBufHelper.writeLong(buffer, value);
+        getBufferOperator().writeLong(buffer, value);
     }
 
     public long readVarLong() {
@@ -805,19 +894,19 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public float readFloat() {
-        return ByteBufHelper.readFloat(buffer);
+        return getBufferOperator().readFloat(buffer);
     }
 
     public void writeFloat(float value) {
-        ByteBufHelper.writeFloat(buffer, value);
+        getBufferOperator().writeFloat(buffer, value);
     }
 
     public double readDouble() {
-        return ByteBufHelper.readDouble(buffer);
+        return getBufferOperator().readDouble(buffer);
     }
 
     public void writeDouble(double value) {
-        ByteBufHelper.writeDouble(buffer, value);
+        getBufferOperator().writeDouble(buffer, value);
     }
 
     public byte[] readRemainingBytes() {
@@ -874,10 +963,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     public long[] readLongArray(int size) {
         long[] array = new long[size];
-
-        for (int i = 0; i < array.length; i++) {
-            array[i] = readLong();
-        }
+        getBufferOperator().readLongs(buffer, array);
         return array;
     }
 
@@ -912,18 +998,13 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
             throw new IllegalStateException("LongArray with size " + size + " is bigger than allowed " + readableBytes);
         }
         long[] array = new long[size];
-
-        for (int i = 0; i < array.length; i++) {
-            array[i] = readLong();
-        }
+        getBufferOperator().readLongs(buffer, array);
         return array;
     }
 
     public void writeLongArray(long[] array) {
         writeVarInt(array.length);
-        for (long l : array) {
-            writeLong(l);
-        }
+        getBufferOperator().writeLongs(buffer, array);
     }
 
     public UUID readUUID() {
@@ -0,0 +1,81 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.wrapper;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Recycles wrapper instances per thread, see {@link ProtocolPacketEvent#getPooledWrapper(Class)}.
+ * <p>
+ * Wrappers are borrowed for the duration of an event and returned once the packet has been re-encoded.
+ * Events dispatched while another event is being processed on the same thread (e.g. packets sent by a listener)
+ * borrow their own instances, so a wrapper is never used by two events at once.
+ */
+@ApiStatus.Internal
+public final class PacketWrapperPool {
+    private static final ThreadLocal<Map<Class<?>, ArrayDeque<PacketWrapper<?>>>> POOLS =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private PacketWrapperPool() {
+    }
+
+    public static <T extends PacketWrapper<T>> T acquire(Class<T> wrapperClass, ProtocolPacketEvent event) {
+        ArrayDeque<PacketWrapper<?>> free = POOLS.get().get(wrapperClass);
+        PacketWrapper<?> wrapper = free == null ? null : free.pollLast();
+        if (wrapper == null) {
+            return create(wrapperClass, event);
+        }
+        wrapper.bind(event);
+        return wrapperClass.cast(wrapper);
+    }
+
+    public static void release(PacketWrapper<?> wrapper) {
+        wrapper.unbind();
+        POOLS.get().computeIfAbsent(wrapper.getClass(), wrapperClass -> new ArrayDeque<>(2)).addLast(wrapper);
+    }
+
+    private static <T extends PacketWrapper<T>> T create(Class<T> wrapperClass, ProtocolPacketEvent event) {
+        Class<?> eventClass = event instanceof PacketReceiveEvent ? PacketReceiveEvent.class : PacketSendEvent.class;
+        try {
+            // the event constructor of every wrapper reads the packet
+            Constructor<T> constructor = wrapperClass.getConstructor(eventClass);
+            return constructor.newInstance(event);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException(wrapperClass.getName() + " can't be created from a "
+                    + eventClass.getSimpleName(), ex);
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to create " + wrapperClass.getName(), cause);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create " + wrapperClass.getName(), ex);
+        }
+    }
+}
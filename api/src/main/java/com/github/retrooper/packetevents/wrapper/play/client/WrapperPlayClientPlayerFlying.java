@@ -26,12 +26,32 @@ import com.github.retrooper.packetevents.protocol.world.Location;
 import com.github.retrooper.packetevents.util.Vector3d;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
+/**
+ * The position, rotation and flags of the player are kept as primitives.
+ * The primitive getters and setters don't allocate and setters of fields which have been read from the packet
+ * overwrite their bytes in place, so the packet doesn't have to be re-encoded.
+ * Once {@link #getLocation()} has been called, the returned location holds the position and rotation as well,
+ * changes made to it directly are only picked up by re-encoding the packet.
+ */
 public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClientPlayerFlying> {
+    private static final int FLAG_ON_GROUND = 0b01;
+    private static final int FLAG_HORIZONTAL_COLLISION = 0b10;
+
     private boolean positionChanged;
     private boolean rotationChanged;
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private float pitch;
+    // Only created on request, from then on it holds the position and rotation
     private Location location;
     private boolean onGround;
     private boolean horizontalCollision;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int positionIndex = -1;
+    private int rotationIndex = -1;
+    private int flagsIndex = -1;
 
     public WrapperPlayClientPlayerFlying(PacketReceiveEvent event) {
         super(event, false);
@@ -55,6 +75,23 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
         this.onGround = onGround;
         this.horizontalCollision = horizontalCollision;
         this.location = location;
+        if (location != null) {
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+            this.yaw = location.getYaw();
+            this.pitch = location.getPitch();
+        }
+    }
+
+    public WrapperPlayClientPlayerFlying(boolean positionChanged, boolean rotationChanged, boolean onGround, boolean horizontalCollision,
+                                         double x, double y, double z, float yaw, float pitch) {
+        this(positionChanged, rotationChanged, onGround, horizontalCollision, null);
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
     }
 
     public static boolean isFlying(PacketTypeCommon type) {
@@ -66,62 +103,204 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
 
     @Override
     public void read() {
-        Vector3d position = new Vector3d();
-        float yaw = 0.0f;
-        float pitch = 0.0f;
+        PacketTypeCommon type = getPacketTypeData().getPacketType();
+        if (type != null) {
+            // Recycled wrappers may be reused for another one of the flying packets
+            positionChanged = type == PacketType.Play.Client.PLAYER_POSITION
+                    || type == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
+            rotationChanged = type == PacketType.Play.Client.PLAYER_ROTATION
+                    || type == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
+        }
+        location = null;
         if (positionChanged) {
-            double x = readDouble();
-            double y = readDouble();
+            positionIndex = getFieldIndex();
+            x = readDouble();
+            y = readDouble();
             if (serverVersion == ServerVersion.V_1_7_10) {
                 //Can be ignored, cause stance = (y + 1.62)
                 double stance = readDouble();
             }
-            double z = readDouble();
-            position = new Vector3d(x, y, z);
+            z = readDouble();
+        } else {
+            positionIndex = -1;
+            x = 0.0;
+            y = 0.0;
+            z = 0.0;
         }
         if (rotationChanged) {
+            rotationIndex = getFieldIndex();
             yaw = readFloat();
             pitch = readFloat();
+        } else {
+            rotationIndex = -1;
+            yaw = 0.0f;
+            pitch = 0.0f;
         }
-        location = new Location(position, yaw, pitch);
+        flagsIndex = getFieldIndex();
         byte flags = this.readByte();
-        this.onGround = (flags & 0b01) == 0b01;
-        this.horizontalCollision = (flags & 0b10) == 0b10;
+        this.onGround = (flags & FLAG_ON_GROUND) != 0;
+        this.horizontalCollision = (flags & FLAG_HORIZONTAL_COLLISION) != 0;
     }
 
     @Override
     public void write() {
         if (positionChanged) {
-            writeDouble(location.getPosition().getX());
+            writeDouble(getX());
             if (serverVersion == ServerVersion.V_1_7_10) {
                 //Can be ignored, cause stance = (y + 1.62)
-                writeDouble(location.getPosition().getY() + 1.62);
+                writeDouble(getY() + 1.62);
             }
-            writeDouble(location.getPosition().getY());
-            writeDouble(location.getPosition().getZ());
+            writeDouble(getY());
+            writeDouble(getZ());
         }
         if (rotationChanged) {
-            writeFloat(location.getYaw());
-            writeFloat(location.getPitch());
+            writeFloat(getYaw());
+            writeFloat(getPitch());
         }
-        this.writeByte((this.onGround ? 0b01 : 0b00) | (this.horizontalCollision ? 0b10 : 0b00));
+        this.writeByte(getFlags());
     }
 
     @Override
     public void copy(WrapperPlayClientPlayerFlying wrapper) {
         positionChanged = wrapper.positionChanged;
         rotationChanged = wrapper.rotationChanged;
+        x = wrapper.x;
+        y = wrapper.y;
+        z = wrapper.z;
+        yaw = wrapper.yaw;
+        pitch = wrapper.pitch;
         location = wrapper.location;
         onGround = wrapper.onGround;
         horizontalCollision = wrapper.horizontalCollision;
+        positionIndex = wrapper.positionIndex;
+        rotationIndex = wrapper.rotationIndex;
+        flagsIndex = wrapper.flagsIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
+    @Override
+    public boolean isReEncodeRequired() {
+        // the location returned by getLocation() may have been modified without calling a setter
+        return super.isReEncodeRequired() || (location != null && (location.getX() != x || location.getY() != y
+                || location.getZ() != z || location.getYaw() != yaw || location.getPitch() != pitch));
+    }
+
+    /**
+     * The returned location is mutable, the packet is re-encoded if it has been modified
+     * instead of using the setters once all listeners have been called.
+     */
     public Location getLocation() {
+        if (location == null) {
+            location = new Location(x, y, z, yaw, pitch);
+        }
         return location;
     }
 
     public void setLocation(Location location) {
         this.location = location;
+        if (location != null) {
+            setPosition(location.getX(), location.getY(), location.getZ());
+            setYaw(location.getYaw());
+            setPitch(location.getPitch());
+        }
+    }
+
+    public double getX() {
+        return location != null ? location.getX() : x;
+    }
+
+    public void setX(double x) {
+        if (location != null) {
+            location.setPosition(new Vector3d(x, location.getY(), location.getZ()));
+        }
+        this.x = x;
+        patchPosition(0, x);
+    }
+
+    public double getY() {
+        return location != null ? location.getY() : y;
+    }
+
+    public void setY(double y) {
+        if (location != null) {
+            location.setPosition(new Vector3d(location.getX(), y, location.getZ()));
+        }
+        this.y = y;
+        patchPosition(1, y);
+    }
+
+    public double getZ() {
+        return location != null ? location.getZ() : z;
+    }
+
+    public void setZ(double z) {
+        if (location != null) {
+            location.setPosition(new Vector3d(location.getX(), location.getY(), z));
+        }
+        this.z = z;
+        patchPosition(2, z);
+    }
+
+    public void setPosition(double x, double y, double z) {
+        if (location != null) {
+            location.setPosition(new Vector3d(x, y, z));
+        }
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        patchPosition(0, x);
+        patchPosition(1, y);
+        patchPosition(2, z);
+    }
+
+    public float getYaw() {
+        return location != null ? location.getYaw() : yaw;
+    }
+
+    public void setYaw(float yaw) {
+        if (location != null) {
+            location.setYaw(yaw);
+        }
+        this.yaw = yaw;
+        patchRotation(0, yaw);
+    }
+
+    public float getPitch() {
+        return location != null ? location.getPitch() : pitch;
+    }
+
+    public void setPitch(float pitch) {
+        if (location != null) {
+            location.setPitch(pitch);
+        }
+        this.pitch = pitch;
+        patchRotation(1, pitch);
+    }
+
+    private void patchPosition(int component, double value) {
+        if (positionIndex < 0) {
+            requireReEncode();
+        } else if (serverVersion == ServerVersion.V_1_7_10) {
+            // x, y, stance, z
+            if (component == 1) {
+                patchDouble(positionIndex + 16, value + 1.62);
+            }
+            patchDouble(positionIndex + (component == 2 ? 24 : component * 8), value);
+        } else {
+            patchDouble(positionIndex + component * 8, value);
+        }
+    }
+
+    private void patchRotation(int component, float value) {
+        if (rotationIndex < 0) {
+            requireReEncode();
+        } else {
+            patchFloat(rotationIndex + component * 4, value);
+        }
     }
 
     public boolean hasPositionChanged() {
@@ -130,6 +309,9 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
 
     public void setPositionChanged(boolean positionChanged) {
         this.positionChanged = positionChanged;
+        // The layout of the packet changes, it has to be re-encoded
+        positionIndex = rotationIndex = flagsIndex = -1;
+        requireReEncode();
     }
 
     public boolean hasRotationChanged() {
@@ -138,6 +320,9 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
 
     public void setRotationChanged(boolean rotationChanged) {
         this.rotationChanged = rotationChanged;
+        // The layout of the packet changes, it has to be re-encoded
+        positionIndex = rotationIndex = flagsIndex = -1;
+        requireReEncode();
     }
 
     public boolean isOnGround() {
@@ -146,6 +331,7 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
 
     public void setOnGround(boolean onGround) {
         this.onGround = onGround;
+        patchByte(flagsIndex, getFlags());
     }
 
     public boolean isHorizontalCollision() {
@@ -154,5 +340,19 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
 
     public void setHorizontalCollision(boolean horizontalCollision) {
         this.horizontalCollision = horizontalCollision;
+        patchByte(flagsIndex, getFlags());
+    }
+
+    /**
+     * @return the on ground (0x01) and horizontal collision (0x02) flags, as sent over the network
+     */
+    public int getFlags() {
+        return (this.onGround ? FLAG_ON_GROUND : 0) | (this.horizontalCollision ? FLAG_HORIZONTAL_COLLISION : 0);
+    }
+
+    public void setFlags(int flags) {
+        this.onGround = (flags & FLAG_ON_GROUND) != 0;
+        this.horizontalCollision = (flags & FLAG_HORIZONTAL_COLLISION) != 0;
+        patchByte(flagsIndex, getFlags());
     }
 }
@@ -19,7 +19,6 @@
 package com.github.retrooper.packetevents.wrapper.play.client;
 
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.protocol.world.Location;
 import com.github.retrooper.packetevents.util.Vector3d;
 
 public class WrapperPlayClientPlayerPosition extends WrapperPlayClientPlayerFlying {
@@ -28,14 +27,14 @@ public class WrapperPlayClientPlayerPosition extends WrapperPlayClientPlayerFlyi
     }
 
     public WrapperPlayClientPlayerPosition(Vector3d position, boolean onGround) {
-        super(true, false, onGround, new Location(position, 0, 0));
+        super(true, false, onGround, false, position.getX(), position.getY(), position.getZ(), 0.0f, 0.0f);
     }
 
     public Vector3d getPosition() {
-        return getLocation().getPosition();
+        return new Vector3d(getX(), getY(), getZ());
     }
 
     public void setPosition(Vector3d position) {
-        getLocation().setPosition(position);
+        setPosition(position.getX(), position.getY(), position.getZ());
     }
 }
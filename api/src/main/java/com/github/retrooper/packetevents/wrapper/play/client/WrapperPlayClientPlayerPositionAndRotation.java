@@ -36,26 +36,10 @@ public class WrapperPlayClientPlayerPositionAndRotation extends WrapperPlayClien
     }
 
     public Vector3d getPosition() {
-        return getLocation().getPosition();
+        return new Vector3d(getX(), getY(), getZ());
     }
 
     public void setPosition(Vector3d position) {
-        getLocation().setPosition(position);
-    }
-
-    public float getYaw() {
-        return getLocation().getYaw();
-    }
-
-    public void setYaw(float yaw) {
-        getLocation().setYaw(yaw);
-    }
-
-    public float getPitch() {
-        return getLocation().getPitch();
-    }
-
-    public void setPitch(float pitch) {
-        getLocation().setPitch(pitch);
+        setPosition(position.getX(), position.getY(), position.getZ());
     }
 }
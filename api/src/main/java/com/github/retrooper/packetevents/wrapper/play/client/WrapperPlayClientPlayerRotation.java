@@ -19,8 +19,6 @@
 package com.github.retrooper.packetevents.wrapper.play.client;
 
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.protocol.world.Location;
-import com.github.retrooper.packetevents.util.Vector3d;
 
 public class WrapperPlayClientPlayerRotation extends WrapperPlayClientPlayerFlying {
     public WrapperPlayClientPlayerRotation(PacketReceiveEvent event) {
@@ -28,22 +26,6 @@ public class WrapperPlayClientPlayerRotation extends WrapperPlayClientPlayerFlyi
     }
 
     public WrapperPlayClientPlayerRotation(float yaw, float pitch, boolean onGround) {
-        super(false, true, onGround, new Location(new Vector3d(), yaw, pitch));
-    }
-
-    public float getYaw() {
-        return getLocation().getYaw();
-    }
-
-    public void setYaw(float yaw) {
-        getLocation().setYaw(yaw);
-    }
-
-    public float getPitch() {
-        return getLocation().getPitch();
-    }
-
-    public void setPitch(float pitch) {
-        getLocation().setPitch(pitch);
+        super(false, true, onGround, false, 0.0, 0.0, 0.0, yaw, pitch);
     }
 }
@@ -25,6 +25,9 @@ import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 public class WrapperPlayServerEntityAnimation extends PacketWrapper<WrapperPlayServerEntityAnimation> {
     private int entityID;
     private EntityAnimationType type;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int entityIdIndex = -1;
+    private int typeIndex = -1;
 
     public WrapperPlayServerEntityAnimation(PacketSendEvent event) {
         super(event);
@@ -38,7 +41,9 @@ public class WrapperPlayServerEntityAnimation extends PacketWrapper<WrapperPlayS
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         entityID = readVarInt();
+        typeIndex = getFieldIndex();
         type = EntityAnimationType.getById(readUnsignedByte());
     }
 
@@ -52,6 +57,13 @@ public class WrapperPlayServerEntityAnimation extends PacketWrapper<WrapperPlayS
     public void copy(WrapperPlayServerEntityAnimation wrapper) {
         entityID = wrapper.entityID;
         type = wrapper.type;
+        entityIdIndex = wrapper.entityIdIndex;
+        typeIndex = wrapper.typeIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getEntityId() {
@@ -59,6 +71,7 @@ public class WrapperPlayServerEntityAnimation extends PacketWrapper<WrapperPlayS
     }
 
     public void setEntityId(int entityID) {
+        patchVarInt(entityIdIndex, this.entityID, entityID);
         this.entityID = entityID;
     }
 
@@ -68,6 +81,7 @@ public class WrapperPlayServerEntityAnimation extends PacketWrapper<WrapperPlayS
 
     public void setType(EntityAnimationType type) {
         this.type = type;
+        patchByte(typeIndex, type.ordinal());
     }
 
     public enum EntityAnimationType {
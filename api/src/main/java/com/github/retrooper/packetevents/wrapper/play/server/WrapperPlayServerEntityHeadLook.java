@@ -26,6 +26,9 @@ public class WrapperPlayServerEntityHeadLook extends PacketWrapper<WrapperPlaySe
     private static final float ROTATION_FACTOR = 256.0F / 360.0F;
     private int entityID;
     private float headYaw;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int entityIdIndex = -1;
+    private int headYawIndex = -1;
 
     public WrapperPlayServerEntityHeadLook(PacketSendEvent event) {
         super(event);
@@ -39,7 +42,9 @@ public class WrapperPlayServerEntityHeadLook extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         entityID = readVarInt();
+        headYawIndex = getFieldIndex();
         headYaw = readByte() / ROTATION_FACTOR;
     }
 
@@ -53,6 +58,13 @@ public class WrapperPlayServerEntityHeadLook extends PacketWrapper<WrapperPlaySe
     public void copy(WrapperPlayServerEntityHeadLook wrapper) {
         entityID = wrapper.entityID;
         headYaw = wrapper.headYaw;
+        entityIdIndex = wrapper.entityIdIndex;
+        headYawIndex = wrapper.headYawIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getEntityId() {
@@ -60,6 +72,7 @@ public class WrapperPlayServerEntityHeadLook extends PacketWrapper<WrapperPlaySe
     }
 
     public void setEntityId(int entityID) {
+        patchVarInt(entityIdIndex, this.entityID, entityID);
         this.entityID = entityID;
     }
 
@@ -69,5 +82,6 @@ public class WrapperPlayServerEntityHeadLook extends PacketWrapper<WrapperPlaySe
 
     public void setHeadYaw(float headYaw) {
         this.headYaw = headYaw;
+        patchByte(headYawIndex, (int) (headYaw * ROTATION_FACTOR));
     }
 }
@@ -31,6 +31,8 @@ import java.util.List;
 public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlayServerEntityMetadata> {
     private int entityID;
     private List<EntityData> entityMetadata;
+    // Buffer index of the entity id, -1 if it hasn't been read from a buffer
+    private int entityIdIndex = -1;
 
     public WrapperPlayServerEntityMetadata(PacketSendEvent event) {
         super(event);
@@ -48,6 +50,7 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         entityID = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? readVarInt() : readInt();
         entityMetadata = readEntityMetadata();
     }
@@ -66,6 +69,12 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
     public void copy(WrapperPlayServerEntityMetadata wrapper) {
         entityID = wrapper.entityID;
         entityMetadata = wrapper.entityMetadata;
+        entityIdIndex = wrapper.entityIdIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getEntityId() {
@@ -73,18 +82,38 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
     }
 
     public void setEntityId(int entityID) {
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            patchVarInt(entityIdIndex, this.entityID, entityID);
+        } else {
+            patchInt(entityIdIndex, entityID);
+        }
         this.entityID = entityID;
     }
 
+    /**
+     * The returned metadata is mutable, so calling this marks the packet for re-encoding.
+     * Use {@link #peekEntityMetadata()} to only read it.
+     */
     public List<EntityData> getEntityMetadata() {
+        // the metadata is mutable, changes to it can't be written in place
+        requireReEncode();
+        return entityMetadata;
+    }
+
+    /**
+     * Returns the metadata without marking the packet for re-encoding, it must not be modified.
+     */
+    public List<EntityData> peekEntityMetadata() {
         return entityMetadata;
     }
 
     public void setEntityMetadata(List<EntityData> entityMetadata) {
         this.entityMetadata = entityMetadata;
+        requireReEncode();
     }
 
     public void setEntityMetadata(EntityMetadataProvider metadata) {
         this.entityMetadata = metadata.entityData(serverVersion.toClientVersion());
+        requireReEncode();
     }
 }
@@ -33,6 +33,10 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
     private double deltaY;
     private double deltaZ;
     private boolean onGround;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int entityIdIndex = -1;
+    private int deltaIndex = -1;
+    private int onGroundIndex = -1;
 
     public WrapperPlayServerEntityRelativeMove(PacketSendEvent event) {
         super(event);
@@ -49,7 +53,9 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         entityID = readVarInt();
+        deltaIndex = getFieldIndex();
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             deltaX = readShort() / MODERN_DELTA_DIVISOR;
             deltaY = readShort() / MODERN_DELTA_DIVISOR;
@@ -60,6 +66,7 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
             deltaY = readByte() / LEGACY_DELTA_DIVISOR;
             deltaZ = readByte() / LEGACY_DELTA_DIVISOR;
         }
+        onGroundIndex = getFieldIndex();
         onGround = readBoolean();
     }
 
@@ -86,6 +93,14 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
         deltaY = wrapper.deltaY;
         deltaZ = wrapper.deltaZ;
         onGround = wrapper.onGround;
+        entityIdIndex = wrapper.entityIdIndex;
+        deltaIndex = wrapper.deltaIndex;
+        onGroundIndex = wrapper.onGroundIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getEntityId() {
@@ -93,6 +108,7 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
     }
 
     public void setEntityId(int entityID) {
+        patchVarInt(entityIdIndex, this.entityID, entityID);
         this.entityID = entityID;
     }
 
@@ -102,6 +118,7 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
 
     public void setDeltaX(double deltaX) {
         this.deltaX = deltaX;
+        patchDelta(0, deltaX);
     }
 
     public double getDeltaY() {
@@ -110,6 +127,7 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
 
     public void setDeltaY(double deltaY) {
         this.deltaY = deltaY;
+        patchDelta(1, deltaY);
     }
 
     public double getDeltaZ() {
@@ -118,6 +136,17 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
 
     public void setDeltaZ(double deltaZ) {
         this.deltaZ = deltaZ;
+        patchDelta(2, deltaZ);
+    }
+
+    private void patchDelta(int component, double delta) {
+        if (deltaIndex < 0) {
+            requireReEncode();
+        } else if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            patchShort(deltaIndex + component * 2, (short) (delta * MODERN_DELTA_DIVISOR));
+        } else {
+            patchByte(deltaIndex + component, (byte) (delta * LEGACY_DELTA_DIVISOR));
+        }
     }
 
     public boolean isOnGround() {
@@ -126,5 +155,6 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
 
     public void setOnGround(boolean onGround) {
         this.onGround = onGround;
+        patchByte(onGroundIndex, onGround ? 1 : 0);
     }
 }
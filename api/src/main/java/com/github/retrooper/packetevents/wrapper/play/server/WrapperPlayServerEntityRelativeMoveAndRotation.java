@@ -35,6 +35,11 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
     private float yaw;
     private float pitch;
     private boolean onGround;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int entityIdIndex = -1;
+    private int deltaIndex = -1;
+    private int rotationIndex = -1;
+    private int onGroundIndex = -1;
 
     public WrapperPlayServerEntityRelativeMoveAndRotation(PacketSendEvent event) {
         super(event);
@@ -54,7 +59,9 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         entityID = readVarInt();
+        deltaIndex = getFieldIndex();
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             deltaX = readShort() / MODERN_DELTA_DIVISOR;
             deltaY = readShort() / MODERN_DELTA_DIVISOR;
@@ -64,8 +71,10 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
             deltaY = readByte() / LEGACY_DELTA_DIVISOR;
             deltaZ = readByte() / LEGACY_DELTA_DIVISOR;
         }
+        rotationIndex = getFieldIndex();
         yaw = readByte() / ROTATION_FACTOR;
         pitch = readByte() / ROTATION_FACTOR;
+        onGroundIndex = getFieldIndex();
         onGround = readBoolean();
     }
 
@@ -95,6 +104,15 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
         yaw = wrapper.yaw;
         pitch = wrapper.pitch;
         onGround = wrapper.onGround;
+        entityIdIndex = wrapper.entityIdIndex;
+        deltaIndex = wrapper.deltaIndex;
+        rotationIndex = wrapper.rotationIndex;
+        onGroundIndex = wrapper.onGroundIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getEntityId() {
@@ -102,6 +120,7 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
     }
 
     public void setEntityId(int entityID) {
+        patchVarInt(entityIdIndex, this.entityID, entityID);
         this.entityID = entityID;
     }
 
@@ -111,6 +130,7 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
 
     public void setDeltaX(double deltaX) {
         this.deltaX = deltaX;
+        patchDelta(0, deltaX);
     }
 
     public double getDeltaY() {
@@ -119,6 +139,7 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
 
     public void setDeltaY(double deltaY) {
         this.deltaY = deltaY;
+        patchDelta(1, deltaY);
     }
 
     public double getDeltaZ() {
@@ -127,6 +148,17 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
 
     public void setDeltaZ(double deltaZ) {
         this.deltaZ = deltaZ;
+        patchDelta(2, deltaZ);
+    }
+
+    private void patchDelta(int component, double delta) {
+        if (deltaIndex < 0) {
+            requireReEncode();
+        } else if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            patchShort(deltaIndex + component * 2, (short) (delta * MODERN_DELTA_DIVISOR));
+        } else {
+            patchByte(deltaIndex + component, (byte) (delta * LEGACY_DELTA_DIVISOR));
+        }
     }
 
     public float getYaw() {
@@ -135,6 +167,7 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
 
     public void setYaw(float yaw) {
         this.yaw = yaw;
+        patchByte(rotationIndex, (int) (yaw * ROTATION_FACTOR));
     }
 
     public float getPitch() {
@@ -143,6 +176,7 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
 
     public void setPitch(float pitch) {
         this.pitch = pitch;
+        patchByte(rotationIndex < 0 ? -1 : rotationIndex + 1, (int) (pitch * ROTATION_FACTOR));
     }
 
     public boolean isOnGround() {
@@ -151,5 +185,6 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
 
     public void setOnGround(boolean onGround) {
         this.onGround = onGround;
+        patchByte(onGroundIndex, onGround ? 1 : 0);
     }
 }
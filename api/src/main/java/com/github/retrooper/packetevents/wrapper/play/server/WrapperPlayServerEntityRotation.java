@@ -28,6 +28,10 @@ public class WrapperPlayServerEntityRotation extends PacketWrapper<WrapperPlaySe
     private float yaw;
     private float pitch;
     private boolean onGround;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int entityIdIndex = -1;
+    private int rotationIndex = -1;
+    private int onGroundIndex = -1;
 
     public WrapperPlayServerEntityRotation(PacketSendEvent event) {
         super(event);
@@ -43,9 +47,12 @@ public class WrapperPlayServerEntityRotation extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         entityID = readVarInt();
+        rotationIndex = getFieldIndex();
         yaw = readByte() / ROTATION_FACTOR;
         pitch = readByte() / ROTATION_FACTOR;
+        onGroundIndex = getFieldIndex();
         onGround = readBoolean();
     }
 
@@ -55,6 +62,9 @@ public class WrapperPlayServerEntityRotation extends PacketWrapper<WrapperPlaySe
         yaw = wrapper.yaw;
         pitch = wrapper.pitch;
         onGround = wrapper.onGround;
+        entityIdIndex = wrapper.entityIdIndex;
+        rotationIndex = wrapper.rotationIndex;
+        onGroundIndex = wrapper.onGroundIndex;
     }
 
     @Override
@@ -65,11 +75,17 @@ public class WrapperPlayServerEntityRotation extends PacketWrapper<WrapperPlaySe
         writeBoolean(onGround);
     }
 
+    @Override
+    public boolean isPatchable() {
+        return true;
+    }
+
     public int getEntityId() {
         return entityID;
     }
 
     public void setEntityId(int entityID) {
+        patchVarInt(entityIdIndex, this.entityID, entityID);
         this.entityID = entityID;
     }
 
@@ -79,6 +95,7 @@ public class WrapperPlayServerEntityRotation extends PacketWrapper<WrapperPlaySe
 
     public void setYaw(float yaw) {
         this.yaw = yaw;
+        patchByte(rotationIndex, (int) (yaw * ROTATION_FACTOR));
     }
 
     public float getPitch() {
@@ -87,6 +104,7 @@ public class WrapperPlayServerEntityRotation extends PacketWrapper<WrapperPlaySe
 
     public void setPitch(float pitch) {
         this.pitch = pitch;
+        patchByte(rotationIndex < 0 ? -1 : rotationIndex + 1, (int) (pitch * ROTATION_FACTOR));
     }
 
     public boolean isOnGround() {
@@ -95,5 +113,6 @@ public class WrapperPlayServerEntityRotation extends PacketWrapper<WrapperPlaySe
 
     public void setOnGround(boolean onGround) {
         this.onGround = onGround;
+        patchByte(onGroundIndex, onGround ? 1 : 0);
     }
 }
@@ -25,6 +25,8 @@ import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 public class WrapperPlayServerEntityStatus extends PacketWrapper<WrapperPlayServerEntityStatus> {
     private int entityID;
     private int status;
+    // Buffer index of the entity id, -1 if it hasn't been read from a buffer
+    private int entityIdIndex = -1;
 
     public WrapperPlayServerEntityStatus(PacketSendEvent event) {
         super(event);
@@ -38,6 +40,7 @@ public class WrapperPlayServerEntityStatus extends PacketWrapper<WrapperPlayServ
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         entityID = readInt();
         status = readByte();
     }
@@ -52,6 +55,12 @@ public class WrapperPlayServerEntityStatus extends PacketWrapper<WrapperPlayServ
     public void copy(WrapperPlayServerEntityStatus wrapper) {
         entityID = wrapper.entityID;
         status = wrapper.status;
+        entityIdIndex = wrapper.entityIdIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getEntityId() {
@@ -60,6 +69,7 @@ public class WrapperPlayServerEntityStatus extends PacketWrapper<WrapperPlayServ
 
     public void setEntityId(int entityID) {
         this.entityID = entityID;
+        patchInt(entityIdIndex, entityID);
     }
 
     public int getStatus() {
@@ -68,5 +78,7 @@ public class WrapperPlayServerEntityStatus extends PacketWrapper<WrapperPlayServ
 
     public void setStatus(int status) {
         this.status = status;
+        // the status directly follows the entity id
+        patchByte(entityIdIndex < 0 ? -1 : entityIdIndex + 4, status);
     }
 }
@@ -31,22 +31,46 @@ import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 /**
  * This is not for teleporting players, but for teleporting other entities the player can see - such as mobs, animals, etc.
  * If you want to teleport a player, use {@link WrapperPlayServerPlayerPositionAndLook} instead.
+ * <p>
+ * The primitive getters and setters don't allocate and setters of fields which have been read from the packet
+ * overwrite their bytes in place, so the packet doesn't have to be re-encoded.
+ * Once {@link #getValues()} has been called, the returned values hold the position and rotation as well,
+ * changes made to them directly are only picked up by re-encoding the packet.
  */
 public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlayServerEntityTeleport> {
     private static final float ROTATION_FACTOR = 256.0F / 360.0F;
 
     private int entityID;
+    private double x;
+    private double y;
+    private double z;
+    /**
+     * Added with 1.21.2
+     */
+    private double deltaX;
+    private double deltaY;
+    private double deltaZ;
+    private float yaw;
+    private float pitch;
     /**
      * Changed with 1.21.2
      * <p>
      * In versions before 1.21.2, the {@link EntityPositionData#getDeltaMovement()} will always be zero.
+     * Only created on request, from then on it holds the position, delta movement and rotation.
      */
     private EntityPositionData values;
     /**
      * Added with 1.21.2
      */
-    private RelativeFlag relativeFlags;
+    private int relativeFlags;
     private boolean onGround;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int entityIdIndex = -1;
+    private int positionIndex = -1;
+    private int deltaIndex = -1;
+    private int rotationIndex = -1;
+    private int relativeFlagsIndex = -1;
+    private int onGroundIndex = -1;
 
     public WrapperPlayServerEntityTeleport(PacketSendEvent event) {
         super(event);
@@ -73,26 +97,77 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
         super(PacketType.Play.Server.ENTITY_TELEPORT);
         this.entityID = entityID;
         this.values = values;
-        this.relativeFlags = relativeFlags;
+        this.x = values.getPosition().x;
+        this.y = values.getPosition().y;
+        this.z = values.getPosition().z;
+        this.deltaX = values.getDeltaMovement().x;
+        this.deltaY = values.getDeltaMovement().y;
+        this.deltaZ = values.getDeltaMovement().z;
+        this.yaw = values.getYaw();
+        this.pitch = values.getPitch();
+        this.relativeFlags = relativeFlags == null ? 0 : relativeFlags.getFullMask();
+        this.onGround = onGround;
+    }
+
+    public WrapperPlayServerEntityTeleport(
+            int entityID, double x, double y, double z, float yaw, float pitch, boolean onGround
+    ) {
+        super(PacketType.Play.Server.ENTITY_TELEPORT);
+        this.entityID = entityID;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
         this.onGround = onGround;
     }
 
     @Override
     public void read() {
+        this.values = null;
+        this.entityIdIndex = this.getFieldIndex();
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             this.entityID = this.readVarInt();
-            this.values = EntityPositionData.read(this);
-            this.relativeFlags = new RelativeFlag(this.readInt());
+            this.positionIndex = this.getFieldIndex();
+            this.x = this.readDouble();
+            this.y = this.readDouble();
+            this.z = this.readDouble();
+            this.deltaIndex = this.getFieldIndex();
+            this.deltaX = this.readDouble();
+            this.deltaY = this.readDouble();
+            this.deltaZ = this.readDouble();
+            this.rotationIndex = this.getFieldIndex();
+            this.yaw = this.readFloat();
+            this.pitch = this.readFloat();
+            this.relativeFlagsIndex = this.getFieldIndex();
+            this.relativeFlags = this.readInt();
         } else {
             this.entityID = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? this.readVarInt() : this.readInt();
-            Vector3d position = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? Vector3d.read(this) :
-                    new Vector3d(this.readInt() / 32d, this.readInt() / 32d, this.readInt() / 32d);
-            float yaw = this.readByte() / ROTATION_FACTOR;
-            float pitch = this.readByte() / ROTATION_FACTOR;
-            this.values = new EntityPositionData(position, Vector3d.zero(), yaw, pitch);
+            this.positionIndex = this.getFieldIndex();
+            if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+                this.x = this.readDouble();
+                this.y = this.readDouble();
+                this.z = this.readDouble();
+            } else {
+                this.x = this.readInt() / 32d;
+                this.y = this.readInt() / 32d;
+                this.z = this.readInt() / 32d;
+            }
+            this.deltaIndex = -1;
+            this.deltaX = 0.0;
+            this.deltaY = 0.0;
+            this.deltaZ = 0.0;
+            this.rotationIndex = this.getFieldIndex();
+            this.yaw = this.readByte() / ROTATION_FACTOR;
+            this.pitch = this.readByte() / ROTATION_FACTOR;
+            this.relativeFlagsIndex = -1;
+            this.relativeFlags = 0;
         }
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            this.onGroundIndex = this.getFieldIndex();
             this.onGround = this.readBoolean();
+        } else {
+            this.onGroundIndex = -1;
         }
     }
 
@@ -100,8 +175,15 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
     public void write() {
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             this.writeVarInt(this.entityID);
-            EntityPositionData.write(this, this.values);
-            this.writeInt(this.relativeFlags.getFullMask());
+            this.writeDouble(this.getX());
+            this.writeDouble(this.getY());
+            this.writeDouble(this.getZ());
+            this.writeDouble(this.getDeltaX());
+            this.writeDouble(this.getDeltaY());
+            this.writeDouble(this.getDeltaZ());
+            this.writeFloat(this.getYaw());
+            this.writeFloat(this.getPitch());
+            this.writeInt(this.relativeFlags);
         } else {
             if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
                 this.writeVarInt(this.entityID);
@@ -109,15 +191,16 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
                 this.writeInt(this.entityID);
             }
             if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
-                Vector3d.write(this, this.values.getPosition());
+                this.writeDouble(this.getX());
+                this.writeDouble(this.getY());
+                this.writeDouble(this.getZ());
             } else {
-                Vector3d pos = this.values.getPosition();
-                this.writeInt(MathUtil.floor(pos.x * 32d));
-                this.writeInt(MathUtil.floor(pos.y * 32d));
-                this.writeInt(MathUtil.floor(pos.z * 32d));
+                this.writeInt(MathUtil.floor(this.getX() * 32d));
+                this.writeInt(MathUtil.floor(this.getY() * 32d));
+                this.writeInt(MathUtil.floor(this.getZ() * 32d));
             }
-            this.writeByte((int) (this.values.getYaw() * ROTATION_FACTOR));
-            this.writeByte((int) (this.values.getPitch() * ROTATION_FACTOR));
+            this.writeByte((int) (this.getYaw() * ROTATION_FACTOR));
+            this.writeByte((int) (this.getPitch() * ROTATION_FACTOR));
         }
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
             this.writeBoolean(this.onGround);
@@ -127,9 +210,45 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
     @Override
     public void copy(WrapperPlayServerEntityTeleport wrapper) {
         this.entityID = wrapper.entityID;
+        this.x = wrapper.x;
+        this.y = wrapper.y;
+        this.z = wrapper.z;
+        this.deltaX = wrapper.deltaX;
+        this.deltaY = wrapper.deltaY;
+        this.deltaZ = wrapper.deltaZ;
+        this.yaw = wrapper.yaw;
+        this.pitch = wrapper.pitch;
         this.values = wrapper.values;
         this.relativeFlags = wrapper.relativeFlags;
         this.onGround = wrapper.onGround;
+        this.entityIdIndex = wrapper.entityIdIndex;
+        this.positionIndex = wrapper.positionIndex;
+        this.deltaIndex = wrapper.deltaIndex;
+        this.rotationIndex = wrapper.rotationIndex;
+        this.relativeFlagsIndex = wrapper.relativeFlagsIndex;
+        this.onGroundIndex = wrapper.onGroundIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
+    }
+
+    @Override
+    public boolean isReEncodeRequired() {
+        if (super.isReEncodeRequired()) {
+            return true;
+        }
+        // the values returned by getValues() may have been modified without calling a setter
+        EntityPositionData values = this.values;
+        if (values == null) {
+            return false;
+        }
+        Vector3d position = values.getPosition();
+        Vector3d delta = values.getDeltaMovement();
+        return position.x != this.x || position.y != this.y || position.z != this.z
+                || delta.x != this.deltaX || delta.y != this.deltaY || delta.z != this.deltaZ
+                || values.getYaw() != this.yaw || values.getPitch() != this.pitch;
     }
 
     public int getEntityId() {
@@ -137,55 +256,176 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
     }
 
     public void setEntityId(int entityID) {
+        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            this.patchVarInt(this.entityIdIndex, this.entityID, entityID);
+        } else {
+            this.patchInt(this.entityIdIndex, entityID);
+        }
         this.entityID = entityID;
     }
 
+    /**
+     * The returned values are mutable, the packet is re-encoded if they have been modified
+     * instead of using the setters once all listeners have been called.
+     */
     public EntityPositionData getValues() {
+        if (this.values == null) {
+            this.values = new EntityPositionData(new Vector3d(this.x, this.y, this.z),
+                    new Vector3d(this.deltaX, this.deltaY, this.deltaZ), this.yaw, this.pitch);
+        }
         return this.values;
     }
 
     public void setValues(EntityPositionData values) {
         this.values = values;
+        this.setPosition(values.getPosition().x, values.getPosition().y, values.getPosition().z);
+        this.setDeltaMovement(values.getDeltaMovement().x, values.getDeltaMovement().y, values.getDeltaMovement().z);
+        this.setYaw(values.getYaw());
+        this.setPitch(values.getPitch());
     }
 
     public Vector3d getPosition() {
-        return this.values.getPosition();
+        return this.values != null ? this.values.getPosition() : new Vector3d(this.x, this.y, this.z);
     }
 
     public void setPosition(Vector3d position) {
-        this.values.setPosition(position);
+        this.setPosition(position.x, position.y, position.z);
+    }
+
+    public double getX() {
+        return this.values != null ? this.values.getPosition().x : this.x;
+    }
+
+    public double getY() {
+        return this.values != null ? this.values.getPosition().y : this.y;
+    }
+
+    public double getZ() {
+        return this.values != null ? this.values.getPosition().z : this.z;
+    }
+
+    public void setPosition(double x, double y, double z) {
+        if (this.values != null) {
+            this.values.setPosition(new Vector3d(x, y, z));
+        }
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.patchPosition(x, y, z);
     }
 
     public Vector3d getDeltaMovement() {
-        return this.values.getDeltaMovement();
+        return this.values != null ? this.values.getDeltaMovement() : new Vector3d(this.deltaX, this.deltaY, this.deltaZ);
     }
 
     public void setDeltaMovement(Vector3d deltaMovement) {
-        this.values.setDeltaMovement(deltaMovement);
+        this.setDeltaMovement(deltaMovement.x, deltaMovement.y, deltaMovement.z);
+    }
+
+    public double getDeltaX() {
+        return this.values != null ? this.values.getDeltaMovement().x : this.deltaX;
+    }
+
+    public double getDeltaY() {
+        return this.values != null ? this.values.getDeltaMovement().y : this.deltaY;
+    }
+
+    public double getDeltaZ() {
+        return this.values != null ? this.values.getDeltaMovement().z : this.deltaZ;
+    }
+
+    public void setDeltaMovement(double deltaX, double deltaY, double deltaZ) {
+        if (this.values != null) {
+            this.values.setDeltaMovement(new Vector3d(deltaX, deltaY, deltaZ));
+        }
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+        this.deltaZ = deltaZ;
+        this.patchDeltaMovement(deltaX, deltaY, deltaZ);
     }
 
     public float getYaw() {
-        return this.values.getYaw();
+        return this.values != null ? this.values.getYaw() : this.yaw;
     }
 
     public void setYaw(float yaw) {
-        this.values.setYaw(yaw);
+        if (this.values != null) {
+            this.values.setYaw(yaw);
+        }
+        this.yaw = yaw;
+        this.patchRotation(0, yaw);
     }
 
     public float getPitch() {
-        return this.values.getPitch();
+        return this.values != null ? this.values.getPitch() : this.pitch;
     }
 
     public void setPitch(float pitch) {
-        this.values.setPitch(pitch);
+        if (this.values != null) {
+            this.values.setPitch(pitch);
+        }
+        this.pitch = pitch;
+        this.patchRotation(1, pitch);
+    }
+
+    private void patchPosition(double x, double y, double z) {
+        if (this.positionIndex < 0) {
+            this.requireReEncode();
+        } else if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            this.patchDouble(this.positionIndex, x);
+            this.patchDouble(this.positionIndex + 8, y);
+            this.patchDouble(this.positionIndex + 16, z);
+        } else {
+            this.patchInt(this.positionIndex, MathUtil.floor(x * 32d));
+            this.patchInt(this.positionIndex + 4, MathUtil.floor(y * 32d));
+            this.patchInt(this.positionIndex + 8, MathUtil.floor(z * 32d));
+        }
+    }
+
+    private void patchDeltaMovement(double deltaX, double deltaY, double deltaZ) {
+        if (this.serverVersion.isOlderThan(ServerVersion.V_1_21_2)) {
+            // the delta movement isn't sent before 1.21.2
+            return;
+        }
+        if (this.deltaIndex < 0) {
+            this.requireReEncode();
+        } else {
+            this.patchDouble(this.deltaIndex, deltaX);
+            this.patchDouble(this.deltaIndex + 8, deltaY);
+            this.patchDouble(this.deltaIndex + 16, deltaZ);
+        }
+    }
+
+    private void patchRotation(int component, float value) {
+        if (this.rotationIndex < 0) {
+            this.requireReEncode();
+        } else if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
+            this.patchFloat(this.rotationIndex + component * 4, value);
+        } else {
+            this.patchByte(this.rotationIndex + component, (int) (value * ROTATION_FACTOR));
+        }
     }
 
     public RelativeFlag getRelativeFlags() {
-        return this.relativeFlags;
+        return new RelativeFlag(this.relativeFlags);
     }
 
     public void setRelativeFlags(RelativeFlag relativeFlags) {
+        this.setRelativeMask(relativeFlags.getFullMask());
+    }
+
+    /**
+     * Added with 1.21.2
+     *
+     * @return the {@link RelativeFlag} mask, as sent over the network
+     */
+    public int getRelativeMask() {
+        return this.relativeFlags;
+    }
+
+    public void setRelativeMask(int relativeFlags) {
         this.relativeFlags = relativeFlags;
+        this.patchInt(this.relativeFlagsIndex, relativeFlags);
     }
 
     public boolean isOnGround() {
@@ -194,5 +434,6 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
 
     public void setOnGround(boolean onGround) {
         this.onGround = onGround;
+        this.patchByte(this.onGroundIndex, onGround ? 1 : 0);
     }
 }
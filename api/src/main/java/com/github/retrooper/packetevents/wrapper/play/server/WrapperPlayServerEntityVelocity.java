@@ -36,6 +36,9 @@ public class WrapperPlayServerEntityVelocity extends PacketWrapper<WrapperPlaySe
 
     private int entityID;
     private Vector3d velocity;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int entityIdIndex = -1;
+    private int velocityIndex = -1;
 
     public WrapperPlayServerEntityVelocity(PacketSendEvent event) {
         super(event);
@@ -49,11 +52,13 @@ public class WrapperPlayServerEntityVelocity extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        entityIdIndex = getFieldIndex();
         if (serverVersion == ServerVersion.V_1_7_10) {
             entityID = readInt();
         } else {
             entityID = readVarInt();
         }
+        velocityIndex = getFieldIndex();
         double velX = (double) this.readShort() / 8000d;
         double velY = (double) this.readShort() / 8000d;
         double velZ = (double) this.readShort() / 8000d;
@@ -67,15 +72,26 @@ public class WrapperPlayServerEntityVelocity extends PacketWrapper<WrapperPlaySe
         } else {
             writeVarInt(entityID);
         }
-        this.writeShort((int) (this.velocity.x * 8000d + Math.copySign(PRECISION_LOSS_FIX, this.velocity.x)));
-        this.writeShort((int) (this.velocity.y * 8000d + Math.copySign(PRECISION_LOSS_FIX, this.velocity.y)));
-        this.writeShort((int) (this.velocity.z * 8000d + Math.copySign(PRECISION_LOSS_FIX, this.velocity.z)));
+        this.writeShort(toShort(this.velocity.x));
+        this.writeShort(toShort(this.velocity.y));
+        this.writeShort(toShort(this.velocity.z));
+    }
+
+    private static int toShort(double velocity) {
+        return (int) (velocity * 8000d + Math.copySign(PRECISION_LOSS_FIX, velocity));
     }
 
     @Override
     public void copy(WrapperPlayServerEntityVelocity wrapper) {
         entityID = wrapper.entityID;
         velocity = wrapper.velocity;
+        entityIdIndex = wrapper.entityIdIndex;
+        velocityIndex = wrapper.velocityIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getEntityId() {
@@ -83,6 +99,11 @@ public class WrapperPlayServerEntityVelocity extends PacketWrapper<WrapperPlaySe
     }
 
     public void setEntityId(int entityID) {
+        if (serverVersion == ServerVersion.V_1_7_10) {
+            patchInt(entityIdIndex, entityID);
+        } else {
+            patchVarInt(entityIdIndex, this.entityID, entityID);
+        }
         this.entityID = entityID;
     }
 
@@ -92,5 +113,12 @@ public class WrapperPlayServerEntityVelocity extends PacketWrapper<WrapperPlaySe
 
     public void setVelocity(Vector3d velocity) {
         this.velocity = velocity;
+        if (velocityIndex < 0) {
+            requireReEncode();
+        } else {
+            patchShort(velocityIndex, toShort(velocity.x));
+            patchShort(velocityIndex + 2, toShort(velocity.y));
+            patchShort(velocityIndex + 4, toShort(velocity.z));
+        }
     }
 }
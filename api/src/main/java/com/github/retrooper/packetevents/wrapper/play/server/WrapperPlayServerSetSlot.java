@@ -29,6 +29,10 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
     private int stateID;
     private int slot;
     private ItemStack item;
+    // Buffer indices of the fields, -1 if they haven't been read from a buffer
+    private int windowIdIndex = -1;
+    private int stateIdIndex = -1;
+    private int slotIndex = -1;
 
     public WrapperPlayServerSetSlot(PacketSendEvent event) {
         super(event);
@@ -44,10 +48,13 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
 
     @Override
     public void read() {
+        this.windowIdIndex = this.getFieldIndex();
         this.windowID = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2) ? this.readContainerId() : this.readByte();
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17_1)) {
+            stateIdIndex = getFieldIndex();
             stateID = readVarInt();
         }
+        slotIndex = getFieldIndex();
         slot = readShort();
         item = readItemStack();
     }
@@ -68,6 +75,14 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
         stateID = wrapper.stateID;
         slot = wrapper.slot;
         item = wrapper.item;
+        windowIdIndex = wrapper.windowIdIndex;
+        stateIdIndex = wrapper.stateIdIndex;
+        slotIndex = wrapper.slotIndex;
+    }
+
+    @Override
+    public boolean isPatchable() {
+        return true;
     }
 
     public int getWindowId() {
@@ -75,6 +90,11 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
     }
 
     public void setWindowId(int windowID) {
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
+            patchVarInt(windowIdIndex, this.windowID, windowID);
+        } else {
+            patchByte(windowIdIndex, windowID);
+        }
         this.windowID = windowID;
     }
 
@@ -83,6 +103,7 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
     }
 
     public void setStateId(int stateID) {
+        patchVarInt(stateIdIndex, this.stateID, stateID);
         this.stateID = stateID;
     }
 
@@ -92,13 +113,28 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
 
     public void setSlot(int slot) {
         this.slot = slot;
+        patchShort(slotIndex, slot);
     }
 
+    /**
+     * The returned item is mutable, so calling this marks the packet for re-encoding.
+     * Use {@link #peekItem()} to only read it.
+     */
     public ItemStack getItem() {
+        // the item is mutable, changes to it can't be written in place
+        requireReEncode();
+        return item;
+    }
+
+    /**
+     * Returns the item without marking the packet for re-encoding, it must not be modified.
+     */
+    public ItemStack peekItem() {
         return item;
     }
 
     public void setItem(ItemStack item) {
         this.item = item;
+        requireReEncode();
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BitStorage;
+import com.github.retrooper.packetevents.protocol.world.states.BlockStateRemapper;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BlockStateRemapperTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Remap a global palette section and decode it back")
+    public void testGlobalPaletteRemap() {
+        DataPalette palette = DataPalette.createForChunk();
+        int[] original = new int[4096];
+        for (int i = 0; i < original.length; i++) {
+            // enough distinct states to exceed the map palette
+            original[i] = 1 + i * 5;
+            palette.set(i & 15, i >> 8, (i >> 4) & 15, original[i]);
+        }
+        assertInstanceOf(GlobalPalette.class, palette.palette);
+
+        BlockStateRemapper remapper = BlockStateRemapper.get(ClientVersion.V_1_20_5, ClientVersion.V_1_13);
+        // 1.13 has 8598 block states, so the client reads 14 bits per entry
+        assertEquals(14, remapper.getGlobalBitsPerEntry());
+        remapper.remap(palette);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataPalette.write(new NetStreamOutput(bytes), palette);
+        DataPalette decoded = DataPalette.read(new NetStreamInput(new ByteArrayInputStream(bytes.toByteArray())),
+                PaletteType.CHUNK);
+
+        assertEquals(remapper.getGlobalBitsPerEntry(), decoded.storage.getBitsPerEntry());
+        for (int i = 0; i < original.length; i++) {
+            assertEquals(remapper.remap(original[i]), decoded.get(i & 15, i >> 8, (i >> 4) & 15));
+        }
+    }
+
+    @Test
+    @DisplayName("Remap a global palette storage into the width of the target version")
+    public void testGlobalStorageRemap() {
+        BitStorage storage = new BitStorage(15, 4096);
+        for (int i = 0; i < storage.getSize(); i++) {
+            storage.set(i, i * 3);
+        }
+        BlockStateRemapper remapper = BlockStateRemapper.get(ClientVersion.V_1_20_5, ClientVersion.V_1_13);
+        BitStorage remapped = remapper.remap(storage);
+        assertEquals(remapper.getGlobalBitsPerEntry(), remapped.getBitsPerEntry());
+        for (int i = 0; i < remapped.getSize(); i++) {
+            assertEquals(remapper.remap(i * 3), remapped.get(i));
+        }
+
+        BlockStateRemapper identity = BlockStateRemapper.get(ClientVersion.V_1_20_5, ClientVersion.V_1_20_5);
+        assertSame(storage, identity.remap(storage));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.states.BlockStateTable;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.enums.East;
+import com.github.retrooper.packetevents.protocol.world.states.enums.North;
+import com.github.retrooper.packetevents.protocol.world.states.enums.Orientation;
+import com.github.retrooper.packetevents.protocol.world.states.enums.South;
+import com.github.retrooper.packetevents.protocol.world.states.enums.West;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateValue;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockStateTableTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Look up default states and properties by global id")
+    public void testLookup() {
+        BlockStateTable table = BlockStateTable.get(ClientVersion.V_1_20_5);
+        assertSame(table, BlockStateTable.get(ClientVersion.V_1_20_5));
+
+        int stone = table.getDefaultState(StateTypes.STONE);
+        assertEquals(1, stone);
+        assertTrue(table.isValid(stone));
+        assertSame(StateTypes.STONE, table.getType(stone));
+        assertFalse(table.has(stone, StateValue.POWER));
+        assertNull(table.get(stone, StateValue.POWER));
+
+        int heavyCore = table.getDefaultState(StateTypes.HEAVY_CORE);
+        assertEquals(26683, heavyCore);
+        assertEquals(Boolean.FALSE, table.get(heavyCore, StateValue.WATERLOGGED));
+        assertEquals(26682, table.with(heavyCore, StateValue.WATERLOGGED, true));
+
+        assertFalse(table.isValid(-1));
+        assertFalse(table.isValid(Integer.MAX_VALUE));
+        assertNull(table.getType(Integer.MAX_VALUE));
+        assertEquals(26683, table.toWrapped(heavyCore).getGlobalId());
+    }
+
+    @Test
+    @DisplayName("Change properties of a state without allocating wrappers")
+    public void testWith() {
+        BlockStateTable table = BlockStateTable.get(ClientVersion.V_1_20_5);
+
+        int crafter = table.getDefaultState(StateTypes.CRAFTER);
+        assertEquals(26617, table.with(crafter, StateValue.ORIENTATION, Orientation.DOWN_NORTH));
+
+        int redstone = table.getDefaultState(StateTypes.REDSTONE_WIRE);
+        redstone = table.with(redstone, StateValue.EAST, East.UP);
+        redstone = table.with(redstone, StateValue.NORTH, North.UP);
+        redstone = table.with(redstone, StateValue.WEST, West.SIDE);
+        redstone = table.with(redstone, StateValue.SOUTH, South.UP);
+        redstone = table.with(redstone, StateValue.POWER, 5);
+        assertEquals(3024, redstone);
+        assertEquals(5, table.get(redstone, StateValue.POWER));
+        assertEquals(East.UP, table.get(redstone, StateValue.EAST));
+
+        // missing properties and impossible values
+        assertEquals(-1, table.with(redstone, StateValue.WATERLOGGED, true));
+        assertEquals(-1, table.with(redstone, StateValue.POWER, 16));
+        assertEquals(-1, table.with(-1, StateValue.POWER, 5));
+    }
+
+    @Test
+    @DisplayName("Match the wrapped block states for every global id")
+    public void testMatchesWrappedStates() {
+        ClientVersion version = ClientVersion.V_1_20_5;
+        BlockStateTable table = BlockStateTable.get(version);
+        // modern global ids are contiguous
+        int id = 0;
+        for (; table.isValid(id); id++) {
+            WrappedBlockState state = WrappedBlockState.getByGlobalId(version, id);
+            assertEquals(id, state.getGlobalId());
+            assertSame(state.getType(), table.getType(id));
+            for (Map.Entry<StateValue, Object> entry : state.getInternalData().entrySet()) {
+                assertTrue(table.has(id, entry.getKey()));
+                assertEquals(entry.getValue(), table.get(id, entry.getKey()));
+                assertEquals(id, table.with(id, entry.getKey(), entry.getValue()));
+            }
+        }
+        assertTrue(id > table.getDefaultState(StateTypes.HEAVY_CORE));
+    }
+}
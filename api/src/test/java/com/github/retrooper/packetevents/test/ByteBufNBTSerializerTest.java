@@ -0,0 +1,145 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ByteBufNBTSerializerTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Verify strings are encoded like the stream serializer")
+    public void testStringRoundTrip() throws IOException {
+        String[] strings = {
+                "",
+                "minecraft:stone",
+                "nul\u0000in the middle",
+                "\u0000",
+                "\u00e4\u00f6\u00fc \u20ac \u4e16\u754c",
+                // a surrogate pair is encoded as two 3-byte characters, not as one 4-byte character
+                "smile \uD83D\uDE00",
+                "unpaired \uD83D and \uDE00",
+                repeat('a', 0xFFFF),
+                // 3 bytes per character, 65535 bytes in total
+                repeat('\u20ac', 0xFFFF / 3),
+                // 2 bytes per character, 65534 bytes in total
+                repeat('\u0000', 0xFFFF / 2)
+        };
+        for (String string : strings) {
+            NBTCompound tag = new NBTCompound();
+            tag.setTag(string, new NBTString(string));
+            tag.setTag("value", new NBTString(string));
+
+            byte[] expected = writeStream(tag);
+            byte[] actual = writeBuffer(tag);
+            assertArrayEquals(expected, actual);
+
+            assertEquals(tag, readBuffer(expected));
+            assertEquals(tag, readStream(actual));
+        }
+    }
+
+    @Test
+    @DisplayName("Verify strings over 65535 bytes are rejected like by the stream serializer")
+    public void testStringTooLong() {
+        String[] strings = {
+                repeat('a', 0xFFFF + 1),
+                repeat('\u20ac', 0xFFFF / 3 + 1),
+                repeat('\u0000', 0xFFFF / 2 + 1)
+        };
+        for (String string : strings) {
+            NBTCompound tag = new NBTCompound();
+            tag.setTag("value", new NBTString(string));
+            assertThrows(UTFDataFormatException.class, () -> writeStream(tag));
+            assertThrows(UTFDataFormatException.class, () -> writeBuffer(tag));
+        }
+    }
+
+    @Test
+    @DisplayName("Verify malformed strings are rejected")
+    public void testMalformedString() {
+        // a compound with an unnamed string tag, whose value ends in the middle of a 3-byte character
+        byte[] bytes = {10, 0, 0, 8, 0, 0, 0, 2, (byte) 0xE2, (byte) 0x82, 0};
+        assertThrows(UTFDataFormatException.class, () -> readStream(bytes));
+        assertThrows(UTFDataFormatException.class, () -> readBuffer(bytes));
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static byte[] writeStream(NBT tag) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DefaultNBTSerializer.INSTANCE.serializeTag(new DataOutputStream(bytes), tag, true);
+        return bytes.toByteArray();
+    }
+
+    private static NBT readStream(byte[] bytes) throws IOException {
+        return DefaultNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.noop(),
+                new DataInputStream(new ByteArrayInputStream(bytes)), true);
+    }
+
+    private static byte[] writeBuffer(NBT tag) throws IOException {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        try {
+            serializer().serializeTag(buffer, tag, true);
+            return ByteBufHelper.copyBytes(buffer);
+        } finally {
+            ByteBufHelper.release(buffer);
+        }
+    }
+
+    private static NBT readBuffer(byte[] bytes) throws IOException {
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(bytes);
+        try {
+            return serializer().deserializeTag(NBTLimiter.noop(), buffer, true);
+        } finally {
+            ByteBufHelper.release(buffer);
+        }
+    }
+
+    private static ByteBufNBTSerializer serializer() {
+        return new ByteBufNBTSerializer(PacketEvents.getAPI().getNettyManager().getByteBufOperator());
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.ChunkCache;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkCacheTest extends BaseDummyAPITest {
+
+    // the sections of an overworld column since 1.18
+    private static final int SECTIONS = 24;
+    private static final int MIN_Y = -64;
+    // the slot mask of the column table before it grows for the first time
+    private static final int INITIAL_MASK = 63;
+
+    @Test
+    @DisplayName("Verify unloading a column keeps colliding columns reachable")
+    public void testUnloadBackshift() {
+        ChunkCache cache = createCache();
+        // columns sharing the last slot, so the probe sequence wraps around
+        int[] colliding = findChunkXs(INITIAL_MASK, 3);
+        int wrapped = findChunkXs(0, 1)[0];
+        for (int chunkX : colliding) {
+            cache.load(createColumn(chunkX, 0, chunkX));
+        }
+        cache.load(createColumn(wrapped, 0, wrapped));
+
+        assertTrue(cache.unload(colliding[0], 0));
+        assertFalse(cache.unload(colliding[0], 0));
+        assertFalse(cache.isLoaded(colliding[0], 0));
+        assertEquals(colliding[1], cache.getBlockId(colliding[1] << 4, MIN_Y, 0));
+        assertEquals(colliding[2], cache.getBlockId(colliding[2] << 4, MIN_Y, 0));
+        assertEquals(wrapped, cache.getBlockId(wrapped << 4, MIN_Y, 0));
+
+        assertTrue(cache.unload(colliding[1], 0));
+        assertEquals(colliding[2], cache.getBlockId(colliding[2] << 4, MIN_Y, 0));
+        assertEquals(wrapped, cache.getBlockId(wrapped << 4, MIN_Y, 0));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Verify columns stay reachable while the cache grows")
+    public void testRehash() {
+        ChunkCache cache = createCache();
+        List<int[]> positions = new ArrayList<>();
+        for (int x = -12; x < 12; x++) {
+            for (int z = -12; z < 12; z++) {
+                positions.add(new int[]{x, z});
+                cache.load(createColumn(x, z, positions.size()));
+            }
+        }
+        assertEquals(positions.size(), cache.size());
+        for (int i = 0; i < positions.size(); i += 2) {
+            assertTrue(cache.unload(positions.get(i)[0], positions.get(i)[1]));
+        }
+        for (int i = 0; i < positions.size(); i++) {
+            int[] position = positions.get(i);
+            int blockId = cache.getBlockId(position[0] << 4, MIN_Y, position[1] << 4);
+            assertEquals(i % 2 == 0 ? -1 : i + 1, blockId);
+        }
+        assertEquals(positions.size() / 2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertFalse(cache.isLoaded(1, 1));
+    }
+
+    @Test
+    @DisplayName("Verify a partial column only replaces the sections it contains")
+    public void testPartialColumn() {
+        ChunkCache cache = createCache();
+        cache.load(createColumn(0, 0, 1));
+
+        BaseChunk[] update = new BaseChunk[SECTIONS];
+        update[5] = createSection(2);
+        cache.load(new Column(0, 0, false, update, null));
+        assertEquals(1, cache.getBlockId(0, MIN_Y, 0));
+        assertEquals(2, cache.getBlockId(0, MIN_Y + 5 * 16, 0));
+        assertEquals(0, cache.getBlockId(0, MIN_Y + 6 * 16, 0));
+
+        // a partial column which isn't cached yet is cached as is
+        cache.load(new Column(1, 0, false, update, null));
+        assertEquals(2, cache.getBlockId(16, MIN_Y + 5 * 16, 0));
+        assertEquals(0, cache.getBlockId(16, MIN_Y, 0));
+
+        // a full column replaces all sections
+        cache.load(new Column(0, 0, true, update, null));
+        assertEquals(0, cache.getBlockId(0, MIN_Y, 0));
+        assertEquals(2, cache.getBlockId(0, MIN_Y + 5 * 16, 0));
+    }
+
+    @Test
+    @DisplayName("Verify block positions map to the right sections below y 0")
+    public void testBlockPositions() {
+        ChunkCache cache = createCache();
+        BaseChunk[] sections = new BaseChunk[SECTIONS];
+        cache.load(new Column(-1, 0, true, sections, null));
+
+        assertEquals(0, cache.getBlockId(-1, MIN_Y, 0));
+        assertEquals(-1, cache.getBlockId(-1, MIN_Y - 1, 0));
+        assertEquals(-1, cache.getBlockId(-1, MIN_Y + SECTIONS * 16, 0));
+        assertEquals(-1, cache.getBlockId(0, MIN_Y, 0));
+
+        // setting air into an empty section doesn't create it
+        cache.setBlockId(-1, MIN_Y, 0, 0);
+        assertNull(cache.getSections(-1, 0)[0]);
+
+        cache.setBlockId(-16, MIN_Y, 0, 3);
+        cache.setBlockId(-1, MIN_Y + 15, 15, 4);
+        cache.setBlockId(-1, MIN_Y + 16, 0, 5);
+        cache.setBlockId(-1, -1, 15, 6);
+        cache.setBlockId(-1, 0, 0, 7);
+        cache.setBlockId(-1, MIN_Y + SECTIONS * 16 - 1, 0, 8);
+        // outside of the column or the world
+        cache.setBlockId(0, 0, 0, 9);
+        cache.setBlockId(-1, MIN_Y + SECTIONS * 16, 0, 9);
+
+        assertEquals(3, cache.getBlockId(-16, MIN_Y, 0));
+        assertEquals(4, cache.getBlockId(-1, MIN_Y + 15, 15));
+        assertEquals(5, cache.getBlockId(-1, MIN_Y + 16, 0));
+        assertEquals(6, cache.getBlockId(-1, -1, 15));
+        assertEquals(7, cache.getBlockId(-1, 0, 0));
+        assertEquals(8, cache.getBlockId(-1, MIN_Y + SECTIONS * 16 - 1, 0));
+        assertEquals(-1, cache.getBlockId(0, 0, 0));
+        assertEquals(0, cache.getBlockId(-1, MIN_Y + 1, 0));
+
+        BaseChunk[] cached = cache.getSections(-1, 0);
+        assertNotNull(cached[0]);
+        assertNotNull(cached[1]);
+        assertNotNull(cached[3]);
+        assertNotNull(cached[4]);
+        assertNull(cached[2]);
+        // the sections of the packet aren't modified
+        assertNull(sections[0]);
+        assertSame(cached[0], cache.getSections(-1, 0)[0]);
+    }
+
+    private static ChunkCache createCache() {
+        User user = new User(null, ConnectionState.PLAY, ClientVersion.V_1_20_5, null);
+        assertEquals(MIN_Y, user.getMinWorldHeight());
+        return new ChunkCache(user);
+    }
+
+    // a column whose lowest section is filled with the given block
+    private static Column createColumn(int chunkX, int chunkZ, int blockId) {
+        BaseChunk[] sections = new BaseChunk[SECTIONS];
+        sections[0] = createSection(blockId);
+        return new Column(chunkX, chunkZ, true, sections, null);
+    }
+
+    private static Chunk_v1_18 createSection(int blockId) {
+        Chunk_v1_18 section = new Chunk_v1_18();
+        section.getChunkData().fill(blockId);
+        section.setBlockCount(4096);
+        return section;
+    }
+
+    // finds chunk x coordinates (at z 0) whose home slot in the initial table is the given slot,
+    // mirroring the hash of the cache
+    private static int[] findChunkXs(int slot, int count) {
+        int[] chunkXs = new int[count];
+        int found = 0;
+        for (int chunkX = 1; found < count; chunkX++) {
+            long hash = PacketWrapper.getChunkKey(chunkX, 0) * 0x9E3779B97F4A7C15L;
+            if (((int) (hash ^ (hash >>> 32)) & INITIAL_MASK) == slot) {
+                chunkXs[found++] = chunkX;
+            }
+        }
+        return chunkXs;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.SingletonPalette;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataPaletteTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Verify bulk operations which don't change anything keep the palette shared")
+    public void testNoOpKeepsSharing() {
+        DataPalette original = createPalette(4);
+        DataPalette copy = original.sharedCopy();
+
+        copy.replaceAll(100, 1);
+        copy.remap(IntUnaryOperator.identity());
+        assertTrue(copy.isShared());
+        assertSame(original.palette, copy.palette);
+        assertSame(original.storage, copy.storage);
+
+        // only the palette changes, the storage can stay shared
+        copy.replaceAll(1, 100);
+        assertNotSame(original.palette, copy.palette);
+        assertSame(original.storage, copy.storage);
+        assertEquals(100, copy.get(0, 0, 0));
+        assertEquals(1, original.get(0, 0, 0));
+
+        // merging two states changes the ids, so the storage gets copied
+        copy.replaceAll(2, 100);
+        assertNotSame(original.storage, copy.storage);
+        assertEquals(100, copy.get(1, 0, 0));
+        assertEquals(2, original.get(1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Verify bulk operations on a shared global palette only copy the storage if a state changes")
+    public void testGlobalPaletteSharing() {
+        DataPalette original = createPalette(300);
+        assertInstanceOf(GlobalPalette.class, original.palette);
+        DataPalette copy = original.sharedCopy();
+
+        copy.replaceAll(1000, 1);
+        copy.remap(IntUnaryOperator.identity());
+        assertSame(original.storage, copy.storage);
+
+        copy.replaceAll(1, 1000);
+        assertNotSame(original.storage, copy.storage);
+        assertEquals(1000, copy.get(0, 0, 0));
+        assertEquals(1, original.get(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Verify replacing a state which merges with an existing state rewrites the storage")
+    public void testReplaceAllMerge() {
+        DataPalette palette = createPalette(20);
+        palette.replaceAll(2, 3);
+        palette.replaceAll(20, 1);
+        int[] expected = expectedStates(20);
+        for (int index = 0; index < expected.length; index++) {
+            if (expected[index] == 2) {
+                expected[index] = 3;
+            } else if (expected[index] == 20) {
+                expected[index] = 1;
+            }
+        }
+        assertStates(expected, palette);
+        assertEquals(18, palette.palette.size());
+    }
+
+    @Test
+    @DisplayName("Verify replacing a state of a global palette")
+    public void testReplaceAllGlobal() {
+        DataPalette palette = createPalette(300);
+        assertInstanceOf(GlobalPalette.class, palette.palette);
+        palette.replaceAll(5, 7);
+        int[] expected = expectedStates(300);
+        for (int index = 0; index < expected.length; index++) {
+            if (expected[index] == 5) {
+                expected[index] = 7;
+            }
+        }
+        assertStates(expected, palette);
+    }
+
+    @Test
+    @DisplayName("Verify filling without a singleton palette keeps a storage")
+    public void testFillWithoutSingleton() {
+        DataPalette palette = createPalette(300);
+        palette.fill(9, false);
+        assertNotNull(palette.storage);
+        assertEquals(4, palette.storage.getBitsPerEntry());
+        assertEquals(1, palette.palette.size());
+        for (int index = 0; index < 4096; index++) {
+            assertEquals(9, palette.get(index & 15, index >> 8, (index >> 4) & 15));
+        }
+        palette.set(1, 2, 3, 4);
+        assertEquals(4, palette.get(1, 2, 3));
+
+        palette.fill(9);
+        assertInstanceOf(SingletonPalette.class, palette.palette);
+        assertNull(palette.storage);
+    }
+
+    @Test
+    @DisplayName("Verify forEach visits the entries in storage order")
+    public void testForEachOrder() {
+        DataPalette palette = createPalette(20);
+        int[] expected = expectedStates(20);
+        int[] next = new int[1];
+        palette.forEach((index, state) -> {
+            assertEquals(next[0]++, index);
+            assertEquals(expected[index], state);
+            assertEquals(palette.get(index & 15, index >> 8, (index >> 4) & 15), state);
+        });
+        assertEquals(4096, next[0]);
+    }
+
+    @Test
+    @DisplayName("Verify histograms are indexed by palette id, also if the storage is wider than the palette")
+    public void testHistogram() {
+        // 4 bits per entry for a single state
+        DataPalette filled = createPalette(1);
+        filled.fill(9, false);
+        assertArrayEquals(new int[]{4096}, filled.histogram());
+
+        // merging states shrinks the palette, but the storage keeps its width
+        DataPalette merged = createPalette(20);
+        int bitsPerEntry = merged.storage.getBitsPerEntry();
+        for (int state = 2; state <= 20; state++) {
+            merged.replaceAll(state, 1);
+        }
+        assertEquals(bitsPerEntry, merged.storage.getBitsPerEntry());
+        int[] histogram = merged.histogram();
+        assertEquals(merged.palette.size(), histogram.length);
+        assertEquals(4096, histogram[merged.palette.stateToId(1)]);
+
+        DataPalette global = createPalette(300);
+        histogram = global.histogram();
+        assertEquals(1 << global.storage.getBitsPerEntry(), histogram.length);
+        int[] expected = expectedStates(300);
+        int[] counts = new int[histogram.length];
+        for (int state : expected) {
+            counts[state]++;
+        }
+        assertArrayEquals(counts, histogram);
+
+        DataPalette singleton = createPalette(1);
+        singleton.fill(9);
+        assertArrayEquals(new int[]{4096}, singleton.histogram());
+    }
+
+    private static void assertStates(int[] expected, DataPalette palette) {
+        for (int index = 0; index < expected.length; index++) {
+            assertEquals(expected[index], palette.get(index & 15, index >> 8, (index >> 4) & 15));
+        }
+    }
+
+    private static int[] expectedStates(int distinctStates) {
+        int[] states = new int[4096];
+        for (int index = 0; index < states.length; index++) {
+            states[index] = 1 + index % distinctStates;
+        }
+        return states;
+    }
+
+    // sets the entries to the states 1 to distinctStates, one after another in storage order
+    private static DataPalette createPalette(int distinctStates) {
+        DataPalette palette = DataPalette.createForChunk();
+        for (int index = 0; index < 4096; index++) {
+            palette.set(index & 15, index >> 8, (index >> 4) & 15, 1 + index % distinctStates);
+        }
+        return palette;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.tracker.EntityTracker;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntityTrackerTest extends BaseDummyAPITest {
+
+    private static final ServerVersion VERSION = ServerVersion.V_1_20_5;
+    // the slot mask of the id table as long as at most 16 entities are tracked
+    private static final int INITIAL_MASK = 31;
+
+    @Test
+    @DisplayName("Verify removing an entity keeps colliding entities reachable")
+    public void testRemoveBackshift() {
+        EntityTracker tracker = new EntityTracker();
+        // three ids sharing the last slot, so the probe sequence wraps around,
+        // and one id whose home slot is taken by the wrapped entries
+        int[] colliding = findIds(INITIAL_MASK, 3);
+        int wrapped = findIds(0, 1)[0];
+        for (int entityId : colliding) {
+            spawn(tracker, entityId);
+        }
+        spawn(tracker, wrapped);
+
+        assertTrue(tracker.remove(colliding[0]));
+        assertFalse(tracker.isTracked(colliding[0]));
+        assertEquals(colliding[1], (int) tracker.getX(colliding[1]));
+        assertEquals(colliding[2], (int) tracker.getX(colliding[2]));
+        assertEquals(wrapped, (int) tracker.getX(wrapped));
+
+        assertTrue(tracker.remove(colliding[2]));
+        assertFalse(tracker.remove(colliding[2]));
+        assertEquals(colliding[1], (int) tracker.getX(colliding[1]));
+        assertEquals(wrapped, (int) tracker.getX(wrapped));
+        assertEquals(2, tracker.size());
+
+        // freed slots are reused
+        spawn(tracker, colliding[0]);
+        assertEquals(colliding[0], (int) tracker.getX(colliding[0]));
+        assertEquals(3, tracker.size());
+    }
+
+    @Test
+    @DisplayName("Verify removing an entity moves the last entity with all of its data")
+    public void testRemoveSwapsLast() {
+        EntityTracker tracker = new EntityTracker();
+        UUID uuid = new UUID(1L, 2L);
+        tracker.spawn(1, null, EntityTypes.PIG, 1, 1, 1, 0f, 0f);
+        tracker.spawn(2, null, EntityTypes.COW, 2, 2, 2, 0f, 0f);
+        tracker.spawn(3, uuid, EntityTypes.ZOMBIE, 3, 4, 5, 10f, 20f);
+        tracker.rotateHead(3, 30f);
+        tracker.updateMetadata(3, Collections.singletonList(new EntityData(0, EntityDataTypes.BYTE, (byte) 1)));
+
+        assertTrue(tracker.remove(1));
+        assertArrayEquals(new int[]{3, 2}, tracker.getEntityIds());
+        assertSame(EntityTypes.ZOMBIE, tracker.getEntityType(3));
+        assertEquals(uuid, tracker.getUUID(3));
+        assertEquals(3, tracker.getX(3));
+        assertEquals(4, tracker.getY(3));
+        assertEquals(5, tracker.getZ(3));
+        assertEquals(10f, tracker.getYaw(3));
+        assertEquals(20f, tracker.getPitch(3));
+        assertEquals(30f, tracker.getHeadYaw(3));
+        assertEquals((byte) 1, tracker.getMetadata(3, 0).getValue());
+        assertSame(EntityTypes.COW, tracker.getEntityType(2));
+        assertNull(tracker.getEntityType(1));
+        assertTrue(Double.isNaN(tracker.getX(1)));
+    }
+
+    @Test
+    @DisplayName("Verify entities stay reachable while the tracker grows")
+    public void testGrowth() {
+        EntityTracker tracker = new EntityTracker();
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            // spread the ids, so they collide in different ways
+            spawn(tracker, i * 37 - 500);
+        }
+        assertEquals(count, tracker.size());
+        for (int i = 0; i < count; i += 3) {
+            assertTrue(tracker.remove(i * 37 - 500));
+        }
+        for (int i = 0; i < count; i++) {
+            int entityId = i * 37 - 500;
+            if (i % 3 == 0) {
+                assertFalse(tracker.isTracked(entityId));
+            } else {
+                assertEquals(entityId, (int) tracker.getX(entityId));
+            }
+        }
+        assertEquals(count - (count + 2) / 3, tracker.size());
+
+        tracker.clear();
+        assertEquals(0, tracker.size());
+        assertFalse(tracker.isTracked(1 * 37 - 500));
+    }
+
+    @Test
+    @DisplayName("Verify queued and decoded metadata are merged in the order they were received")
+    public void testMetadataMerge() {
+        EntityTracker tracker = new EntityTracker();
+        tracker.updateMetadata(1, VERSION, encode(new EntityData(0, EntityDataTypes.BYTE, (byte) 1)));
+        assertNull(tracker.getMetadata(1));
+
+        spawn(tracker, 1);
+        tracker.updateMetadata(1, VERSION, encode(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 1),
+                new EntityData(1, EntityDataTypes.INT, 5)));
+        tracker.updateMetadata(1, Collections.singletonList(new EntityData(0, EntityDataTypes.BYTE, (byte) 2)));
+        tracker.updateMetadata(1, VERSION, encode(new EntityData(1, EntityDataTypes.INT, 7)));
+
+        List<EntityData> metadata = tracker.getMetadata(1);
+        assertEquals(2, metadata.size());
+        assertEquals(0, metadata.get(0).getIndex());
+        assertEquals((byte) 2, metadata.get(0).getValue());
+        assertEquals(1, metadata.get(1).getIndex());
+        assertEquals(7, metadata.get(1).getValue());
+
+        // more updates than are kept pending still end up with the latest values
+        for (int i = 0; i < 20; i++) {
+            tracker.updateMetadata(1, VERSION, encode(new EntityData(1, EntityDataTypes.INT, i)));
+        }
+        assertEquals(19, tracker.getMetadata(1, 1).getValue());
+        assertEquals((byte) 2, tracker.getMetadata(1, 0).getValue());
+
+        // respawning drops the metadata
+        spawn(tracker, 1);
+        assertTrue(tracker.getMetadata(1).isEmpty());
+    }
+
+    private static void spawn(EntityTracker tracker, int entityId) {
+        tracker.spawn(entityId, null, EntityTypes.PIG, entityId, 0, 0, 0f, 0f);
+    }
+
+    // finds ids whose home slot in the initial table is the given slot, mirroring the hash of the tracker
+    private static int[] findIds(int slot, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int entityId = 1; ids.size() < count; entityId++) {
+            int hash = entityId * 0x9E3779B9;
+            if (((hash ^ (hash >>> 16)) & INITIAL_MASK) == slot) {
+                ids.add(entityId);
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static byte[] encode(EntityData... entityMetadata) {
+        PacketWrapper<?> wrapper = new PacketWrapper<>(ClientVersion.UNKNOWN, VERSION, -2);
+        wrapper.buffer = UnpooledByteBufAllocationHelper.buffer();
+        try {
+            wrapper.writeEntityMetadata(Arrays.asList(entityMetadata));
+            return ByteBufHelper.copyBytes(wrapper.buffer);
+        } finally {
+            ByteBufHelper.release(wrapper.buffer);
+        }
+    }
+}
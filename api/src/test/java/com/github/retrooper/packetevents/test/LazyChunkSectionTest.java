@@ -0,0 +1,157 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyChunkSectionTest extends BaseDummyAPITest {
+
+    // the palettes are read from the middle of the packet, like the chunk reader does
+    private static final int OFFSET = 3;
+
+    @Test
+    @DisplayName("Verify an untouched section is written back without being decoded")
+    public void testUntouchedSection() {
+        Chunk_v1_18 section = createSection();
+        byte[] palettes = writePalettes(section);
+        Chunk_v1_18 lazy = Chunk_v1_18.lazy(section.getBlockCount(), withPadding(palettes), OFFSET, palettes.length);
+
+        assertFalse(lazy.isDecoded());
+        assertArrayEquals(writeSection(section), writeSection(lazy));
+        assertFalse(lazy.isDecoded());
+    }
+
+    @Test
+    @DisplayName("Verify a section is decoded once it is accessed")
+    public void testDecodeOnAccess() {
+        Chunk_v1_18 section = createSection();
+        byte[] palettes = writePalettes(section);
+        Chunk_v1_18 lazy = Chunk_v1_18.lazy(section.getBlockCount(), withPadding(palettes), OFFSET, palettes.length);
+
+        assertEquals(section.getBlockId(1, 2, 3), lazy.getBlockId(1, 2, 3));
+        assertTrue(lazy.isDecoded());
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    assertEquals(section.getBlockId(x, y, z), lazy.getBlockId(x, y, z));
+                }
+            }
+        }
+        assertEquals(section.getBiomeData().get(1, 1, 1), lazy.getBiomeData().get(1, 1, 1));
+
+        lazy.set(0, 0, 0, 0);
+        lazy.set(15, 15, 15, 7);
+        assertEquals(section.getBlockCount(), lazy.getBlockCount());
+        assertEquals(7, lazy.getBlockId(15, 15, 15));
+        assertEquals(0, section.getBlockId(15, 15, 15));
+    }
+
+    @Test
+    @DisplayName("Verify interned sections don't see each other's changes")
+    public void testInternedSections() {
+        Chunk_v1_18 section = createSection();
+        byte[] palettes = writePalettes(section);
+        Chunk_v1_18 first = Chunk_v1_18.lazy(section.getBlockCount(), withPadding(palettes), OFFSET, palettes.length)
+                .intern();
+        Chunk_v1_18 second = Chunk_v1_18.lazy(section.getBlockCount(), withPadding(palettes), OFFSET, palettes.length)
+                .intern();
+        assertFalse(first.isDecoded());
+        assertArrayEquals(writeSection(section), writeSection(second));
+
+        first.set(4, 4, 4, 9);
+        assertEquals(9, first.getBlockId(4, 4, 4));
+        assertEquals(section.getBlockId(4, 4, 4), second.getBlockId(4, 4, 4));
+        assertArrayEquals(writeSection(section), writeSection(second));
+    }
+
+    @Test
+    @DisplayName("Verify sections interned after an identical section has been decoded share its palettes")
+    public void testInternAfterDecode() {
+        Chunk_v1_18 section = createSection();
+        byte[] palettes = writePalettes(section);
+        Chunk_v1_18 first = Chunk_v1_18.lazy(section.getBlockCount(), withPadding(palettes), OFFSET, palettes.length)
+                .intern();
+        DataPalette firstData = first.getChunkData();
+        assertTrue(first.isDecoded());
+        // only the decoded palettes still reference the interned data now
+        System.gc();
+
+        Chunk_v1_18 second = Chunk_v1_18.lazy(section.getBlockCount(), withPadding(palettes), OFFSET, palettes.length)
+                .intern();
+        DataPalette secondData = second.getChunkData();
+        assertSame(firstData.palette, secondData.palette);
+        assertSame(firstData.storage, secondData.storage);
+
+        first.set(4, 4, 4, 9);
+        assertNotSame(firstData.storage, secondData.storage);
+        assertEquals(section.getBlockId(4, 4, 4), second.getBlockId(4, 4, 4));
+        assertArrayEquals(writeSection(section), writeSection(second));
+    }
+
+    private static Chunk_v1_18 createSection() {
+        Chunk_v1_18 section = new Chunk_v1_18();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (((x ^ y ^ z) & 3) == 0) {
+                        section.set(x, y, z, 1 + (y & 3));
+                    }
+                }
+            }
+        }
+        section.getBiomeData().set(1, 1, 1, 5);
+        return section;
+    }
+
+    private static byte[] withPadding(byte[] palettes) {
+        byte[] data = new byte[OFFSET + palettes.length + 2];
+        Arrays.fill(data, (byte) 0x7F);
+        System.arraycopy(palettes, 0, data, OFFSET, palettes.length);
+        return data;
+    }
+
+    private static byte[] writePalettes(Chunk_v1_18 section) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NetStreamOutput out = new NetStreamOutput(bytes);
+        DataPalette.write(out, section.getChunkData());
+        DataPalette.write(out, section.getBiomeData());
+        return bytes.toByteArray();
+    }
+
+    private static byte[] writeSection(Chunk_v1_18 section) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Chunk_v1_18.write(new NetStreamOutput(bytes), section);
+        return bytes.toByteArray();
+    }
+}
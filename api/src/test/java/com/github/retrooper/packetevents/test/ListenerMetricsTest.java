@@ -0,0 +1,152 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.ListenerMetrics;
+import com.github.retrooper.packetevents.event.ListenerStats;
+import com.github.retrooper.packetevents.event.PacketListener;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.EventCreationUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ListenerMetricsTest extends BaseDummyAPITest {
+
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+    private static final int ALLOCATION_SIZE = 1 << 16;
+
+    // keeps the allocations of the listener from being optimized away
+    private static volatile byte[] sink;
+
+    @Test
+    @DisplayName("Verify calls, latencies and allocations are recorded per listener and packet type")
+    public void testRecordedStats() throws PacketProcessException {
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        ListenerMetrics metrics = eventManager.enableListenerMetrics();
+        try {
+            PacketListenerCommon slow = eventManager.registerListener(new PacketListener() {
+                @Override
+                public void onPacketReceive(PacketReceiveEvent event) {
+                    long end = System.nanoTime() + SLOW_NANOS;
+                    while (System.nanoTime() < end) {
+                        // busy wait, so the listener takes at least this long
+                    }
+                }
+            }, PacketListenerPriority.NORMAL);
+            PacketListenerCommon allocating = eventManager.registerListener(new PacketListener() {
+                @Override
+                public void onPacketReceive(PacketReceiveEvent event) {
+                    sink = new byte[ALLOCATION_SIZE];
+                }
+            }, PacketListenerPriority.NORMAL);
+
+            User user = new User(null, ConnectionState.STATUS, ClientVersion.V_1_20_5, null);
+            for (int i = 0; i < 50; i++) {
+                callStatusPacket(eventManager, user, PacketType.Status.Client.REQUEST.getId());
+            }
+            for (int i = 0; i < 5; i++) {
+                callStatusPacket(eventManager, user, PacketType.Status.Client.PING.getId());
+            }
+
+            List<ListenerStats> slowStats = metrics.getStats(slow);
+            assertEquals(2, slowStats.size());
+            // sorted by the total time, so the packet type which has been called more often comes first
+            ListenerStats requests = slowStats.get(0);
+            assertSame(PacketType.Status.Client.REQUEST, requests.getPacketType());
+            assertEquals(50L, requests.getInvocations());
+            assertTrue(requests.getTotalNanos() >= 50L * SLOW_NANOS);
+            assertTrue(requests.getAverageNanos() >= SLOW_NANOS);
+            // the p99 is the upper bound of a bucket, so it can't be below the latency of any invocation
+            assertTrue(requests.getP99Nanos() >= SLOW_NANOS);
+            assertSame(PacketType.Status.Client.PING, slowStats.get(1).getPacketType());
+            assertEquals(5L, slowStats.get(1).getInvocations());
+
+            // the slowest listener comes first over all listeners as well
+            assertSame(slow, metrics.getStats().get(0).getListener());
+
+            ListenerStats allocations = metrics.getStats(allocating).get(0);
+            if (ListenerMetrics.isAllocationTrackingSupported()) {
+                assertTrue(allocations.getAllocatedBytes() >= (long) allocations.getInvocations() * ALLOCATION_SIZE);
+            } else {
+                assertEquals(-1L, allocations.getAllocatedBytes());
+            }
+
+            metrics.reset();
+            assertTrue(metrics.getStats().isEmpty());
+        } finally {
+            eventManager.disableListenerMetrics();
+        }
+        assertNull(eventManager.getListenerMetrics());
+    }
+
+    @Test
+    @DisplayName("Verify nothing is recorded while metrics are disabled")
+    public void testDisabledMetrics() throws PacketProcessException {
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        eventManager.registerListener(new PacketListener() {
+        }, PacketListenerPriority.NORMAL);
+        User user = new User(null, ConnectionState.STATUS, ClientVersion.V_1_20_5, null);
+        callStatusPacket(eventManager, user, PacketType.Status.Client.REQUEST.getId());
+
+        ListenerMetrics metrics = eventManager.enableListenerMetrics();
+        assertNotNull(metrics);
+        assertSame(metrics, eventManager.enableListenerMetrics());
+        try {
+            assertTrue(metrics.getStats().isEmpty());
+        } finally {
+            eventManager.disableListenerMetrics();
+        }
+    }
+
+    private static void callStatusPacket(EventManager eventManager, User user, int packetId)
+            throws PacketProcessException {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        try {
+            ByteBufHelper.writeVarInt(buffer, packetId);
+            if (packetId == PacketType.Status.Client.PING.getId()) {
+                ByteBufHelper.writeLong(buffer, System.currentTimeMillis());
+            }
+            PacketReceiveEvent event = EventCreationUtil.createReceiveEvent(null, user, null, buffer, false);
+            eventManager.callEvent(event);
+        } finally {
+            ByteBufHelper.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.MappingSnapshot;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class MappingSnapshotTest extends BaseDummyAPITest {
+
+    // every mapping file which is compressed with a snapshot, see the mappingCompression block of the build script
+    private static final String[] SNAPSHOT_MAPPINGS = {
+        "attribute/attribute_mappings",
+        "block/block_entity_type_mappings",
+        "block/block_type_mappings",
+        "chat/chat_type_mappings",
+        "command/argument_parser_mappings",
+        "damage/damagetype_mappings",
+        "enchantment/effect_component_type",
+        "entity/entity_data_type_mappings",
+        "entity/painting_mappings",
+        "entity/wolf_variant_mappings",
+        "item/consume_effect_type_mappings",
+        "item/equipment_asset_mappings",
+        "item/item_banner_pattern_mappings",
+        "item/item_component_mappings",
+        "item/item_instrument_mappings",
+        "item/item_jukebox_song_mappings",
+        "item/item_map_decoration_type_mappings",
+        "item/item_potion_mappings",
+        "item/item_trim_material_mappings",
+        "item/item_trim_pattern_mappings",
+        "item/recipe_book_category",
+        "item/recipe_display_types",
+        "item/recipe_serializer_mappings",
+        "item/recipe_slot_display_types",
+        "particle/particle_type_mappings",
+        "sound/sound_mappings",
+        "world/biome_mappings",
+        "world/world_position_source_mappings",
+        "enchantment/enchantment_type_mappings",
+        "entity/entity_effect_mappings",
+        "entity/entity_type_mappings",
+        "entity/legacy_entity_type_mappings",
+        "item/item_type_mappings",
+        "world/dimension_type_mappings"
+    };
+
+    @Test
+    @DisplayName("Verify the mapping snapshots match the compressed mappings")
+    public void testSnapshotsMatchCompressedMappings() {
+        for (String path : SNAPSHOT_MAPPINGS) {
+            this.assertSnapshotMatches(path);
+        }
+    }
+
+    private void assertSnapshotMatches(String path) {
+        assertNotNull(MappingSnapshot.read("mappings/" + path), () -> "No snapshot generated for " + path);
+
+        TypesBuilder snapshot = new TypesBuilder(path, true);
+        snapshot.load();
+        TypesBuilder compressed = new TypesBuilder(path, true);
+        compressed.loadCompressed();
+
+        ClientVersion[] versions = compressed.getVersions();
+        assertArrayEquals(versions, snapshot.getVersions(), () -> path + " has different versions");
+        assertEquals(compressed.getKeys(), snapshot.getKeys(), () -> path + " has different keys");
+        for (String key : compressed.getKeys()) {
+            TypesBuilderData expected = compressed.define(key);
+            TypesBuilderData actual = snapshot.define(key);
+            for (ClientVersion version : versions) {
+                assertEquals(expected.getId(version), actual.getId(version),
+                        () -> path + " maps " + key + " differently in " + version);
+            }
+        }
+    }
+}
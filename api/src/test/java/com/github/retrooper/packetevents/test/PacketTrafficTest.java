@@ -0,0 +1,136 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTraffic;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTrafficEntry;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTrafficSnapshot;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketTrafficTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Verify packets and bytes are counted per side and packet type")
+    public void testCounters() {
+        PacketTraffic traffic = new PacketTraffic();
+        for (int i = 0; i < 3; i++) {
+            traffic.record(PacketSide.CLIENT, ConnectionState.PLAY, PacketType.Play.Client.PLAYER_POSITION, 20);
+        }
+        traffic.record(PacketSide.CLIENT, ConnectionState.PLAY, PacketType.Play.Client.CHAT_MESSAGE, 100);
+        traffic.record(PacketSide.SERVER, ConnectionState.PLAY, PacketType.Play.Server.CHUNK_DATA, 5000);
+        traffic.record(PacketSide.SERVER, ConnectionState.LOGIN, PacketType.Login.Server.LOGIN_SUCCESS, 40);
+        // packets which couldn't be mapped to a packet type are counted as well
+        traffic.record(PacketSide.CLIENT, ConnectionState.PLAY, null, 7);
+
+        assertEquals(5L, traffic.getPackets(PacketSide.CLIENT));
+        assertEquals(3L * 20L + 100L + 7L, traffic.getBytes(PacketSide.CLIENT));
+        assertEquals(2L, traffic.getPackets(PacketSide.SERVER));
+        assertEquals(5040L, traffic.getBytes(PacketSide.SERVER));
+
+        PacketTrafficSnapshot snapshot = traffic.snapshot();
+        assertEquals(5, snapshot.getEntries().size());
+        assertEquals(traffic.getPackets(PacketSide.CLIENT), snapshot.getPackets(PacketSide.CLIENT));
+        assertEquals(traffic.getBytes(PacketSide.SERVER), snapshot.getBytes(PacketSide.SERVER));
+
+        PacketTrafficEntry positions = snapshot.getTopByPackets(1).get(0);
+        assertSame(PacketType.Play.Client.PLAYER_POSITION, positions.getPacketType());
+        assertSame(PacketSide.CLIENT, positions.getSide());
+        assertSame(ConnectionState.PLAY, positions.getState());
+        assertEquals(3L, positions.getPackets());
+        assertEquals(60L, positions.getBytes());
+
+        List<PacketTrafficEntry> byBytes = snapshot.getTopByBytes(2);
+        assertEquals(2, byBytes.size());
+        assertSame(PacketType.Play.Server.CHUNK_DATA, byBytes.get(0).getPacketType());
+        assertSame(PacketType.Play.Client.CHAT_MESSAGE, byBytes.get(1).getPacketType());
+
+        PacketTrafficEntry unknown = null;
+        for (PacketTrafficEntry entry : snapshot.getEntries()) {
+            if (entry.getPacketType() == null) {
+                unknown = entry;
+            }
+        }
+        assertEquals(1L, unknown.getPackets());
+        assertEquals(7L, unknown.getBytes());
+    }
+
+    @Test
+    @DisplayName("Verify snapshots only count the packets recorded since an earlier snapshot")
+    public void testSince() {
+        PacketTraffic traffic = new PacketTraffic();
+        traffic.record(PacketSide.CLIENT, ConnectionState.PLAY, PacketType.Play.Client.PLAYER_POSITION, 20);
+        traffic.record(PacketSide.CLIENT, ConnectionState.PLAY, PacketType.Play.Client.CHAT_MESSAGE, 100);
+        PacketTrafficSnapshot earlier = traffic.snapshot();
+
+        traffic.record(PacketSide.CLIENT, ConnectionState.PLAY, PacketType.Play.Client.PLAYER_POSITION, 20);
+        traffic.record(PacketSide.SERVER, ConnectionState.PLAY, PacketType.Play.Server.CHUNK_DATA, 5000);
+        PacketTrafficSnapshot later = traffic.snapshot();
+
+        PacketTrafficSnapshot difference = later.since(earlier);
+        assertEquals(later.getTimestampNanos() - earlier.getTimestampNanos(), difference.getDurationNanos());
+        // the chat message hasn't been sent again, so it isn't part of the difference
+        assertEquals(2, difference.getEntries().size());
+        assertEquals(1L, difference.getPackets(PacketSide.CLIENT));
+        assertEquals(20L, difference.getBytes(PacketSide.CLIENT));
+        assertEquals(5000L, difference.getBytes(PacketSide.SERVER));
+        for (PacketTrafficEntry entry : difference.getEntries()) {
+            assertTrue(entry.getPacketsPerSecond() > 0.0D);
+        }
+
+        traffic.reset();
+        assertEquals(0L, traffic.getPackets(PacketSide.CLIENT));
+        assertTrue(traffic.snapshot().getEntries().isEmpty());
+        // counters which have been reset in between don't produce negative entries
+        traffic.record(PacketSide.CLIENT, ConnectionState.PLAY, PacketType.Play.Client.PLAYER_POSITION, 20);
+        assertTrue(traffic.snapshot().since(later).getEntries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Verify packets recorded from several threads at once are all counted")
+    public void testConcurrentRecording() throws InterruptedException {
+        PacketTraffic traffic = new PacketTraffic();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    traffic.record(PacketSide.SERVER, ConnectionState.PLAY, PacketType.Play.Server.ENTITY_TELEPORT, 3);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threads.length * 10_000L, traffic.getPackets(PacketSide.SERVER));
+        assertEquals(threads.length * 30_000L, traffic.getBytes(PacketSide.SERVER));
+        assertEquals(1, traffic.snapshot().getEntries().size());
+        assertSame(PacketType.Play.Server.ENTITY_TELEPORT, traffic.snapshot().getEntries().get(0).getPacketType());
+    }
+}
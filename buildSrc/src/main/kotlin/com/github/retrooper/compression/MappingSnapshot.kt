@@ -0,0 +1,70 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.retrooper.compression
+
+import java.io.BufferedOutputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * Writes the ids of every version into a flat table, which can be read without replaying diffs.
+ *
+ * Format (big endian):
+ * - int magic, byte format version
+ * - int string pool size, followed by the pooled keys (modified UTF-8)
+ * - byte version count, then for every version its name, an int entry count and an (int key, int id) pair per entry
+ */
+object MappingSnapshot {
+
+    const val MAGIC: Int = 0x50454D53 // PEMS
+    const val FORMAT_VERSION: Byte = 1
+
+    fun write(path: Path, versions: List<Pair<EntryVersion, List<Pair<String, Int>>>>) {
+        val pool = linkedMapOf<String, Int>()
+        for ((_, entries) in versions) {
+            for ((key, _) in entries) {
+                pool.getOrPut(key) { pool.size }
+            }
+        }
+
+        try {
+            DataOutputStream(BufferedOutputStream(Files.newOutputStream(path))).use { out ->
+                out.writeInt(MAGIC)
+                out.writeByte(FORMAT_VERSION.toInt())
+                out.writeInt(pool.size)
+                for (key in pool.keys) {
+                    out.writeUTF(key)
+                }
+                out.writeByte(versions.size)
+                for ((version, entries) in versions) {
+                    out.writeUTF(version.toString())
+                    out.writeInt(entries.size)
+                    for ((key, id) in entries) {
+                        out.writeInt(pool.getValue(key))
+                        out.writeInt(id)
+                    }
+                }
+            }
+        } catch (e: IOException) {
+            throw RuntimeException("Failed to write mapping snapshot: $path", e)
+        }
+    }
+
+}
@@ -22,6 +22,7 @@ import com.github.difflib.algorithm.myers.MeyersDiff
 import com.github.difflib.patch.ChangeDelta
 import com.github.difflib.patch.DeleteDelta
 import com.github.difflib.patch.InsertDelta
+import com.github.retrooper.compression.EntryVersion
 import com.github.retrooper.compression.asStringList
 import com.github.steveice10.opennbt.tag.builtin.ByteTag
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag
@@ -91,4 +92,10 @@ object JsonArrayCompressionStrategy : JsonCompressionStrategy() {
         tag.put("entries", nbtEntries)
     }
 
+    override fun snapshot(json: JsonObject): List<Pair<EntryVersion, List<Pair<String, Int>>>> {
+        return separateVersions(json).map { (version, value) ->
+            version to value.asJsonArray.asStringList.mapIndexed { id, key -> key to id }
+        }
+    }
+
 }
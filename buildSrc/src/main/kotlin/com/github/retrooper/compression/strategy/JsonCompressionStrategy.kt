@@ -19,6 +19,7 @@ package com.github.retrooper.compression.strategy
 
 import com.github.retrooper.compression.CompressionUtil
 import com.github.retrooper.compression.EntryVersion
+import com.github.retrooper.compression.MappingSnapshot
 import com.github.steveice10.opennbt.tag.builtin.ByteTag
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag
 import com.google.gson.JsonElement
@@ -37,10 +38,20 @@ abstract class JsonCompressionStrategy : CompressionStrategy {
         serialize(tag, json)
 
         CompressionUtil.writeNbt(to, tag)
+
+        // an additional flat table, so the runtime doesn't have to replay the diffs
+        snapshot(json)?.let {
+            MappingSnapshot.write(to.resolveSibling(to.fileName.toString().replace(".nbt", ".bin")), it)
+        }
     }
 
     abstract fun serialize(tag: CompoundTag, json: JsonObject)
 
+    /**
+     * @return the ids of every version, or null if the mappings aren't id mappings
+     */
+    open fun snapshot(json: JsonObject): List<Pair<EntryVersion, List<Pair<String, Int>>>>? = null
+
     protected fun separateVersions(json: JsonObject): TreeMap<EntryVersion, JsonElement> {
         return json.entrySet().associateTo(TreeMap()) { EntryVersion.fromString(it.key) to it.value }
     }
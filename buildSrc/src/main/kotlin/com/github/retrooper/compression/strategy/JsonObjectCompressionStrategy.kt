@@ -22,6 +22,7 @@ import com.github.difflib.algorithm.myers.MeyersDiff
 import com.github.difflib.patch.ChangeDelta
 import com.github.difflib.patch.DeleteDelta
 import com.github.difflib.patch.InsertDelta
+import com.github.retrooper.compression.EntryVersion
 import com.github.retrooper.compression.asPrimitiveMap
 import com.github.steveice10.opennbt.tag.builtin.*
 import com.google.gson.JsonObject
@@ -89,6 +90,14 @@ object JsonObjectCompressionStrategy : JsonCompressionStrategy() {
         tag.put("entries", nbtEntries)
     }
 
+    override fun snapshot(json: JsonObject): List<Pair<EntryVersion, List<Pair<String, Int>>>> {
+        return separateVersions(json).map { (version, value) ->
+            version to value.asJsonObject.asPrimitiveMap
+                .filterValues { it.isNumber }
+                .map { (key, id) -> key to id.asInt }
+        }
+    }
+
     private val JsonPrimitive.asNbtTag: Tag get() = if (isNumber) {
         IntTag(asInt)
     } else if (isString) {
@@ -36,6 +36,7 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.player.UserProfile;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
 import io.github.retrooper.packetevents.impl.netty.manager.player.PlayerManagerAbstract;
 import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
@@ -219,6 +220,7 @@ public class BungeePacketEventsBuilder {
                 // Load if we haven't loaded already
                 load();
                 if (!initialized) {
+                    PacketEventsImplHelper.initFeatures(this);
                     ProxyServer.getInstance().getPluginManager().registerListener(plugin, new InternalBungeeProcessor());
                     if (settings.shouldCheckForUpdates()) {
                         getUpdateChecker().handleUpdateCheck();
@@ -21,8 +21,10 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -43,6 +45,10 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
+        if (!PacketEventsImplHelper.preparePacket(user, byteBuf, false, PacketSide.CLIENT)) {
+            output.add(byteBuf.retain());
+            return;
+        }
         ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
         try {
             int firstReaderIndex = transformed.readerIndex();
@@ -50,21 +56,25 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                     user, player, transformed, false);
             int readerIndex = transformed.readerIndex();
             PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> transformed.readerIndex(readerIndex));
-            if (!packetReceiveEvent.isCancelled()) {
-                if (packetReceiveEvent.getLastUsedWrapper() != null) {
-                    ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
-                    packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
-                    packetReceiveEvent.getLastUsedWrapper().write();
-                }
-                else {
-                    transformed.readerIndex(firstReaderIndex);
+            try {
+                if (!packetReceiveEvent.isCancelled()) {
+                    if (packetReceiveEvent.getLastUsedWrapper() != null) {
+                        ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
+                        packetReceiveEvent.writeLastUsedWrapper();
+                    }
+                    else {
+                        transformed.readerIndex(firstReaderIndex);
+                    }
+                    output.add(transformed.retain());
                 }
-                output.add(transformed.retain());
-            }
-            if (packetReceiveEvent.hasPostTasks()) {
-                for (Runnable task : packetReceiveEvent.getPostTasks()) {
-                    task.run();
+                if (packetReceiveEvent.hasPostTasks()) {
+                    for (Runnable task : packetReceiveEvent.getPostTasks()) {
+                        task.run();
+                    }
                 }
+            } finally {
+                // the wrappers can only be reused once they have been written
+                packetReceiveEvent.releasePooledWrappers();
             }
         } finally {
             transformed.release();
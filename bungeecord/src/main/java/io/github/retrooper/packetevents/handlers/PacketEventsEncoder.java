@@ -21,8 +21,10 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.injector.CustomPipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -61,31 +63,43 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
 
     public void read(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) throws Exception {
         boolean doCompression = handleCompressionOrder(ctx, buffer);
+        if (!PacketEventsImplHelper.preparePacket(user, buffer, false, PacketSide.SERVER)) {
+            if (doCompression) {
+                this.recompress(ctx, buffer, promise);
+            } else {
+                ctx.write(buffer, promise);
+            }
+            return;
+        }
         int firstReaderIndex = buffer.readerIndex();
         PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player,
                 buffer, false);
         int readerIndex = buffer.readerIndex();
         PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
-            } else {
-                buffer.readerIndex(firstReaderIndex);
-            }
-            if (doCompression) {
-                this.recompress(ctx, buffer, promise);
+        try {
+            if (!packetSendEvent.isCancelled()) {
+                if (packetSendEvent.getLastUsedWrapper() != null) {
+                    ByteBufHelper.clear(packetSendEvent.getByteBuf());
+                    packetSendEvent.writeLastUsedWrapper();
+                } else {
+                    buffer.readerIndex(firstReaderIndex);
+                }
+                if (doCompression) {
+                    this.recompress(ctx, buffer, promise);
+                } else {
+                    ctx.write(buffer, promise);
+                }
             } else {
-                ctx.write(buffer, promise);
+                ReferenceCountUtil.release(packetSendEvent.getByteBuf());
             }
-        } else {
-            ReferenceCountUtil.release(packetSendEvent.getByteBuf());
-        }
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
+            if (packetSendEvent.hasPostTasks()) {
+                for (Runnable task : packetSendEvent.getPostTasks()) {
+                    task.run();
+                }
             }
+        } finally {
+            // the wrappers can only be reused once they have been written
+            packetSendEvent.releasePooledWrappers();
         }
     }
 
@@ -27,8 +27,10 @@ import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.manager.server.ServerManager;
 import com.github.retrooper.packetevents.netty.NettyManager;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
 import io.github.retrooper.packetevents.impl.netty.manager.player.PlayerManagerAbstract;
 import net.fabricmc.api.EnvType;
@@ -92,6 +94,7 @@ public class FabricPacketEventsAPI extends PacketEventsAPI<FabricLoader> {
         PacketEvents.DECODER_NAME = "pe-decoder-" + id;
         PacketEvents.CONNECTION_HANDLER_NAME = "pe-connection-handler-" + id;
         PacketEvents.SERVER_CHANNEL_HANDLER_NAME = "pe-connection-initializer-" + id;
+        WrappedBlockState.ensureLoad(this.settings.getPreloadedBlockStates());
 
         // register internal packet listener (should be the first listener)
         // this listener doesn't do any modifications to the packets, just reads data
@@ -111,6 +114,7 @@ public class FabricPacketEventsAPI extends PacketEventsAPI<FabricLoader> {
         if (this.initialized) {
             return;
         }
+        PacketEventsImplHelper.initFeatures(this);
         if (this.settings.shouldCheckForUpdates()) {
             this.getUpdateChecker().handleUpdateCheck();
         }
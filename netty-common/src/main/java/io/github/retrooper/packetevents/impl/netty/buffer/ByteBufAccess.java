@@ -0,0 +1,144 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2025 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * MIT License
+
+ * Copyright (c) 2021 Andrew Steinborn
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.retrooper.packetevents.impl.netty.buffer;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Bulk and variable-length accessors working directly on a {@link ByteBuf},
+ * shared by all netty based {@link com.github.retrooper.packetevents.netty.buffer.ByteBufOperator} implementations.
+ */
+public final class ByteBufAccess {
+    private static final int MAX_VAR_INT_LENGTH = 5;
+
+    private ByteBufAccess() {
+    }
+
+    public static int readVarInt(ByteBuf buffer) {
+        if (buffer.hasArray()) {
+            // decode straight from the backing array and move the reader index only once
+            int readerIndex = buffer.readerIndex();
+            int limit = Math.min(buffer.writerIndex() - readerIndex, MAX_VAR_INT_LENGTH);
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset() + readerIndex;
+            int value = 0;
+            for (int i = 0; i < limit; i++) {
+                byte currentByte = array[offset + i];
+                value |= (currentByte & 0x7F) << (i * 7);
+                if ((currentByte & 0x80) != 0x80) {
+                    buffer.readerIndex(readerIndex + i + 1);
+                    return value;
+                }
+            }
+            if (limit < MAX_VAR_INT_LENGTH) {
+                throw new IndexOutOfBoundsException("VarInt exceeds the readable bytes of the buffer: " + buffer);
+            }
+            throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+        }
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = buffer.readByte();
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > MAX_VAR_INT_LENGTH) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
+    public static void writeVarInt(ByteBuf buffer, int value) {
+        /* Got this code/optimization from https://steinborn.me/posts/performance/how-fast-can-you-write-a-varint/
+         * Copyright and permission notice above (above the class).
+         * Steinborn's post says that the code is under the MIT, last accessed 29.06.2024.
+         */
+        if ((value & (0xFFFFFFFF << 7)) == 0) {
+            buffer.writeByte(value);
+        } else if ((value & (0xFFFFFFFF << 14)) == 0) {
+            int w = (value & 0x7F | 0x80) << 8 | (value >>> 7);
+            buffer.writeShort(w);
+        } else if ((value & (0xFFFFFFFF << 21)) == 0) {
+            int w = (value & 0x7F | 0x80) << 16 | ((value >>> 7) & 0x7F | 0x80) << 8 | (value >>> 14);
+            buffer.writeMedium(w);
+        } else if ((value & (0xFFFFFFFF << 28)) == 0) {
+            int w = (value & 0x7F | 0x80) << 24 | (((value >>> 7) & 0x7F | 0x80) << 16)
+                    | ((value >>> 14) & 0x7F | 0x80) << 8 | (value >>> 21);
+            buffer.writeInt(w);
+        } else {
+            int w = (value & 0x7F | 0x80) << 24 | ((value >>> 7) & 0x7F | 0x80) << 16
+                    | ((value >>> 14) & 0x7F | 0x80) << 8 | ((value >>> 21) & 0x7F | 0x80);
+            buffer.writeInt(w);
+            buffer.writeByte(value >>> 28);
+        }
+    }
+
+    public static void readLongs(ByteBuf buffer, long[] destination) {
+        int length = destination.length << 3;
+        if (buffer.readableBytes() < length) {
+            throw new IndexOutOfBoundsException("Cannot read " + destination.length
+                    + " longs, only " + buffer.readableBytes() + " bytes are readable: " + buffer);
+        }
+        if (buffer.nioBufferCount() == 1) {
+            // single backing region, let the nio buffer copy all longs at once
+            ByteBuffer nioBuffer = buffer.nioBuffer(buffer.readerIndex(), length);
+            nioBuffer.order(ByteOrder.BIG_ENDIAN).asLongBuffer().get(destination);
+            buffer.skipBytes(length);
+            return;
+        }
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = buffer.readLong();
+        }
+    }
+
+    public static void writeLongs(ByteBuf buffer, long[] source) {
+        buffer.ensureWritable(source.length << 3);
+        for (long value : source) {
+            buffer.writeLong(value);
+        }
+    }
+}
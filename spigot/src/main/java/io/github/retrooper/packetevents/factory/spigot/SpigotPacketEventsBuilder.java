@@ -30,6 +30,7 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.bukkit.InternalBukkitListener;
 import io.github.retrooper.packetevents.injector.SpigotChannelInjector;
 import io.github.retrooper.packetevents.injector.connection.ServerConnectionInitializer;
@@ -103,7 +104,7 @@ public class SpigotPacketEventsBuilder {
                     try {
                         SpigotReflectionUtil.init();
                         CustomPipelineUtil.init();
-                        WrappedBlockState.ensureLoad();
+                        WrappedBlockState.ensureLoad(settings.getPreloadedBlockStates());
                     } catch (Exception ex) {
                         throw new IllegalStateException(ex);
                     }
@@ -137,6 +138,7 @@ public class SpigotPacketEventsBuilder {
                 //Load if we haven't loaded already
                 load();
                 if (!initialized) {
+                    PacketEventsImplHelper.initFeatures(this);
                     if (settings.shouldCheckForUpdates()) {
                         getUpdateChecker().handleUpdateCheck();
                     }
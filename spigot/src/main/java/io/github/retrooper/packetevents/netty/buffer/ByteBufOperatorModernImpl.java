@@ -19,6 +19,7 @@
 package io.github.retrooper.packetevents.netty.buffer;
 
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+import io.github.retrooper.packetevents.impl.netty.buffer.ByteBufAccess;
 import io.netty.buffer.ByteBuf;
 
 import java.nio.charset.Charset;
@@ -136,6 +137,26 @@ public class ByteBufOperatorModernImpl implements ByteBufOperator {
         return ((ByteBuf)buffer).getUnsignedByte(index);
     }
 
+    @Override
+    public void setByte(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setByte(index, value);
+    }
+
+    @Override
+    public void setShort(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setShort(index, value);
+    }
+
+    @Override
+    public void setInt(Object buffer, int index, int value) {
+        ((ByteBuf)buffer).setInt(index, value);
+    }
+
+    @Override
+    public void setLong(Object buffer, int index, long value) {
+        ((ByteBuf)buffer).setLong(index, value);
+    }
+
     @Override
     public boolean isReadable(Object buffer) {
         return ((ByteBuf)buffer).isReadable();
@@ -245,4 +266,24 @@ public class ByteBufOperatorModernImpl implements ByteBufOperator {
     public Object resetWriterIndex(Object buffer) {
         return ((ByteBuf)buffer).resetWriterIndex();
     }
+
+    @Override
+    public int readVarInt(Object buffer) {
+        return ByteBufAccess.readVarInt((ByteBuf)buffer);
+    }
+
+    @Override
+    public void writeVarInt(Object buffer, int value) {
+        ByteBufAccess.writeVarInt((ByteBuf)buffer, value);
+    }
+
+    @Override
+    public void readLongs(Object buffer, long[] destination) {
+        ByteBufAccess.readLongs((ByteBuf)buffer, destination);
+    }
+
+    @Override
+    public void writeLongs(Object buffer, long[] source) {
+        ByteBufAccess.writeLongs((ByteBuf)buffer, source);
+    }
 }
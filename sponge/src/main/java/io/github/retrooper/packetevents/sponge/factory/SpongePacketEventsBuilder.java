@@ -26,9 +26,11 @@ import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.manager.server.ServerManager;
 import com.github.retrooper.packetevents.netty.NettyManager;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.sponge.injector.SpongeChannelInjector;
 import io.github.retrooper.packetevents.sponge.injector.connection.ServerConnectionInitializer;
 import io.github.retrooper.packetevents.sponge.manager.protocol.ProtocolManagerImpl;
@@ -100,6 +102,7 @@ public class SpongePacketEventsBuilder {
                 try {
                     SpongeReflectionUtil.init();
                     CustomPipelineUtil.init();
+                    WrappedBlockState.ensureLoad(settings.getPreloadedBlockStates());
                 } catch (Exception ex) {
                     throw new IllegalStateException(ex);
                 }
@@ -134,6 +137,7 @@ public class SpongePacketEventsBuilder {
 
                 if (initialized) return;
 
+                PacketEventsImplHelper.initFeatures(this);
                 Sponge.eventManager().registerListeners(plugin, new InternalSpongeListener());
 
                 if (lateBind) {
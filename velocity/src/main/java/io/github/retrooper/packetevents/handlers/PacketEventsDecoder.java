@@ -22,9 +22,11 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EnumUtil;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.github.retrooper.packetevents.util.reflection.Reflection;
 import com.velocitypowered.api.proxy.Player;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
@@ -48,6 +50,10 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
+        if (!PacketEventsImplHelper.preparePacket(user, byteBuf, false, PacketSide.CLIENT)) {
+            output.add(byteBuf.retain());
+            return;
+        }
         ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
         try {
             int firstReaderIndex = transformed.readerIndex();
@@ -55,19 +61,23 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                     transformed, false);
             int readerIndex = transformed.readerIndex();
             PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> transformed.readerIndex(readerIndex));
-            if (!packetReceiveEvent.isCancelled()) {
-                if (packetReceiveEvent.getLastUsedWrapper() != null) {
-                    ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
-                    packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
-                    packetReceiveEvent.getLastUsedWrapper().write();
+            try {
+                if (!packetReceiveEvent.isCancelled()) {
+                    if (packetReceiveEvent.getLastUsedWrapper() != null) {
+                        ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
+                        packetReceiveEvent.writeLastUsedWrapper();
+                    }
+                    transformed.readerIndex(firstReaderIndex);
+                    output.add(transformed.retain());
                 }
-                transformed.readerIndex(firstReaderIndex);
-                output.add(transformed.retain());
-            }
-            if (packetReceiveEvent.hasPostTasks()) {
-                for (Runnable task : packetReceiveEvent.getPostTasks()) {
-                    task.run();
+                if (packetReceiveEvent.hasPostTasks()) {
+                    for (Runnable task : packetReceiveEvent.getPostTasks()) {
+                        task.run();
+                    }
                 }
+            } finally {
+                // the wrappers can only be reused once they have been written
+                packetReceiveEvent.releasePooledWrappers();
             }
         } finally {
             transformed.release();
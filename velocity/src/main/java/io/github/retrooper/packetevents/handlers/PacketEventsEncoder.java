@@ -20,17 +20,24 @@ package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.velocitypowered.api.proxy.Player;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
 
+// Works on the outgoing buffer in place if this handler is its only user,
+// the packet is only written into a new buffer if a listener re-encodes it
 @ChannelHandler.Sharable
-public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
+public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
     public Player player;
     public User user;
 
@@ -38,39 +45,87 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         this.user = user;
     }
 
-    public void read(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
-        int firstReaderIndex = buffer.readerIndex();
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player, buffer,
-                false);
-        int readerIndex = buffer.readerIndex();
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
+    public void read(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) throws Exception {
+        // the buffer which has to be released if processing fails, null once it has been passed on
+        ByteBuf packet = buffer;
+        try {
+            if (!PacketEventsImplHelper.preparePacket(user, buffer, false, PacketSide.SERVER)) {
+                packet = null;
+                ctx.write(buffer, promise);
+                return;
             }
-            buffer.readerIndex(firstReaderIndex);
-        } else {
-            ByteBufHelper.clear(packetSendEvent.getByteBuf());
-        }
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
+            if (!isExclusive(buffer)) {
+                // listeners may patch the packet, which mustn't touch memory shared with other buffers
+                packet = ctx.alloc().buffer(buffer.readableBytes()).writeBytes(buffer);
+                buffer.release();
             }
+            int firstReaderIndex = packet.readerIndex();
+            PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player, packet,
+                    false);
+            int readerIndex = packet.readerIndex();
+            ByteBuf eventBuffer = packet;
+            PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> eventBuffer.readerIndex(readerIndex));
+            try {
+                if (!packetSendEvent.isCancelled()) {
+                    PacketWrapper<?> wrapper = packetSendEvent.getLastUsedWrapper();
+                    if (wrapper != null) {
+                        // the re-encoded packet may be longer, so it is written into a new buffer
+                        ByteBuf encoded = ctx.alloc().buffer();
+                        try {
+                            wrapper.setBuffer(encoded);
+                            packetSendEvent.writeLastUsedWrapper();
+                        } catch (Throwable t) {
+                            encoded.release();
+                            throw t;
+                        }
+                        packetSendEvent.setByteBuf(encoded);
+                        packet.release();
+                        packet = encoded;
+                    } else {
+                        packet.readerIndex(firstReaderIndex);
+                    }
+                    ByteBuf output = packet;
+                    packet = null;
+                    ctx.write(output, promise);
+                } else {
+                    packet.release();
+                    packet = null;
+                    // complete the promise like an encoder producing no output would
+                    ctx.write(Unpooled.EMPTY_BUFFER, promise);
+                }
+                if (packetSendEvent.hasPostTasks()) {
+                    for (Runnable task : packetSendEvent.getPostTasks()) {
+                        task.run();
+                    }
+                }
+            } finally {
+                // the wrappers can only be reused once they have been written
+                packetSendEvent.releasePooledWrappers();
+            }
+        } catch (Throwable t) {
+            if (packet != null) {
+                ReferenceCountUtil.release(packet);
+            }
+            throw t;
         }
     }
 
-    @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
-        if (!msg.isReadable()) return;
+    // Whether the buffer is writable and not shared, so it can be modified in place
+    private static boolean isExclusive(ByteBuf buffer) {
+        return !buffer.isReadOnly() && buffer.unwrap() == null && buffer.refCnt() == 1;
+    }
 
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(msg);
-        try {
-            read(ctx, transformed);
-            out.writeBytes(transformed);
-        } finally {
-            transformed.release();
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!(msg instanceof ByteBuf)) {
+            super.write(ctx, msg, promise);
+            return;
+        }
+        ByteBuf buf = (ByteBuf) msg;
+        if (!buf.isReadable()) {
+            ctx.write(buf, promise);
+        } else {
+            this.read(ctx, buf, promise);
         }
     }
 
@@ -79,4 +134,3 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         super.exceptionCaught(ctx, cause);
     }
 }
-
@@ -33,6 +33,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.plugin.PluginContainer;
@@ -196,6 +197,7 @@ public class VelocityPacketEventsBuilder {
                 load();
                 if (initialized) return;
 
+                PacketEventsImplHelper.initFeatures(this);
                 server.getEventManager().register(plugin.getInstance().orElse(null), PostLoginEvent.class,
                         (event) -> {
                             Player player = event.getPlayer();